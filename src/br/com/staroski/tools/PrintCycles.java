@@ -1,7 +1,9 @@
 package br.com.staroski.tools;
 
 import java.io.File;
+import java.util.List;
 
+import br.com.staroski.tools.analysis.Cycle;
 import br.com.staroski.tools.analysis.Project;
 import br.com.staroski.tools.analysis.Projects;
 import br.com.staroski.tools.analysis.analyzers.ShallowCycleAnalyzer;
@@ -17,7 +19,12 @@ public final class PrintCycles {
 			Project project = Projects.get(new File(repository, projectName));
 
 			ShallowCycleAnalyzer cycleAnalyzer = new ShallowCycleAnalyzer();
-			cycleAnalyzer.analyze(project);
+			List<Cycle> cycles = cycleAnalyzer.analyze(project);
+			System.out.println("cycles found: " + cycles.size() + " {");
+			for (Cycle cycle : cycles) {
+				System.out.println("    " + cycle);
+			}
+			System.out.println("}");
 		} catch (Throwable t) {
 			t.printStackTrace();
 		}
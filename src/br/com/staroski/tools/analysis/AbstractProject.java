@@ -1,7 +1,12 @@
 package br.com.staroski.tools.analysis;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
@@ -24,22 +29,42 @@ abstract class AbstractProject implements Project {
         };
     };
 
+    private final Path path;
     private final File folder;
     private final String name;
-    private final Set<Dependency> srcDependencies = new TreeSet<>(Dependency.KIND_COMPARATOR);
-    private final Set<Dependency> libDependencies = new TreeSet<>(Dependency.KIND_COMPARATOR);
-    private final Set<Dependency> allDependencies = new TreeSet<>(Dependency.KIND_COMPARATOR);
 
-    private Set<Project> projectDependencies;
+    // the dependencies declared while the project is read, sorted into a single array on the first access
+    private List<Dependency> declaredDependencies = new ArrayList<>();
+    private DependencySet srcDependencies;
+    private DependencySet libDependencies;
+    private volatile DependencySet allDependencies;
+
+    private volatile Set<Project> projectDependencies;
+
+    // the files the project was read from, they may not exist
+    private final List<Path> descriptorFiles = new ArrayList<>(2);
 
     private final Metrics metrics;
+    private final ProjectRegistry registry;
+
+    /**
+     * @param projectFolder The project's folder
+     * @param registry      The registry the project belongs to
+     */
+    AbstractProject(Path projectFolder, ProjectRegistry registry) {
+        this(projectFolder, null, registry);
+    }
 
     /**
      * @param projectFolder The project's folder
+     * @param name          The project's name, unique in its build, or <tt>null</tt> for the name of its folder
+     * @param registry      The registry the project belongs to
      */
-    AbstractProject(File projectFolder) {
-        folder = Objects.requireNonNull(projectFolder, "projectFolder cannot be null");
-        name = folder.getName();
+    AbstractProject(Path projectFolder, String name, ProjectRegistry registry) {
+        path = Objects.requireNonNull(projectFolder, "projectFolder cannot be null");
+        this.registry = Objects.requireNonNull(registry, "registry cannot be null");
+        folder = Projects.toFile(path);
+        this.name = name == null ? folder.getName() : name;
         metrics = new Metrics(this);
     }
 
@@ -62,7 +87,7 @@ abstract class AbstractProject implements Project {
 
     @Override
     public Set<Dependency> getAllDependencies() {
-        return allDependencies;
+        return dependencies();
     }
 
     @Override
@@ -72,6 +97,7 @@ abstract class AbstractProject implements Project {
 
     @Override
     public Set<Dependency> getLibDependencies() {
+        dependencies();
         return libDependencies;
     }
 
@@ -85,24 +111,31 @@ abstract class AbstractProject implements Project {
         return name;
     }
 
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
     @Override
     public Set<Project> getProjectDependencies() {
-        if (projectDependencies == null) {
-            projectDependencies = new TreeSet<>(AbstractProject.NAME_COMPARATOR);
+        Set<Project> resolved = projectDependencies;
+        if (resolved == null) {
+            resolved = new TreeSet<>(AbstractProject.NAME_COMPARATOR);
             for (Dependency src : getSrcDependencies()) {
-                try {
-                    Project project = src.asProject();
-                    projectDependencies.add(project);
-                } catch (IllegalStateException e) {
-                    // ignore because some 'src' dependencies may not represent projects
+                // some 'src' dependencies may not represent projects, they are resolved to null
+                Project project = resolve(src);
+                if (project != null && project.isComponent()) {
+                    resolved.add(project);
                 }
             }
+            projectDependencies = resolved;
         }
-        return projectDependencies;
+        return resolved;
     }
 
     @Override
     public Set<Dependency> getSrcDependencies() {
+        dependencies();
         return srcDependencies;
     }
 
@@ -111,8 +144,127 @@ abstract class AbstractProject implements Project {
         return Objects.hash(getName());
     }
 
+    @Override
+    public boolean hasNestedProjects() {
+        return false;
+    }
+
+    @Override
+    public boolean isComponent() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return name;
     }
+
+    /**
+     * Declares a dependency of this project, the same artifact is represented by the same {@link Dependency} instance in all projects of the registry.<br>
+     * Dependencies can only be declared while the project is being read, before its dependencies are accessed.
+     *
+     * @param kind     {@link Dependency#KIND_SRC} or {@link Dependency#KIND_LIB}.
+     * @param artifact The project directory or the library file.
+     */
+    void addDependency(String kind, Path artifact) {
+        addDependency(registry.getDependencyPool().intern(kind, artifact));
+    }
+
+    /**
+     * Declares a dependency of kind {@link Dependency#KIND_SRC} on the project of the specified directory, named like that project.
+     *
+     * @param directory The project directory.
+     * @param name      The name of the project, see {@link #getName()}.
+     */
+    void addProjectDependency(Path directory, String name) {
+        addDependency(registry.getDependencyPool().intern(Dependency.KIND_SRC, directory, name));
+    }
+
+    /**
+     * Declares a file the project is read from, like its build file or a parent build file, a file that doesn't exist yet can be declared too.<br>
+     * The {@link ScanIndex} reuses the dependencies of a project while none of its descriptor files change.
+     */
+    void addDescriptorFile(Path file) {
+        descriptorFiles.add(file);
+    }
+
+    /**
+     * Returns the files declared by {@link #addDescriptorFile(Path)}.
+     */
+    List<Path> getDescriptorFiles() {
+        return Collections.unmodifiableList(descriptorFiles);
+    }
+
+    /**
+     * Declares a {@link Dependency} of this project already interned by the {@link DependencyPool} of its registry.
+     */
+    void addDependency(Dependency dependency) {
+        if (declaredDependencies == null) {
+            throw new IllegalStateException("The dependencies of \"" + name + "\" were already read");
+        }
+        declaredDependencies.add(dependency);
+    }
+
+    /**
+     * Returns the {@link ProjectRegistry} this project belongs to, its dependencies are resolved by it.
+     */
+    ProjectRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Discards the resolved {@link #getProjectDependencies() project dependencies}, they will be resolved again on the next call.
+     */
+    void clearProjectDependencies() {
+        projectDependencies = null;
+    }
+
+    /**
+     * Tells if the resolved {@link #getProjectDependencies() project dependencies} may change when the project of the specified directory is reloaded:
+     * they include the old project, or a <tt>src</tt> dependency points to the directory, that may not have been a project when they were resolved.<br>
+     * Only the paths are compared, the file system is not accessed.
+     *
+     * @param old       The project being reloaded, or <tt>null</tt> if there was none.
+     * @param directory The absolute and normalized directory of the reloaded project.
+     */
+    boolean mayDependOn(Project old, Path directory) {
+        final Set<Project> resolved = projectDependencies;
+        if (resolved == null) {
+            return false;
+        }
+        if (old != null && resolved.contains(old)) {
+            return true;
+        }
+        for (Dependency src : getSrcDependencies()) {
+            if (src.getPath().toAbsolutePath().normalize().equals(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Project resolve(Dependency src) {
+        try {
+            return registry.find(src.getPath());
+        } catch (IOException e) {
+            return null; // an unreadable directory is not a project either
+        }
+    }
+
+    private DependencySet dependencies() {
+        DependencySet all = allDependencies;
+        if (all == null) {
+            synchronized (this) {
+                all = allDependencies;
+                if (all == null) {
+                    all = DependencySet.of(declaredDependencies);
+                    srcDependencies = all.ofKind(Dependency.KIND_SRC);
+                    libDependencies = all.ofKind(Dependency.KIND_LIB);
+                    declaredDependencies = null;
+                    allDependencies = all;
+                }
+            }
+        }
+        return all;
+    }
 }
@@ -0,0 +1,138 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class represents a <b><a href="https://bazel.build/install">Bazel</a> package</b>, a directory with a <tt>BUILD</tt> or <tt>BUILD.bazel</tt>
+ * file.<br>
+ * Instances of this class are created through the static method {@link Projects#get(File)} passing the name directory as parameter.<br>
+ * A package is named by its label, like <tt>"//java/foo/util"</tt>, because the packages of a monorepo often share the name of their folders.<br>
+ * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.<br>
+ * <br>
+ * Only the packages with <tt>java_library</tt> or <tt>java_binary</tt> rules are {@link #isComponent() components}. The labels of the <tt>deps</tt>,
+ * <tt>runtime_deps</tt> and <tt>exports</tt> of those rules pointing to other packages of the workspace are dependencies of kind
+ * {@link Dependency#KIND_SRC}, the ones of external repositories, like <tt>@maven//:junit_junit</tt>, are dependencies of kind
+ * {@link Dependency#KIND_LIB}. Packages can contain other packages, so the scan always goes on into them.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class BazelProject extends AbstractProject {
+
+    static final String[] BUILD_FILES = { "BUILD.bazel", "BUILD" };
+
+    private static final Set<String> JAVA_RULES = new HashSet<>(Arrays.asList("java_library", "java_binary"));
+    private static final Set<String> DEPENDENCY_ATTRIBUTES = new HashSet<>(Arrays.asList("deps", "runtime_deps", "exports"));
+
+    private final Path root;
+    private final String packageName;
+    private boolean component;
+
+    /**
+     * Creates a new {@link BazelProject} for the specified folder.
+     *
+     * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
+     */
+    BazelProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, BazelWorkspace.toLabel(packageNameOf(projectFolder, registry.getBazelWorkspace())), registry);
+        final BazelWorkspace workspace = registry.getBazelWorkspace();
+        root = rootOf(projectFolder, workspace);
+        packageName = packageNameOf(projectFolder, workspace);
+        for (String name : BUILD_FILES) {
+            addDescriptorFile(projectFolder.resolve(name));
+        }
+        for (String name : BUILD_FILES) {
+            Path buildFile = projectFolder.resolve(name);
+            if (Files.isRegularFile(buildFile)) {
+                try {
+                    readBuildFile(workspace, BuildScript.read(buildFile, BuildScript.Syntax.STARLARK));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                break;
+            }
+        }
+    }
+
+    private static String packageNameOf(Path projectFolder, BazelWorkspace workspace) {
+        return workspace.getPackageName(rootOf(projectFolder, workspace), projectFolder);
+    }
+
+    // a package outside of any workspace is the root of its own
+    private static Path rootOf(Path projectFolder, BazelWorkspace workspace) {
+        final Path workspaceRoot = workspace.getRoot(projectFolder);
+        return workspaceRoot == null ? projectFolder.toAbsolutePath().normalize() : workspaceRoot;
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        return true;
+    }
+
+    @Override
+    public boolean isComponent() {
+        return component;
+    }
+
+    // "//pkg:target", "//pkg", "@repo//pkg:target", "@repo" or ":target" of the same package
+    private void addLabel(BazelWorkspace workspace, String label) {
+        String repository = null;
+        if (label.startsWith("@")) {
+            int slashes = label.indexOf("//");
+            repository = label.substring(label.startsWith("@@") ? 2 : 1, slashes < 0 ? label.length() : slashes);
+            label = slashes < 0 ? "//:" + repository : label.substring(slashes);
+            if (repository.isEmpty()) {
+                repository = null; // "@//pkg" is the main repository
+            }
+        }
+        if (!label.startsWith("//")) {
+            return; // a target of this package
+        }
+        final int colon = label.indexOf(':');
+        final String targetPackage = colon < 0 ? label.substring(2) : label.substring(2, colon);
+        if (repository != null) {
+            String target = colon < 0 ? targetPackage.substring(targetPackage.lastIndexOf('/') + 1) : label.substring(colon + 1);
+            addDependency(Dependency.KIND_LIB, workspace.getExternalFile(root, repository, targetPackage, target));
+        } else if (!targetPackage.equals(packageName)) {
+            addDependency(workspace.getPackageDependency(root, targetPackage, getRegistry().getDependencyPool()));
+        }
+    }
+
+    private void readBuildFile(BazelWorkspace workspace, BuildScript script) {
+        for (int i = 0; i < script.size(); i++) {
+            if (script.type(i) == BuildScript.IDENTIFIER && JAVA_RULES.contains(script.text(i)) && script.is(i + 1, "(")) {
+                component = true;
+                i = readRule(workspace, script, i + 1);
+            }
+        }
+    }
+
+    // reads the attributes of a rule starting at its '(', returns the index of its ')'
+    private int readRule(BazelWorkspace workspace, BuildScript script, int start) {
+        int depth = 0;
+        boolean dependencies = false;
+        for (int i = start; i < script.size(); i++) {
+            if (script.is(i, "(") || script.is(i, "[") || script.is(i, "{")) {
+                depth++;
+            } else if (script.is(i, ")") || script.is(i, "]") || script.is(i, "}")) {
+                if (--depth == 0) {
+                    return i;
+                }
+            } else if (depth == 1 && script.is(i, ",")) {
+                dependencies = false;
+            } else if (depth == 1 && script.type(i) == BuildScript.IDENTIFIER && script.is(i + 1, "=")) {
+                dependencies = DEPENDENCY_ATTRIBUTES.contains(script.text(i));
+            } else if (dependencies && script.type(i) == BuildScript.STRING && !script.is(i + 1, ":")) {
+                // the keys of a select() are conditions, not dependencies
+                addLabel(workspace, script.text(i));
+            }
+        }
+        return script.size();
+    }
+}
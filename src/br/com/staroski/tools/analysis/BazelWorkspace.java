@@ -0,0 +1,124 @@
+package br.com.staroski.tools.analysis;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Bazel workspaces shared by the {@link BazelProject}s of a {@link ProjectRegistry}.<br>
+ * The labels of the <tt>deps</tt> are resolved by a hash table of the packages of each workspace to their shared {@link Dependency}, built as the
+ * labels are found, so only the first of the thousands of <tt>BUILD</tt> files referencing a package interns its directory.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class BazelWorkspace {
+
+    static final String[] WORKSPACE_FILES = { "MODULE.bazel", "WORKSPACE.bazel", "WORKSPACE" };
+
+    // where the external repositories are fetched, relative to the workspace
+    private static final String EXTERNAL_FOLDER = "external";
+
+    private static boolean isRoot(Path directory) {
+        for (String name : WORKSPACE_FILES) {
+            if (Files.isRegularFile(directory.resolve(name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns the label of the specified package, like <tt>"//java/com/acme/core"</tt>, the name of its {@link BazelProject} and of the dependencies on it.
+     */
+    static String toLabel(String packageName) {
+        return "//" + packageName;
+    }
+
+    // the workspace root of each directory already looked up, an empty value means the directory is not inside a workspace
+    private final Map<Path, Optional<Path>> roots = new ConcurrentHashMap<>();
+
+    // the dependencies on the packages of each workspace by package name, like "java/com/acme/core"
+    private final Map<Path, Map<String, Dependency>> packages = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the file that represents a target of an external repository, like <tt>"@maven//:com_google_guava_guava"</tt>.<br>
+     * External repositories are fetched by Bazel outside of the workspace, so the returned file doesn't exist, it only names the dependency.
+     */
+    Path getExternalFile(Path root, String repository, String packageName, String target) {
+        Path file = root.resolve(EXTERNAL_FOLDER).resolve(repository);
+        if (!packageName.isEmpty()) {
+            file = file.resolve(packageName);
+        }
+        return file.resolve(target);
+    }
+
+    /**
+     * Returns the name of the package in the specified directory, relative to the workspace root and always separated by <tt>'/'</tt>.
+     */
+    String getPackageName(Path root, Path directory) {
+        final StringBuilder name = new StringBuilder();
+        for (Path segment : root.relativize(normalize(directory))) {
+            if (name.length() > 0) {
+                name.append('/');
+            }
+            name.append(segment);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Returns the {@link Dependency} of kind {@link Dependency#KIND_SRC} on the specified package of a workspace.
+     *
+     * @param pool The pool that interns the dependency the first time the package is referenced.
+     */
+    Dependency getPackageDependency(Path root, String packageName, DependencyPool pool) {
+        final Map<String, Dependency> table = packages.computeIfAbsent(root, key -> new ConcurrentHashMap<>());
+        Dependency dependency = table.get(packageName);
+        if (dependency == null) {
+            // interned outside of the table, the pool is thread-safe and returns the same instance to all threads
+            dependency = pool.intern(Dependency.KIND_SRC, root.resolve(packageName).normalize(), toLabel(packageName));
+            table.putIfAbsent(packageName, dependency);
+        }
+        return dependency;
+    }
+
+    /**
+     * Returns the root of the workspace that contains the specified directory, the nearest directory with a {@link #WORKSPACE_FILES workspace file}.
+     *
+     * @return The workspace root or <tt>null</tt> if the directory is not inside a workspace.
+     */
+    Path getRoot(Path directory) {
+        final Path start = normalize(directory);
+        Optional<Path> root = roots.get(start);
+        if (root == null) {
+            root = Optional.empty();
+            for (Path current = start; current != null; current = current.getParent()) {
+                Optional<Path> known = roots.get(current);
+                if (known != null) {
+                    root = known;
+                    break;
+                }
+                if (isRoot(current)) {
+                    root = Optional.of(current);
+                    break;
+                }
+            }
+            roots.put(start, root);
+        }
+        return root.orElse(null);
+    }
+
+    /**
+     * Discards the workspace roots already looked up, so a new or deleted workspace file is seen.
+     */
+    void invalidate() {
+        roots.clear();
+    }
+}
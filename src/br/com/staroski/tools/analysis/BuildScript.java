@@ -0,0 +1,150 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The tokens of a build script, like a Gradle script, Groovy (<tt>.gradle</tt>) or Kotlin (<tt>.gradle.kts</tt>), or a Bazel <tt>BUILD</tt> file.<br>
+ * The tokenizer is tolerant: it only tells identifiers, string literals and symbols apart and skips comments, so the declarations can be found without
+ * running the script or starting the build tool. Anything it doesn't understand becomes a symbol.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class BuildScript {
+
+    /**
+     * The comment syntaxes of the build scripts.
+     */
+    enum Syntax {
+
+        /**
+         * Groovy and Kotlin, with <tt>//</tt> and <tt>/* ... *&#47;</tt> comments.
+         */
+        GRADLE("//", true),
+
+        /**
+         * Starlark, the language of the Bazel files, with <tt>#</tt> comments.
+         */
+        STARLARK("#", false);
+
+        private final String lineComment;
+        private final boolean blockComments;
+
+        private Syntax(String lineComment, boolean blockComments) {
+            this.lineComment = lineComment;
+            this.blockComments = blockComments;
+        }
+    }
+
+    static final int IDENTIFIER = 0;
+    static final int STRING = 1;
+    static final int SYMBOL = 2;
+
+    /**
+     * Reads and tokenizes the specified script.
+     *
+     * @param file   The script file.
+     * @param syntax The syntax of the script.
+     * @return The {@link BuildScript}.
+     * @throws IOException If the file cannot be read.
+     */
+    static BuildScript read(Path file, Syntax syntax) throws IOException {
+        return new BuildScript(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), syntax);
+    }
+
+    private static int skipString(String source, int start, String quote) {
+        int i = start + quote.length();
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (source.startsWith(quote, i)) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private final List<String> texts = new ArrayList<>();
+    private final List<Integer> types = new ArrayList<>();
+
+    BuildScript(String source, Syntax syntax) {
+        final int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (source.startsWith(syntax.lineComment, i)) {
+                int end = source.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (syntax.blockComments && source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '"' || c == '\'') {
+                String quote = source.startsWith("\"\"\"", i) || source.startsWith("'''", i) ? source.substring(i, i + 3) : String.valueOf(c);
+                int end = skipString(source, i, quote);
+                add(STRING, source.substring(Math.min(i + quote.length(), end), end));
+                i = Math.min(end + quote.length(), length);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                add(IDENTIFIER, source.substring(i, end));
+                i = end;
+            } else {
+                add(SYMBOL, String.valueOf(c));
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Tells if the token at the specified index exists and has the specified text.
+     */
+    boolean is(int index, String text) {
+        return index < texts.size() && types.get(index) != STRING && texts.get(index).equals(text);
+    }
+
+    /**
+     * Returns the index of the first string literal in the next tokens, <tt>-1</tt> if a symbol other than the specified ones is found first.
+     *
+     * @param from    The index of the first token.
+     * @param symbols The symbols that can precede the string literal, like <tt>"(="</tt>.
+     */
+    int nextString(int from, String symbols) {
+        for (int i = from; i < texts.size(); i++) {
+            if (types.get(i) == STRING) {
+                return i;
+            }
+            if (types.get(i) == SYMBOL && symbols.indexOf(texts.get(i).charAt(0)) < 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    int size() {
+        return texts.size();
+    }
+
+    String text(int index) {
+        return texts.get(index);
+    }
+
+    int type(int index) {
+        return types.get(index);
+    }
+
+    private void add(int type, String text) {
+        types.add(type);
+        texts.add(text);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.staroski.tools.analysis;
+
+/**
+ * {@link MetricsVisitor} implementation that updates the strongly connected component of a {@link Project}'s {@link Metrics}.
+ * 
+ * @author Staroski, Ricardo Artur
+ */
+final class ComponentUpdater implements MetricsVisitor {
+
+    private final int component;
+    private final int componentSize;
+
+    ComponentUpdater(int component, int componentSize) {
+        this.component = component;
+        this.componentSize = componentSize;
+    }
+
+    @Override
+    public void visit(Metrics metrics) {
+        metrics.setComponent(component, componentSize);
+    }
+}
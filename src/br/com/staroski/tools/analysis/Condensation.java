@@ -0,0 +1,132 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.Arrays;
+
+/**
+ * The condensation of a {@link ProjectGraph}: the directed acyclic graph with one vertex per {@link StronglyConnectedComponents strongly connected
+ * component} and one edge between two components when a project of the first one depends on a project of the second one.<br>
+ * The vertices are the component ids, so a component only depends on components with smaller ids, and the forward and reverse adjacencies are stored as
+ * primitive CSR arrays without duplicated edges.<br>
+ * Instances of this class are immutable.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class Condensation {
+
+    /**
+     * Builds the condensation of the specified graph.
+     */
+    public static Condensation of(ProjectGraph graph) {
+        return of(StronglyConnectedComponents.of(graph));
+    }
+
+    /**
+     * Builds the condensation of the graph of the specified components, in <tt>O(V + E)</tt>.
+     */
+    public static Condensation of(StronglyConnectedComponents components) {
+        final ProjectGraph graph = components.getGraph();
+        final int size = components.getComponentCount();
+
+        // forward adjacency, each edge between two components is added once thanks to the last component that added it
+        final int[] outStart = new int[size + 1];
+        final int[] lastSource = new int[size];
+        Arrays.fill(lastSource, -1);
+        int[] out = new int[Math.max(16, graph.getEdgeCount())];
+        int edges = 0;
+        for (int c = 0; c < size; c++) {
+            outStart[c] = edges;
+            for (int i = 0; i < components.getComponentSize(c); i++) {
+                final int id = components.getMember(c, i);
+                for (int j = 0; j < graph.getOutDegree(id); j++) {
+                    final int target = components.getComponent(graph.getSuccessor(id, j));
+                    if (target != c && lastSource[target] != c) {
+                        lastSource[target] = c;
+                        out[edges++] = target;
+                    }
+                }
+            }
+        }
+        outStart[size] = edges;
+        out = Arrays.copyOf(out, edges);
+
+        // reverse adjacency by counting sort of the targets
+        final int[] inStart = new int[size + 1];
+        for (int i = 0; i < edges; i++) {
+            inStart[out[i] + 1]++;
+        }
+        for (int c = 0; c < size; c++) {
+            inStart[c + 1] += inStart[c];
+        }
+        final int[] in = new int[edges];
+        final int[] next = Arrays.copyOf(inStart, size);
+        for (int source = 0; source < size; source++) {
+            for (int i = outStart[source]; i < outStart[source + 1]; i++) {
+                in[next[out[i]]++] = source;
+            }
+        }
+        return new Condensation(components, outStart, out, inStart, in);
+    }
+
+    private final StronglyConnectedComponents components;
+    private final int[] outStart;
+    private final int[] out;
+    private final int[] inStart;
+    private final int[] in;
+
+    private Condensation(StronglyConnectedComponents components, int[] outStart, int[] out, int[] inStart, int[] in) {
+        this.components = components;
+        this.outStart = outStart;
+        this.out = out;
+        this.inStart = inStart;
+        this.in = in;
+    }
+
+    /**
+     * Returns the {@link StronglyConnectedComponents} of this condensation.
+     */
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+
+    /**
+     * Returns the number of edges between components.
+     */
+    public int getEdgeCount() {
+        return out.length;
+    }
+
+    /**
+     * Returns the number of components that depend on the specified one.
+     */
+    public int getInDegree(int component) {
+        return inStart[component + 1] - inStart[component];
+    }
+
+    /**
+     * Returns the number of components the specified one depends on.
+     */
+    public int getOutDegree(int component) {
+        return outStart[component + 1] - outStart[component];
+    }
+
+    /**
+     * Returns the <tt>index</tt>-th component, from <tt>0</tt> to <tt>getInDegree(component) - 1</tt>, that depends on the specified one.
+     */
+    public int getPredecessor(int component, int index) {
+        return in[inStart[component] + index];
+    }
+
+    /**
+     * Returns the <tt>index</tt>-th component, from <tt>0</tt> to <tt>getOutDegree(component) - 1</tt>, the specified one depends on.
+     */
+    public int getSuccessor(int component, int index) {
+        return out[outStart[component] + index];
+    }
+
+    /**
+     * Returns the number of components.
+     */
+    public int size() {
+        return outStart.length - 1;
+    }
+}
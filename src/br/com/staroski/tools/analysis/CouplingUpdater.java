@@ -0,0 +1,22 @@
+package br.com.staroski.tools.analysis;
+
+/**
+ * {@link MetricsVisitor} implementation that sets the input and output dependencies of a {@link Project}'s {@link Metrics}.
+ * 
+ * @author Staroski, Ricardo Artur
+ */
+final class CouplingUpdater implements MetricsVisitor {
+
+    private final int inputDependencies;
+    private final int outputDependencies;
+
+    CouplingUpdater(int inputDependencies, int outputDependencies) {
+        this.inputDependencies = inputDependencies;
+        this.outputDependencies = outputDependencies;
+    }
+
+    @Override
+    public void visit(Metrics metrics) {
+        metrics.setCoupling(inputDependencies, outputDependencies);
+    }
+}
@@ -34,7 +34,7 @@ public final class Cycle {
             sb.append("\"");
             sb.append(" -> ");
         }
-        if (projects.size() > 1) {
+        if (!projects.isEmpty()) {
             sb.append("\"");
             sb.append(projects.get(0).getName()); // close the cycle
             sb.append("\"");
@@ -0,0 +1,213 @@
+package br.com.staroski.tools.analysis;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates the elementary {@link Cycle}s of a {@link ProjectGraph} with Johnson's algorithm, run separately on each of its
+ * {@link StronglyConnectedComponents strongly connected components}.<br>
+ * A tangled component can have an exponential number of cycles, so they are streamed to a consumer instead of collected, and the enumeration stops at
+ * the first of these limits:
+ * <ul>
+ * <li>the {@link #withMaxLength(int) maximum length}, longer cycles are skipped;</li>
+ * <li>the {@link #withMaxCycles(long) maximum number} of cycles;</li>
+ * <li>the {@link #withTimeBudget(Duration) time budget}.</li>
+ * </ul>
+ * The search is iterative, deep components never overflow the stack.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleEnumerator {
+
+    // how many steps run between two reads of the clock
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private int maxLength = Integer.MAX_VALUE;
+    private long maxCycles = Long.MAX_VALUE;
+    private long timeBudgetNanos = Long.MAX_VALUE;
+
+    // the state of the current enumeration
+    private long emitted;
+    private long deadline;
+    private int steps;
+    private boolean stopped;
+
+    /**
+     * Enumerates the cycles of the specified graph.
+     *
+     * @param graph    The {@link ProjectGraph}.
+     * @param consumer Receives each {@link Cycle}, starting with its project of smallest id.
+     * @return <tt>true</tt> if all cycles within the maximum length were enumerated, <tt>false</tt> if a limit stopped the enumeration.
+     */
+    public boolean enumerate(ProjectGraph graph, Consumer<? super Cycle> consumer) {
+        return enumerate(StronglyConnectedComponents.of(graph), consumer);
+    }
+
+    /**
+     * Enumerates the cycles of the specified components.
+     *
+     * @param components The {@link StronglyConnectedComponents} of the graph.
+     * @param consumer   Receives each {@link Cycle}, starting with its project of smallest id.
+     * @return <tt>true</tt> if all cycles within the maximum length were enumerated, <tt>false</tt> if a limit stopped the enumeration.
+     */
+    public synchronized boolean enumerate(StronglyConnectedComponents components, Consumer<? super Cycle> consumer) {
+        emitted = 0;
+        steps = 0;
+        stopped = maxCycles <= 0;
+        deadline = System.nanoTime() + timeBudgetNanos;
+        for (int c = 0; c < components.getComponentCount() && !stopped; c++) {
+            if (components.isCyclic(components.getMember(c, 0))) {
+                enumerate(components, c, consumer);
+            }
+        }
+        return !stopped;
+    }
+
+    /**
+     * Sets the maximum number of cycles to enumerate.
+     *
+     * @param maxCycles The maximum number of cycles, zero or less enumerates none.
+     * @return This {@link CycleEnumerator}.
+     */
+    public CycleEnumerator withMaxCycles(long maxCycles) {
+        this.maxCycles = maxCycles;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of projects of the enumerated cycles, the longer ones are skipped.
+     *
+     * @param maxLength The maximum length, zero or less means no limit.
+     * @return This {@link CycleEnumerator}.
+     */
+    public CycleEnumerator withMaxLength(int maxLength) {
+        this.maxLength = maxLength > 0 ? maxLength : Integer.MAX_VALUE;
+        return this;
+    }
+
+    /**
+     * Sets the time after which the enumeration stops.
+     *
+     * @param budget The time budget, <tt>null</tt> means no limit.
+     * @return This {@link CycleEnumerator}.
+     */
+    public CycleEnumerator withTimeBudget(Duration budget) {
+        this.timeBudgetNanos = budget == null ? Long.MAX_VALUE : Math.max(0, budget.toNanos());
+        return this;
+    }
+
+    // Johnson's circuit search from each member of the component, restricted to the members at the same or later positions
+    private void enumerate(StronglyConnectedComponents components, int c, Consumer<? super Cycle> consumer) {
+        final ProjectGraph graph = components.getGraph();
+        final int size = components.getComponentSize(c);
+        final boolean[] blocked = new boolean[size];
+        final BitSet[] blockedBy = new BitSet[size];
+        // the current path, with the next edge to visit and if a cycle was found below each project
+        final int[] path = new int[size];
+        final int[] nextEdge = new int[size];
+        final boolean[] found = new boolean[size];
+        final int[] unblockStack = new int[size];
+
+        for (int start = 0; start < size && !stopped; start++) {
+            for (int i = start; i < size; i++) {
+                blocked[i] = false;
+                if (blockedBy[i] != null) {
+                    blockedBy[i].clear();
+                }
+            }
+            final int s = components.getMember(c, start);
+            int depth = 0;
+            path[0] = start;
+            nextEdge[0] = 0;
+            found[0] = false;
+            blocked[start] = true;
+            while (depth >= 0 && !stopped) {
+                final int local = path[depth];
+                final int v = components.getMember(c, local);
+                if (nextEdge[depth] < graph.getOutDegree(v)) {
+                    final int w = graph.getSuccessor(v, nextEdge[depth]++);
+                    if (components.getComponent(w) != c || components.getPosition(w) < start) {
+                        continue;
+                    }
+                    final int target = components.getPosition(w);
+                    if (w == s) {
+                        emit(components, c, path, depth, consumer);
+                        found[depth] = true;
+                    } else if (!blocked[target]) {
+                        if (depth + 1 < maxLength) {
+                            depth++;
+                            path[depth] = target;
+                            nextEdge[depth] = 0;
+                            found[depth] = false;
+                            blocked[target] = true;
+                        } else {
+                            // too long to go on, the project must not stay blocked as if it couldn't reach the start
+                            found[depth] = true;
+                        }
+                    }
+                    tick();
+                    continue;
+                }
+                // all edges visited
+                if (found[depth]) {
+                    unblock(local, blocked, blockedBy, unblockStack);
+                } else {
+                    for (int i = 0; i < graph.getOutDegree(v); i++) {
+                        final int w = graph.getSuccessor(v, i);
+                        if (components.getComponent(w) == c && components.getPosition(w) >= start) {
+                            final int target = components.getPosition(w);
+                            if (blockedBy[target] == null) {
+                                blockedBy[target] = new BitSet();
+                            }
+                            blockedBy[target].set(local);
+                        }
+                    }
+                }
+                final boolean foundBelow = found[depth];
+                depth--;
+                if (depth >= 0 && foundBelow) {
+                    found[depth] = true;
+                }
+            }
+        }
+    }
+
+    private void emit(StronglyConnectedComponents components, int c, int[] path, int depth, Consumer<? super Cycle> consumer) {
+        final ProjectGraph graph = components.getGraph();
+        final Cycle cycle = new Cycle();
+        for (int i = 0; i <= depth; i++) {
+            cycle.addProject(graph.getProject(components.getMember(c, path[i])));
+        }
+        consumer.accept(cycle);
+        if (++emitted >= maxCycles) {
+            stopped = true;
+        }
+    }
+
+    private void tick() {
+        if (++steps % CLOCK_INTERVAL == 0 && timeBudgetNanos != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            stopped = true;
+        }
+    }
+
+    private static void unblock(int local, boolean[] blocked, BitSet[] blockedBy, int[] stack) {
+        int top = 0;
+        stack[top++] = local;
+        blocked[local] = false;
+        while (top > 0) {
+            final int u = stack[--top];
+            final BitSet waiting = blockedBy[u];
+            if (waiting == null) {
+                continue;
+            }
+            for (int w = waiting.nextSetBit(0); w >= 0; w = waiting.nextSetBit(w + 1)) {
+                if (blocked[w]) {
+                    blocked[w] = false;
+                    stack[top++] = w;
+                }
+            }
+            waiting.clear();
+        }
+    }
+}
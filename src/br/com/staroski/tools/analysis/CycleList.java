@@ -0,0 +1,46 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * An immutable list of the shortest {@link Cycle}s through a project of a {@link StronglyConnectedComponents}.<br>
+ * Its size is the number of dependencies of the project inside its component, known without any search, and the cycles are only found on the first
+ * access to one of them, so the cycle metrics of all projects of a large component don't cost a search of the component for each project.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class CycleList extends AbstractList<Cycle> {
+
+    private final StronglyConnectedComponents components;
+    private final int id;
+    private final int size;
+    private volatile List<Cycle> cycles;
+
+    CycleList(StronglyConnectedComponents components, int id, int size) {
+        this.components = components;
+        this.id = id;
+        this.size = size;
+    }
+
+    @Override
+    public Cycle get(int index) {
+        return cycles().get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<Cycle> cycles() {
+        List<Cycle> found = cycles;
+        if (found == null) {
+            // two threads may search at the same time, they find the same cycles
+            found = components.findCycles(id);
+            cycles = found;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.BitSet;
+
+/**
+ * Answers in <tt>O(1)</tt> if a project of a {@link ProjectGraph} is part of a cycle, or if any of its direct or indirect dependencies is.<br>
+ * Both answers are computed once for all projects from the {@link StronglyConnectedComponents} of the graph, in <tt>O(V + E)</tt>, so the generators
+ * and the UI don't need to search the graph again for each project.<br>
+ * Instances of this class are immutable.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleOracle {
+
+    /**
+     * Computes the cycle information of all projects of the specified graph.
+     */
+    public static CycleOracle of(ProjectGraph graph) {
+        return of(StronglyConnectedComponents.of(graph));
+    }
+
+    /**
+     * Computes the cycle information of all projects of the graph of the specified components.
+     */
+    public static CycleOracle of(StronglyConnectedComponents components) {
+        final ProjectGraph graph = components.getGraph();
+        final BitSet inCycle = new BitSet(graph.size());
+        final BitSet reachesCycle = new BitSet(graph.size());
+        // the components are in reverse topological order, the dependencies of a component are always decided before it
+        for (int c = 0; c < components.getComponentCount(); c++) {
+            final int size = components.getComponentSize(c);
+            boolean reaches = components.isCyclic(components.getMember(c, 0));
+            for (int i = 0; i < size && !reaches; i++) {
+                final int id = components.getMember(c, i);
+                for (int j = 0; j < graph.getOutDegree(id) && !reaches; j++) {
+                    reaches = reachesCycle.get(graph.getSuccessor(id, j));
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                final int id = components.getMember(c, i);
+                inCycle.set(id, components.isCyclic(id));
+                reachesCycle.set(id, reaches);
+            }
+        }
+        return new CycleOracle(graph, inCycle, reachesCycle);
+    }
+
+    private final ProjectGraph graph;
+    private final BitSet inCycle;
+    private final BitSet reachesCycle;
+
+    private CycleOracle(ProjectGraph graph, BitSet inCycle, BitSet reachesCycle) {
+        this.graph = graph;
+        this.inCycle = inCycle;
+        this.reachesCycle = reachesCycle;
+    }
+
+    /**
+     * Returns the {@link ProjectGraph} of this oracle.
+     */
+    public ProjectGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns a copy of the set of ids of the projects that are part of a cycle.
+     */
+    public BitSet getProjectsInCycles() {
+        return (BitSet) inCycle.clone();
+    }
+
+    /**
+     * Tells if the project with the specified id is part of a cycle.
+     */
+    public boolean isInCycle(int id) {
+        return inCycle.get(id);
+    }
+
+    /**
+     * Tells if the specified project is part of a cycle, <tt>false</tt> if it is not part of the graph.
+     */
+    public boolean isInCycle(Project project) {
+        final int id = graph.getId(project);
+        return id >= 0 && inCycle.get(id);
+    }
+
+    /**
+     * Tells if the project with the specified id or any of its direct or indirect dependencies is part of a cycle, that is, if a depth first search
+     * starting from it finds a cycle.
+     */
+    public boolean reachesCycle(int id) {
+        return reachesCycle.get(id);
+    }
+
+    /**
+     * Tells if the specified project or any of its direct or indirect dependencies is part of a cycle, <tt>false</tt> if it is not part of the graph.
+     */
+    public boolean reachesCycle(Project project) {
+        final int id = graph.getId(project);
+        return id >= 0 && reachesCycle.get(id);
+    }
+}
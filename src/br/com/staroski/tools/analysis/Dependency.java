@@ -1,18 +1,16 @@
 package br.com.staroski.tools.analysis;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
- * This class represents a dependency of a {@link Project}, it can by of t types: {@link #KIND_SRC} or {@link #KIND_LIB}.
+ * This class represents a dependency of a {@link Project}, it can by of t types: {@link #KIND_SRC} or {@link #KIND_LIB}.<br>
+ * The dependencies read by a {@link ProjectRegistry} are immutable and interned, all projects that reference the same artifact share the same instance.
  *
  * @author Staroski, Ricardo Artur
  */
@@ -46,28 +44,41 @@ public final class Dependency implements Comparable<Dependency> {
     };
 
     private final String kind;
-    private final File artifact;
+    private final Path artifact;
     private final String name;
+    private final ProjectRegistry registry;
 
-    private final Set<Dependency> dependencies = new TreeSet<>();
-
+    /**
+     * Creates a dependency whose {@link #asProject() project} is resolved by the shared registry of {@link Projects#get(File)}.
+     */
     public Dependency(String kind, File artifact) {
-        this.kind = kind;
-        this.artifact = artifact;
-        String path = artifact.getAbsolutePath();
-        this.name = path.substring(path.lastIndexOf(File.separatorChar) + 1);
+        this(kind, artifact.toPath(), Projects.getDefaultRegistry());
     }
 
-    public void addDependency(Dependency name) {
-        dependencies.add(name);
+    Dependency(String kind, Path artifact, ProjectRegistry registry) {
+        this(kind, artifact, null, registry);
+    }
+
+    /**
+     * @param name The name of the dependency, like the name of the project it points to, or <tt>null</tt> for the name of the artifact file.
+     */
+    Dependency(String kind, Path artifact, String name, ProjectRegistry registry) {
+        this.registry = registry;
+        this.kind = kind;
+        this.artifact = artifact;
+        if (name == null) {
+            Path fileName = artifact.toAbsolutePath().getFileName();
+            name = fileName == null ? "" : fileName.toString();
+        }
+        this.name = name;
     }
 
     public Project asProject() {
         final String kind = getKind();
         if (KIND_SRC.equals(kind)) {
-            final File artifact = getArtifact();
+            final Path artifact = getPath();
             try {
-                return Projects.get(artifact);
+                return registry.get(artifact);
             } catch (IllegalArgumentException | IOException e) {
                 throw new IllegalStateException("Cannot get a " + Project.class.getSimpleName()
                         + " instance from artifact \"" + artifact + "\".", e);
@@ -103,37 +114,42 @@ public final class Dependency implements Comparable<Dependency> {
     }
 
     public File getArtifact() {
-        return artifact;
+        return Projects.toFile(artifact);
     }
 
-    public Set<Dependency> getDependencies() {
-        return dependencies;
+    /**
+     * Returns the artifact on its file system, that can be the default one or, for instance, a zip archive.
+     */
+    public Path getPath() {
+        return artifact;
     }
 
     public String getKind() {
         return kind;
     }
 
+    /**
+     * Returns the directories of a {@link #KIND_LIB lib} dependency, like <tt>"com/acme/"</tt>, read through the {@link JarIndex#getShared() shared}
+     * {@link JarIndex}.
+     */
     public Set<String> getLibEntries() {
-        if (!KIND_LIB.equals(getKind())) {
-            return Collections.emptySet();
-        }
-        try {
-            Set<String> entries = new TreeSet<>();
-            ZipInputStream zip = new ZipInputStream(new FileInputStream(getArtifact()));
-            ZipEntry entry = null;
-            while ((entry = zip.getNextEntry()) != null) {
-                if (entry.isDirectory()) {
-                    entries.add(entry.getName());
-                }
-            }
-            zip.close();
-            return entries;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return Collections.emptySet();
-        }
+        return getLibEntries(JarIndex.getShared());
+    }
+
+    /**
+     * Returns the directories of a {@link #KIND_LIB lib} dependency, like <tt>"com/acme/"</tt>, read through the specified {@link JarIndex}.
+     */
+    public Set<String> getLibEntries(JarIndex index) {
+        final JarIndex.Entry entry = getIndexEntry(index);
+        return entry == null ? Collections.emptySet() : entry.getDirectories();
+    }
 
+    /**
+     * Returns the packages with classes of a {@link #KIND_LIB lib} dependency, like <tt>"com.acme"</tt>, read through the specified {@link JarIndex}.
+     */
+    public Set<String> getLibPackages(JarIndex index) {
+        final JarIndex.Entry entry = getIndexEntry(index);
+        return entry == null ? Collections.emptySet() : entry.getPackages();
     }
 
     public String getName() {
@@ -151,6 +167,18 @@ public final class Dependency implements Comparable<Dependency> {
 
     }
 
+    private JarIndex.Entry getIndexEntry(JarIndex index) {
+        if (!KIND_LIB.equals(getKind())) {
+            return null;
+        }
+        try {
+            return index.get(getPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     private int compareNullableStrings(String s1, String s2) {
         if (s1 == null && s2 == null) {
             return 0;
@@ -0,0 +1,75 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Dependency} instances of a {@link ProjectRegistry}, one instance per kind and canonical artifact path.<br>
+ * A jar referenced by thousands of projects is represented by a single immutable {@link Dependency}, with a single name, no matter how each project
+ * spells its path.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class DependencyPool {
+
+    /**
+     * The dependencies of a single kind.
+     */
+    private static final class Table {
+
+        // by the path as declared, normalized, so the common case never touches the file system
+        private final Map<Path, Dependency> aliases = new ConcurrentHashMap<>();
+
+        // by the canonical path, the real path of an existing artifact
+        private final Map<Path, Dependency> canonical = new ConcurrentHashMap<>();
+    }
+
+    private final ProjectRegistry registry;
+    private final Table src = new Table();
+    private final Table lib = new Table();
+
+    DependencyPool(ProjectRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the shared {@link Dependency} of the specified kind and artifact, creating it on the first call.
+     *
+     * @param kind     {@link Dependency#KIND_SRC} or {@link Dependency#KIND_LIB}.
+     * @param artifact The project directory or the library file, it doesn't need to exist.
+     * @return The {@link Dependency}.
+     */
+    Dependency intern(String kind, Path artifact) {
+        return intern(kind, artifact, null);
+    }
+
+    /**
+     * Returns the shared {@link Dependency} of the specified kind and artifact, creating it with the specified name on the first call.<br>
+     * The builds whose projects are not named after their folders, like Bazel packages, name the dependencies on them the same way, so two projects in
+     * folders with the same name are still different dependencies.
+     *
+     * @param kind     {@link Dependency#KIND_SRC} or {@link Dependency#KIND_LIB}.
+     * @param artifact The project directory or the library file, it doesn't need to exist.
+     * @param name     The name of the dependency or <tt>null</tt> for the name of the artifact file.
+     * @return The {@link Dependency}.
+     */
+    Dependency intern(String kind, Path artifact, String name) {
+        final Table table = Dependency.KIND_SRC.equals(kind) ? src : lib;
+        final Path alias = artifact.toAbsolutePath().normalize();
+        Dependency dependency = table.aliases.get(alias);
+        if (dependency == null) {
+            Path key;
+            try {
+                key = ProjectRegistry.keyOf(alias);
+            } catch (IOException e) {
+                key = alias;
+            }
+            dependency = table.canonical.computeIfAbsent(key, k -> new Dependency(kind, artifact, name, registry));
+            table.aliases.putIfAbsent(alias, dependency);
+        }
+        return dependency;
+    }
+}
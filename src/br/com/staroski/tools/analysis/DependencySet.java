@@ -0,0 +1,99 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable view over a slice of a sorted {@link Dependency} array.<br>
+ * A project keeps all its dependencies in one array sorted by {@link Dependency#KIND_COMPARATOR}, the <tt>src</tt> ones first, so its
+ * {@link Project#getAllDependencies() all}, {@link Project#getSrcDependencies() src} and {@link Project#getLibDependencies() lib} sets are three views
+ * over the same array instead of three trees.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class DependencySet extends AbstractSet<Dependency> {
+
+    private static final Dependency[] EMPTY_ARRAY = {};
+
+    static final DependencySet EMPTY = new DependencySet(EMPTY_ARRAY, 0, 0);
+
+    /**
+     * Sorts the specified dependencies, removing the duplicates, and returns a view over all of them.
+     *
+     * @param dependencies The dependencies in the order they were declared.
+     * @return The {@link DependencySet}.
+     */
+    static DependencySet of(List<Dependency> dependencies) {
+        if (dependencies.isEmpty()) {
+            return EMPTY;
+        }
+        final Dependency[] sorted = dependencies.toArray(EMPTY_ARRAY);
+        Arrays.sort(sorted, Dependency.KIND_COMPARATOR);
+        int size = 0;
+        for (Dependency dependency : sorted) {
+            // the first declaration wins, like in a TreeSet
+            if (size == 0 || Dependency.KIND_COMPARATOR.compare(sorted[size - 1], dependency) != 0) {
+                sorted[size++] = dependency;
+            }
+        }
+        return new DependencySet(size == sorted.length ? sorted : Arrays.copyOf(sorted, size), 0, size);
+    }
+
+    private final Dependency[] array;
+    private final int from;
+    private final int to;
+
+    private DependencySet(Dependency[] array, int from, int to) {
+        this.array = array;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof Dependency)) {
+            return false;
+        }
+        return Arrays.binarySearch(array, from, to, (Dependency) object, Dependency.KIND_COMPARATOR) >= 0;
+    }
+
+    @Override
+    public Iterator<Dependency> iterator() {
+        return new Iterator<>() {
+
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public Dependency next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return array[next++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Returns the view over the dependencies of the specified kind.
+     */
+    DependencySet ofKind(String kind) {
+        int split = from;
+        while (split < to && Dependency.KIND_SRC.equals(array[split].getKind())) {
+            split++;
+        }
+        return Dependency.KIND_SRC.equals(kind) ? new DependencySet(array, from, split) : new DependencySet(array, split, to);
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The content of a directory read with a single {@link DirectoryStream} pass and a single <tt>stat</tt> per entry.<br>
+ * The project markers (<tt>.project</tt>, <tt>.classpath</tt>, <tt>pom.xml</tt>, <tt>nbproject</tt>, <tt>build.gradle</tt>, <tt>BUILD</tt>, <tt>.iml</tt>) are detected from the listing itself, without any
+ * further file system access.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class DirectoryListing {
+
+    /**
+     * A subdirectory found in the listing.
+     */
+    static final class Subdirectory {
+
+        private final Path path;
+        private final String key;
+
+        Subdirectory(Path path, String key) {
+            this.path = path;
+            this.key = key;
+        }
+
+        /**
+         * Returns a key that uniquely identifies the directory on the file system, used to detect symbolic link loops.
+         */
+        String getKey() {
+            return key;
+        }
+
+        Path getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Returns a key that uniquely identifies the specified directory on the file system.
+     *
+     * @param directory  The directory.
+     * @param attributes The attributes already read for the directory.
+     */
+    static String keyOf(Path directory, BasicFileAttributes attributes) throws IOException {
+        Object key = attributes.fileKey();
+        if (key != null) {
+            return key.toString();
+        }
+        // file systems without file keys (like NTFS) are identified by the real path
+        return directory.toRealPath().toString();
+    }
+
+    /**
+     * Reads the content of the specified directory.
+     *
+     * @param directory The directory to be read.
+     * @return The {@link DirectoryListing}.
+     * @throws IOException If the directory cannot be read.
+     */
+    static DirectoryListing read(Path directory) throws IOException {
+        final DirectoryListing listing = new DirectoryListing(directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (attributes.isSymbolicLink()) {
+                    // only links pay for a second stat, on the target
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        continue; // broken link
+                    }
+                }
+                final String name = entry.getFileName().toString();
+                if (attributes.isDirectory()) {
+                    listing.directoryNames.add(name);
+                    listing.subdirectories.add(new Subdirectory(entry, keyOf(entry, attributes)));
+                } else if (attributes.isRegularFile()) {
+                    listing.fileNames.add(name);
+                }
+            }
+        }
+        return listing;
+    }
+
+    private final Path directory;
+    private final List<Subdirectory> subdirectories = new ArrayList<>();
+    private final Set<String> fileNames = new HashSet<>();
+    private final Set<String> directoryNames = new HashSet<>();
+
+    private DirectoryListing(Path directory) {
+        this.directory = directory;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    List<Subdirectory> getSubdirectories() {
+        return Collections.unmodifiableList(subdirectories);
+    }
+
+    boolean hasDirectory(String name) {
+        return directoryNames.contains(name);
+    }
+
+    boolean hasFile(String name) {
+        return fileNames.contains(name);
+    }
+
+    /**
+     * Tells if the directory has a file whose name ends with the specified suffix, like <tt>".iml"</tt>.
+     */
+    boolean hasFileEndingWith(String suffix) {
+        for (String name : fileNames) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash of the names and types of the entries of this directory, independent of the listing order.
+     */
+    long getListingHash() {
+        long hash = 0;
+        for (String name : fileNames) {
+            hash += mix(("f:" + name).hashCode());
+        }
+        for (String name : directoryNames) {
+            hash += mix(("d:" + name).hashCode());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a hash of the names of the project descriptors of this directory, like its <tt>pom.xml</tt>, independent of the listing order.
+     */
+    long getDescriptorHash() {
+        long hash = 0;
+        for (String name : fileNames) {
+            if (ProjectKind.isDescriptor(name)) {
+                hash += mix(name.hashCode());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the {@link ProjectKind} detected in this directory or <tt>null</tt> if it is not a project folder.
+     */
+    ProjectKind getProjectKind() {
+        return ProjectKind.of(this);
+    }
+
+    // spreads the 32 bits of a hash code over 64 bits so the sum of the entries rarely collides
+    private static long mix(int hashCode) {
+        long h = hashCode * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,739 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable dependency graph of a set of {@link Project}s that keeps its strongly connected components up to date while projects and dependencies
+ * are added and removed, so a changed project descriptor doesn't require the cycles of the whole graph to be analyzed again:
+ * <ul>
+ * <li>a dependency inside a component only changes that component;</li>
+ * <li>a dependency between two components merges the components on the paths back to its source, if there is any;</li>
+ * <li>a removed dependency inside a component splits only that component, and only when its source no longer reaches its target.</li>
+ * </ul>
+ * The projects whose coupling, component or cycles may have changed are collected until they are {@link #pollChangedProjects() polled}, so their
+ * {@link Metrics} can be updated, see <tt>DependencyAnalyzer.update(DynamicProjectGraph)</tt>.<br>
+ * The component ids are the ones of the {@link StronglyConnectedComponents} the graph started with, merged and split components get free ids, so they
+ * don't follow a topological order anymore.<br>
+ * Like in a {@link ProjectGraph}, the dependencies on projects outside of the graph are only counted, and they become dependencies of the graph when
+ * the projects are {@link #put(Project) added}.<br>
+ * This class is not thread safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class DynamicProjectGraph {
+
+    private static final int[] EMPTY = {};
+
+    /**
+     * Builds the graph of the specified projects.
+     *
+     * @param projects The projects, the ids follow their iteration order.
+     * @return The {@link DynamicProjectGraph}.
+     */
+    public static DynamicProjectGraph of(Collection<? extends Project> projects) {
+        return new DynamicProjectGraph(StronglyConnectedComponents.of(ProjectGraph.of(projects)));
+    }
+
+    private final Map<Project, Integer> ids = new HashMap<>();
+    private final List<Project> projects = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final Deque<Integer> freeComponents = new ArrayDeque<>();
+    // the dependencies on projects outside of the graph, by source and by the project depended on
+    private final List<Set<Project>> externalTargets = new ArrayList<>();
+    private final Map<Project, Set<Integer>> externalSources = new HashMap<>();
+    private final BitSet changed = new BitSet();
+    // the components whose cycles were read since the last change, each one is a snapshot its lists of cycles are found on
+    private final Map<Integer, StronglyConnectedComponents> snapshots = new HashMap<>();
+
+    private int[][] out = new int[0][];
+    private int[] outSize = EMPTY;
+    private int[][] in = new int[0][];
+    private int[] inSize = EMPTY;
+    private int[] component = EMPTY;
+    private int[][] members = new int[0][];
+    private int[] memberCount = EMPTY;
+    private int components;
+
+    // scratch arrays of the searches, a project is marked when its mark equals the current epoch
+    private int[] forwardMark = EMPTY;
+    private int[] backwardMark = EMPTY;
+    private int epoch;
+    private int[] queue = EMPTY;
+    private int[] scratch = EMPTY;
+
+    private DynamicProjectGraph(StronglyConnectedComponents scc) {
+        final ProjectGraph graph = scc.getGraph();
+        final int size = graph.size();
+        ensureCapacity(size);
+        for (int id = 0; id < size; id++) {
+            final Project project = graph.getProject(id);
+            projects.add(project);
+            externalTargets.add(null);
+            ids.put(project, id);
+            outSize[id] = graph.getOutDegree(id);
+            out[id] = new int[Math.max(4, outSize[id])];
+            for (int i = 0; i < outSize[id]; i++) {
+                out[id][i] = graph.getSuccessor(id, i);
+            }
+            inSize[id] = graph.getInDegree(id);
+            in[id] = new int[Math.max(4, inSize[id])];
+            for (int i = 0; i < inSize[id]; i++) {
+                in[id][i] = graph.getPredecessor(id, i);
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            if (graph.getExternalDependencies(id) > 0) {
+                for (Project dependency : graph.getProject(id).getProjectDependencies()) {
+                    if (!ids.containsKey(dependency)) {
+                        addExternal(id, dependency);
+                    }
+                }
+            }
+        }
+        components = scc.getComponentCount();
+        for (int c = 0; c < components; c++) {
+            memberCount[c] = scc.getComponentSize(c);
+            members[c] = new int[memberCount[c]];
+            for (int i = 0; i < memberCount[c]; i++) {
+                members[c][i] = scc.getMember(c, i);
+                component[members[c][i]] = c;
+            }
+        }
+    }
+
+    /**
+     * Adds a dependency between two projects of the graph, or on a project outside of it.
+     *
+     * @param source The project that depends on the target, it must be part of the graph.
+     * @param target The project depended on.
+     */
+    public void addDependency(Project source, Project target) {
+        snapshots.clear();
+        final int from = idOf(source);
+        final Integer to = ids.get(target);
+        if (to == null) {
+            addExternal(from, target);
+            changed.set(from);
+        } else {
+            link(from, to);
+        }
+    }
+
+    /**
+     * Tells if the specified project is part of the graph.
+     */
+    public boolean contains(Project project) {
+        return ids.containsKey(project);
+    }
+
+    /**
+     * Returns the id of the strongly connected component of the specified project.
+     */
+    public int getComponent(Project project) {
+        return component[idOf(project)];
+    }
+
+    /**
+     * Returns the number of projects of the strongly connected component of the specified project.
+     */
+    public int getComponentSize(Project project) {
+        return memberCount[component[idOf(project)]];
+    }
+
+    /**
+     * Returns the {@link Condensation} of the current graph, built from the components kept by this graph, in <tt>O(V + E)</tt>.<br>
+     * Neither the dependencies of the projects nor the components are searched again, the adjacency of this graph is copied and its components are only
+     * renumbered in reverse topological order.
+     */
+    public Condensation getCondensation() {
+        // the projects get dense ids, the removed ones leave holes in the ids of this graph
+        final List<Project> vertices = new ArrayList<>(ids.size());
+        final int[] dense = scratch;
+        for (int id = 0; id < projects.size(); id++) {
+            if (projects.get(id) != null) {
+                dense[id] = vertices.size();
+                vertices.add(projects.get(id));
+            }
+        }
+        final int size = vertices.size();
+        final int[] outStart = new int[size + 1];
+        int edges = 0;
+        for (int id = 0, v = 0; id < projects.size(); id++) {
+            if (projects.get(id) != null) {
+                edges += outSize[id];
+                outStart[++v] = edges;
+            }
+        }
+        final int[] denseOut = new int[edges];
+
+        // Kahn's algorithm over the components, from the ones without dependencies, gives the reverse topological order
+        final int[] pending = new int[components];
+        for (int id = 0; id < projects.size(); id++) {
+            if (projects.get(id) != null) {
+                for (int i = 0; i < outSize[id]; i++) {
+                    if (component[out[id][i]] != component[id]) {
+                        pending[component[id]]++;
+                    }
+                }
+            }
+        }
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < components; c++) {
+            if (memberCount[c] > 0 && pending[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+        final int[] denseComponent = new int[size];
+        while (head < tail) {
+            final int c = queue[head];
+            final int rank = head++;
+            for (int i = 0; i < memberCount[c]; i++) {
+                final int member = members[c][i];
+                denseComponent[dense[member]] = rank;
+                for (int k = 0; k < inSize[member]; k++) {
+                    final int p = component[in[member][k]];
+                    if (p != c && --pending[p] == 0) {
+                        queue[tail++] = p;
+                    }
+                }
+            }
+        }
+        for (int id = 0, e = 0; id < projects.size(); id++) {
+            if (projects.get(id) != null) {
+                for (int i = 0; i < outSize[id]; i++) {
+                    denseOut[e++] = dense[out[id][i]];
+                }
+            }
+        }
+        final ProjectGraph graph = ProjectGraph.of(vertices, outStart, denseOut);
+        return Condensation.of(StronglyConnectedComponents.of(graph, denseComponent, tail));
+    }
+
+    /**
+     * Returns the shortest cycles through the specified project, one for each of its dependencies that depends back on it, like
+     * {@link StronglyConnectedComponents#getCycles(int)}.<br>
+     * The list is not affected by later changes of the graph, and its cycles are only searched when the first of them is read.
+     *
+     * @param project The project.
+     * @return The {@link Cycle}s or an empty {@link List} if the project is not part of a cycle.
+     */
+    public List<Cycle> getCycles(Project project) {
+        final int id = idOf(project);
+        if (!isCyclic(id)) {
+            return Collections.emptyList();
+        }
+        // the cycles are found later, on an immutable copy of the component shared by all of its projects
+        final StronglyConnectedComponents snapshot = snapshots.computeIfAbsent(component[id], this::snapshot);
+        return snapshot.getCycles(snapshot.getGraph().getId(project));
+    }
+
+    /**
+     * Returns the number of projects that depend on the specified one, "Ca", not counting itself.
+     */
+    public int getInputDependencies(Project project) {
+        final int id = idOf(project);
+        return inSize[id] - (indexOf(in[id], inSize[id], id) >= 0 ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of projects the specified one depends on, "Ce", including the ones outside of the graph.
+     */
+    public int getOutputDependencies(Project project) {
+        final int id = idOf(project);
+        final Set<Project> external = externalTargets.get(id);
+        return outSize[id] + (external == null ? 0 : external.size());
+    }
+
+    /**
+     * Returns the projects of the graph.
+     */
+    public Set<Project> getProjects() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Tells if the specified project is part of a cycle, that is, if its component has other projects or if it depends on itself.
+     */
+    public boolean isCyclic(Project project) {
+        return isCyclic(idOf(project));
+    }
+
+    /**
+     * Returns the projects whose coupling, component or cycles may have changed since the last call, and forgets them.
+     */
+    public Set<Project> pollChangedProjects() {
+        final Set<Project> polled = new LinkedHashSet<>();
+        for (int id = changed.nextSetBit(0); id >= 0; id = changed.nextSetBit(id + 1)) {
+            polled.add(projects.get(id));
+        }
+        changed.clear();
+        return polled;
+    }
+
+    /**
+     * Adds the specified project to the graph, or replaces the equal one, and then resolves its dependencies again.<br>
+     * The dependencies of other projects on it stop being counted as external.
+     *
+     * @param project The new or reloaded project.
+     */
+    public void put(Project project) {
+        snapshots.clear();
+        final Integer existing = ids.remove(project);
+        final int id;
+        if (existing == null) {
+            id = newProject(project);
+            ids.put(project, id);
+            final Set<Integer> waiting = externalSources.remove(project);
+            if (waiting != null) {
+                for (int source : waiting) {
+                    externalTargets.get(source).remove(project);
+                    link(source, id);
+                }
+            }
+        } else {
+            id = existing;
+            projects.set(id, project);
+            ids.put(project, id);
+            // a reloaded project has new metrics, all of them must be set again
+            markComponent(component[id]);
+        }
+
+        final Set<Project> dependencies = project.getProjectDependencies();
+        for (int i = outSize[id] - 1; i >= 0; i--) {
+            final int target = out[id][i];
+            if (!dependencies.contains(projects.get(target))) {
+                unlink(id, target);
+            }
+        }
+        final Set<Project> external = externalTargets.get(id);
+        if (external != null) {
+            for (Project target : new ArrayList<>(external)) {
+                if (!dependencies.contains(target)) {
+                    removeExternal(id, target);
+                }
+            }
+        }
+        for (Project dependency : dependencies) {
+            addDependency(project, dependency);
+        }
+        changed.set(id);
+    }
+
+    /**
+     * Removes the specified project from the graph.<br>
+     * The dependencies of other projects on it are counted as external, until an equal project is {@link #put(Project) added}.
+     *
+     * @param project The project to remove.
+     */
+    public void remove(Project project) {
+        snapshots.clear();
+        final Integer removed = ids.remove(project);
+        if (removed == null) {
+            return;
+        }
+        final int id = removed;
+        final Project old = projects.get(id);
+        while (inSize[id] > 0) {
+            final int source = in[id][inSize[id] - 1];
+            unlink(source, id);
+            if (source != id) {
+                addExternal(source, old);
+            }
+        }
+        while (outSize[id] > 0) {
+            unlink(id, out[id][outSize[id] - 1]);
+        }
+        final Set<Project> external = externalTargets.get(id);
+        if (external != null) {
+            for (Project target : new ArrayList<>(external)) {
+                removeExternal(id, target);
+            }
+        }
+
+        // without dependencies the project is alone in its component
+        final int c = component[id];
+        memberCount[c] = 0;
+        members[c] = EMPTY;
+        freeComponents.push(c);
+        projects.set(id, null);
+        changed.clear(id);
+        freeIds.push(id);
+    }
+
+    /**
+     * Removes a dependency between two projects of the graph, or on a project outside of it.
+     *
+     * @param source The project that depends on the target, it must be part of the graph.
+     * @param target The project depended on.
+     */
+    public void removeDependency(Project source, Project target) {
+        snapshots.clear();
+        final int from = idOf(source);
+        final Integer to = ids.get(target);
+        if (to == null) {
+            removeExternal(from, target);
+            changed.set(from);
+        } else {
+            unlink(from, to);
+        }
+    }
+
+    /**
+     * Returns the number of projects of the graph.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    private void addExternal(int source, Project target) {
+        Set<Project> targets = externalTargets.get(source);
+        if (targets == null) {
+            externalTargets.set(source, targets = new HashSet<>());
+        }
+        if (targets.add(target)) {
+            externalSources.computeIfAbsent(target, project -> new HashSet<>()).add(source);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= component.length) {
+            return;
+        }
+        final int length = Math.max(capacity, component.length * 2);
+        out = Arrays.copyOf(out, length);
+        outSize = Arrays.copyOf(outSize, length);
+        in = Arrays.copyOf(in, length);
+        inSize = Arrays.copyOf(inSize, length);
+        component = Arrays.copyOf(component, length);
+        members = Arrays.copyOf(members, length);
+        memberCount = Arrays.copyOf(memberCount, length);
+        forwardMark = Arrays.copyOf(forwardMark, length);
+        backwardMark = Arrays.copyOf(backwardMark, length);
+        queue = Arrays.copyOf(queue, length);
+        scratch = Arrays.copyOf(scratch, length);
+    }
+
+    private int idOf(Project project) {
+        final Integer id = ids.get(project);
+        if (id == null) {
+            throw new IllegalArgumentException("\"" + project.getName() + "\" is not part of the graph!");
+        }
+        return id;
+    }
+
+    private boolean isCyclic(int id) {
+        return memberCount[component[id]] > 1 || indexOf(out[id], outSize[id], id) >= 0;
+    }
+
+    // adds the dependency of u on v, merging the components of all projects on the paths from v back to u
+    private void link(int u, int v) {
+        if (indexOf(out[u], outSize[u], v) >= 0) {
+            return;
+        }
+        out[u] = append(out[u], outSize[u]++, v);
+        in[v] = append(in[v], inSize[v]++, u);
+        changed.set(u);
+        changed.set(v);
+        final int cu = component[u];
+        if (cu == component[v]) {
+            markComponent(cu);
+            return;
+        }
+
+        // forward search from v, the new dependency closes cycles only if it reaches u
+        final int forward = nextEpoch();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = v;
+        forwardMark[v] = forward;
+        while (head < tail) {
+            final int x = queue[head++];
+            for (int i = 0; i < outSize[x]; i++) {
+                final int w = out[x][i];
+                if (forwardMark[w] != forward) {
+                    forwardMark[w] = forward;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        if (forwardMark[u] != forward) {
+            return;
+        }
+
+        // the projects reachable from v that reach u form the merged component, whole components are always inside or outside of it
+        head = 0;
+        tail = 0;
+        queue[tail++] = u;
+        backwardMark[u] = forward;
+        while (head < tail) {
+            final int x = queue[head++];
+            for (int i = 0; i < inSize[x]; i++) {
+                final int p = in[x][i];
+                if (forwardMark[p] == forward && backwardMark[p] != forward) {
+                    backwardMark[p] = forward;
+                    queue[tail++] = p;
+                }
+            }
+        }
+        final int[] merged = Arrays.copyOf(queue, tail);
+        Arrays.sort(merged);
+        for (int id : merged) {
+            final int c = component[id];
+            if (c != cu && memberCount[c] > 0) {
+                memberCount[c] = 0;
+                members[c] = EMPTY;
+                freeComponents.push(c);
+            }
+            component[id] = cu;
+        }
+        members[cu] = merged;
+        memberCount[cu] = merged.length;
+        markComponent(cu);
+    }
+
+    private void markComponent(int c) {
+        for (int i = 0; i < memberCount[c]; i++) {
+            changed.set(members[c][i]);
+        }
+    }
+
+    private int newComponent() {
+        return freeComponents.isEmpty() ? components++ : freeComponents.pop();
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private int newProject(Project project) {
+        final int id;
+        if (freeIds.isEmpty()) {
+            id = projects.size();
+            ensureCapacity(id + 1);
+            projects.add(project);
+            externalTargets.add(null);
+        } else {
+            id = freeIds.pop();
+            projects.set(id, project);
+            externalTargets.set(id, null);
+        }
+        out[id] = new int[4];
+        outSize[id] = 0;
+        in[id] = new int[4];
+        inSize[id] = 0;
+        final int c = newComponent();
+        component[id] = c;
+        members[c] = new int[] { id };
+        memberCount[c] = 1;
+        changed.set(id);
+        return id;
+    }
+
+    private void removeExternal(int source, Project target) {
+        final Set<Project> targets = externalTargets.get(source);
+        if (targets == null || !targets.remove(target)) {
+            return;
+        }
+        final Set<Integer> sources = externalSources.get(target);
+        sources.remove(source);
+        if (sources.isEmpty()) {
+            externalSources.remove(target);
+        }
+    }
+
+    // splits the component with Tarjan's algorithm restricted to its members, the first new component keeps the id
+    private void split(int c) {
+        final int[] old = members[c];
+        final int size = memberCount[c];
+        final int[] position = scratch;
+        final int[] index = new int[size];
+        final int[] low = new int[size];
+        final boolean[] onStack = new boolean[size];
+        final int[] stack = new int[size];
+        final int[] callStack = new int[size];
+        final int[] nextEdge = new int[size];
+        final int[] group = new int[size];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < size; i++) {
+            position[old[i]] = i;
+        }
+        int stackTop = 0;
+        int counter = 0;
+        int groups = 0;
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            nextEdge[0] = 0;
+            index[root] = low[root] = counter++;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                final int v = callStack[depth];
+                final int project = old[v];
+                if (nextEdge[depth] < outSize[project]) {
+                    final int target = out[project][nextEdge[depth]++];
+                    if (component[target] != c) {
+                        continue;
+                    }
+                    final int w = position[target];
+                    if (index[w] < 0) {
+                        depth++;
+                        callStack[depth] = w;
+                        nextEdge[depth] = 0;
+                        index[w] = low[w] = counter++;
+                        stack[stackTop++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackTop];
+                        onStack[w] = false;
+                        group[w] = groups;
+                    } while (w != v);
+                    groups++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    final int caller = callStack[depth];
+                    low[caller] = Math.min(low[caller], low[v]);
+                }
+            }
+        }
+
+        final int[] ids = new int[groups];
+        final int[] counts = new int[groups];
+        for (int i = 0; i < size; i++) {
+            counts[group[i]]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            ids[g] = g == 0 ? c : newComponent();
+            members[ids[g]] = new int[counts[g]];
+            memberCount[ids[g]] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            final int target = ids[group[i]];
+            members[target][memberCount[target]++] = old[i];
+            component[old[i]] = target;
+            changed.set(old[i]);
+        }
+    }
+
+    // removes the dependency of u on v, splitting their component if u no longer reaches v
+    private void unlink(int u, int v) {
+        final int i = indexOf(out[u], outSize[u], v);
+        if (i < 0) {
+            return;
+        }
+        System.arraycopy(out[u], i + 1, out[u], i, --outSize[u] - i);
+        final int j = indexOf(in[v], inSize[v], u);
+        System.arraycopy(in[v], j + 1, in[v], j, --inSize[v] - j);
+        changed.set(u);
+        changed.set(v);
+        final int c = component[u];
+        if (c != component[v]) {
+            return;
+        }
+        if (u == v) {
+            markComponent(c);
+            return;
+        }
+
+        // the component stays strongly connected if any other path leads from u to v
+        final int stamp = nextEpoch();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = u;
+        forwardMark[u] = stamp;
+        while (head < tail && forwardMark[v] != stamp) {
+            final int x = queue[head++];
+            for (int k = 0; k < outSize[x]; k++) {
+                final int w = out[x][k];
+                if (component[w] == c && forwardMark[w] != stamp) {
+                    forwardMark[w] = stamp;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        if (forwardMark[v] == stamp) {
+            markComponent(c);
+        } else {
+            split(c);
+        }
+    }
+
+    // copies the projects and the dependencies inside the component into an immutable graph
+    private StronglyConnectedComponents snapshot(int c) {
+        final int size = memberCount[c];
+        final List<Project> vertices = new ArrayList<>(size);
+        final int stamp = nextEpoch();
+        for (int i = 0; i < size; i++) {
+            final int member = members[c][i];
+            vertices.add(projects.get(member));
+            forwardMark[member] = stamp;
+            scratch[member] = i;
+        }
+        final int[] outStart = new int[size + 1];
+        int edges = 0;
+        for (int i = 0; i < size; i++) {
+            final int member = members[c][i];
+            for (int k = 0; k < outSize[member]; k++) {
+                if (forwardMark[out[member][k]] == stamp) {
+                    edges++;
+                }
+            }
+            outStart[i + 1] = edges;
+        }
+        final int[] localOut = new int[edges];
+        for (int i = 0, e = 0; i < size; i++) {
+            final int member = members[c][i];
+            for (int k = 0; k < outSize[member]; k++) {
+                if (forwardMark[out[member][k]] == stamp) {
+                    localOut[e++] = scratch[out[member][k]];
+                }
+            }
+        }
+        return StronglyConnectedComponents.of(ProjectGraph.of(vertices, outStart, localOut));
+    }
+
+    private static int[] append(int[] array, int size, int value) {
+        final int[] target = size == array.length ? Arrays.copyOf(array, Math.max(4, size * 2)) : array;
+        target[size] = value;
+        return target;
+    }
+
+    private static int indexOf(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
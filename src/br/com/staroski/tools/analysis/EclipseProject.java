@@ -1,11 +1,12 @@
 package br.com.staroski.tools.analysis;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.Optional;
-import java.util.Set;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * This class represents a <b><a href="https://www.eclipse.org/downloads/">eclipse</a> project</b>.<br>
@@ -19,68 +20,106 @@ final class EclipseProject extends AbstractProject {
     public static final String PROJECT_FILE = ".project";
     public static final String CLASSPATH_FILE = ".classpath";
 
+    private static final String ENTRY_ELEMENT = "classpathentry";
+
+    // the kinds of classpath entries
+    private static final String ENTRY_SRC = "src";
+    private static final String ENTRY_LIB = "lib";
+    private static final String ENTRY_VAR = "var";
+    private static final String ENTRY_CON = "con";
+    private static final String ENTRY_OUTPUT = "output";
+
     /**
      * Creates a new {@link EclipseProject} for the specified folder.
-     * 
+     *
      * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
      */
-    EclipseProject(File projectFolder) {
-        super(projectFolder);
-        File classpathFile = projectFolder.listFiles((folder, file) -> file.equals(CLASSPATH_FILE))[0];
+    EclipseProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, registry);
+        Path classpathFile = projectFolder.resolve(CLASSPATH_FILE);
+        addDescriptorFile(projectFolder.resolve(PROJECT_FILE));
+        addDescriptorFile(classpathFile);
         readClasspathFile(projectFolder, classpathFile);
     }
 
-    private void readClasspathFile(File projectFolder, File classpathFile) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(classpathFile))) {
-            final Set<Dependency> allDependencies = getAllDependencies();
-            final Set<Dependency> srcDependencies = getSrcDependencies();
-            final Set<Dependency> libDependencies = getLibDependencies();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("path=\"src\"")) {
-                    continue;
-                } else {
-                    if (line.contains("kind=\"lib\"")) {
-                        Optional<Dependency> result = readDependency(projectFolder, line, Dependency.KIND_LIB);
-                        if (result.isPresent()) {
-                            Dependency dependency = result.get();
-                            libDependencies.add(dependency);
-                            allDependencies.add(dependency);
-                        }
-                    } else if (line.contains("kind=\"src\"")) {
-                        Optional<Dependency> result = readDependency(projectFolder, line, Dependency.KIND_SRC);
-                        if (result.isPresent()) {
-                            Dependency dependency = result.get();
-                            srcDependencies.add(dependency);
-                            allDependencies.add(dependency);
-                        }
-                    }
-                }
-            }
+    // resolves a path of the .classpath, the separator is '/' on every platform and even inside zip archives
+    private static Path resolve(Path base, String path) {
+        path = path.replace('\\', '/');
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return base.resolve(path).normalize();
+    }
+
+    // the first segment of a variable entry names a classpath variable, like M2_REPO, defined by the environment or a system property
+    private static Path resolveVariable(Path folder, String path) {
+        path = path.replace('\\', '/');
+        int separator = path.indexOf('/');
+        String variable = separator < 0 ? path : path.substring(0, separator);
+        String value = System.getProperty(variable, System.getenv(variable));
+        if (value == null) {
+            return null;
+        }
+        Path base = folder.getFileSystem().getPath(value);
+        return separator < 0 ? base.normalize() : resolve(base, path.substring(separator + 1));
+    }
+
+    private void readClasspathFile(Path projectFolder, Path classpathFile) {
+        try {
+            // the project root is canonicalized only once, the entries are resolved in memory
+            final Path folder = projectFolder.toRealPath();
+            XmlFiles.read(classpathFile, reader -> readClasspath(folder, reader));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private Optional<Dependency> readDependency(File projectFolder, String line, String kind) throws IOException {
-        final File repository = projectFolder.getParentFile();
-        Dependency value = null;
-        int begin = line.indexOf("path=\"") + 6;
-        int end = line.indexOf("\"", begin);
-        String path = line.substring(begin, end);
+    private void readClasspath(Path folder, XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamReader.START_ELEMENT && ENTRY_ELEMENT.equals(reader.getLocalName())) {
+                // attributes can come in any order and the unknown ones, like "exported" and "combineaccessrules", are ignored
+                String kind = reader.getAttributeValue(null, "kind");
+                String path = reader.getAttributeValue(null, "path");
+                if (kind != null && path != null && !path.isEmpty()) {
+                    readEntry(folder, kind, path);
+                }
+            }
+        }
+    }
+
+    private void readEntry(Path folder, String kind, String path) {
+        final Path repository = folder.getParent();
         try {
-            if (path.startsWith("/")) {
-                path = repository.getCanonicalPath() + path;
-            } else {
-                path = projectFolder.getCanonicalPath() + "/" + path;
+            switch (kind) {
+                case ENTRY_SRC:
+                    // a path starting with '/' is another project of the workspace, the others are source folders of this project
+                    if (path.startsWith("/") && repository != null) {
+                        addDependency(Dependency.KIND_SRC, resolve(repository, path));
+                    }
+                    break;
+                case ENTRY_LIB:
+                    // a path starting with '/' is relative to the workspace, the absolute ones are kept as they are
+                    Path library = folder.getFileSystem().getPath(path.replace('\\', '/'));
+                    if (!library.isAbsolute() || path.startsWith("/")) {
+                        library = resolve(path.startsWith("/") && repository != null ? repository : folder, path);
+                    }
+                    addDependency(Dependency.KIND_LIB, library);
+                    break;
+                case ENTRY_VAR:
+                    Path variable = resolveVariable(folder, path);
+                    if (variable != null) {
+                        addDependency(Dependency.KIND_LIB, variable);
+                    }
+                    break;
+                case ENTRY_CON:
+                case ENTRY_OUTPUT:
+                default:
+                    // containers, like the JRE, and output folders are not dependencies
+                    break;
             }
-            path = path.replace('\\', File.separatorChar);
-            path = path.replace('/', File.separatorChar);
-            File artifact = new File(path);
-            value = new Dependency(kind, artifact);
-        } catch (Exception e) {
+        } catch (InvalidPathException e) {
             e.printStackTrace();
         }
-        return Optional.ofNullable(value);
     }
 }
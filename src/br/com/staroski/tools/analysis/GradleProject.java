@@ -0,0 +1,167 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * This class represents a <b><a href="https://gradle.org/install/">Gradle</a> project</b>.<br>
+ * Instances of this class are created through the static method {@link Projects#get(File)} passing the name directory as parameter.<br>
+ * A project is named by its Gradle path, prefixed by the name of the root directory of its build, like <tt>"acme:libs:core"</tt>.<br>
+ * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.<br>
+ * <br>
+ * The build script is tokenized, never executed: the <tt>project(':x')</tt> declarations of its <tt>dependencies</tt> block are dependencies of kind
+ * {@link Dependency#KIND_SRC}, resolved by the nearest settings file, and the <tt>'group:name:version'</tt> ones are dependencies of kind
+ * {@link Dependency#KIND_LIB}. A project whose settings include other projects below its directory and that has no <tt>src</tt> folder is
+ * not a {@link #isComponent() component}, its subprojects are scanned instead.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class GradleProject extends AbstractProject {
+
+    static final String[] BUILD_FILES = { "build.gradle", "build.gradle.kts" };
+
+    private static final String DEPENDENCIES_BLOCK = "dependencies";
+    private static final String BUILDSCRIPT_BLOCK = "buildscript";
+    private static final String SOURCES_FOLDER = "src";
+
+    private final GradleSettings settings;
+    private final boolean component;
+
+    /**
+     * Creates a new {@link GradleProject} for the specified folder.
+     *
+     * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
+     */
+    GradleProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, nameOf(projectFolder, registry.getGradleWorkspace()), registry);
+        final GradleWorkspace workspace = registry.getGradleWorkspace();
+        settings = workspace.getSettings(projectFolder);
+        component = !hasNestedProjects() || Files.isDirectory(projectFolder.resolve(SOURCES_FOLDER));
+        if (settings != null) {
+            addDescriptorFile(settings.getFile());
+        }
+        if (hasNestedProjects()) {
+            addDescriptorFile(projectFolder.resolve(SOURCES_FOLDER));
+        }
+        for (String name : BUILD_FILES) {
+            addDescriptorFile(projectFolder.resolve(name));
+        }
+        for (String name : BUILD_FILES) {
+            Path buildFile = projectFolder.resolve(name);
+            if (Files.isRegularFile(buildFile)) {
+                try {
+                    readBuildScript(workspace, BuildScript.read(buildFile, BuildScript.Syntax.GRADLE));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                break;
+            }
+        }
+    }
+
+    // a project outside of any settings is named by its folder
+    private static String nameOf(Path projectFolder, GradleWorkspace workspace) {
+        final GradleSettings settings = workspace.getSettings(projectFolder);
+        return settings == null ? null : settings.getProjectName(projectFolder);
+    }
+
+    @Override
+    public boolean isComponent() {
+        return component;
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        return settings != null && settings.hasIncludesBelow(getPath());
+    }
+
+    // project(':x'), project(path: ':x') or project(path = ":x")
+    private void addProject(String projectPath) {
+        if (settings == null) {
+            return;
+        }
+        if (!projectPath.startsWith(":")) {
+            // relative to this project
+            String parent = settings.getProjectPath(getPath());
+            projectPath = (":".equals(parent) ? "" : parent) + ":" + projectPath;
+        }
+        Path directory = settings.getDirectory(projectPath);
+        if (!directory.equals(getPath().toAbsolutePath().normalize())) {
+            addProjectDependency(directory, settings.getProjectName(directory));
+        }
+    }
+
+    // 'group:name:version', the classifier and extension are ignored
+    private void addModule(GradleWorkspace workspace, String coordinates) {
+        if (coordinates.indexOf(':') > 0 && !coordinates.contains("/")) {
+            addDependency(Dependency.KIND_LIB, workspace.getModuleFile(coordinates));
+        }
+    }
+
+    private void readBuildScript(GradleWorkspace workspace, BuildScript script) {
+        // the names of the enclosing blocks, empty for closures and lambdas without a name
+        final Deque<String> blocks = new ArrayDeque<>();
+        for (int i = 0; i < script.size(); i++) {
+            if (script.is(i, "{")) {
+                blocks.push(i > 0 && script.type(i - 1) == BuildScript.IDENTIFIER ? script.text(i - 1) : "");
+            } else if (script.is(i, "}")) {
+                blocks.poll();
+            } else if (DEPENDENCIES_BLOCK.equals(blocks.peek()) && !blocks.contains(BUILDSCRIPT_BLOCK)
+                    && script.type(i) == BuildScript.IDENTIFIER) {
+                i = readDependency(workspace, script, i);
+            }
+        }
+    }
+
+    // reads a declaration of the dependencies block starting at the configuration name, returns the index of its last token
+    private int readDependency(GradleWorkspace workspace, BuildScript script, int index) {
+        if (script.is(index, "project") && script.is(index + 1, "(")) {
+            int path = script.nextString(index + 2, ":=");
+            if (path > 0) {
+                addProject(script.text(path));
+                return path;
+            }
+            return index;
+        }
+        if (script.is(index + 1, "(") ? script.is(index + 2, "project") : script.is(index + 1, "project")) {
+            return index; // the project(...) is read on the next token
+        }
+        int first = script.nextString(index + 1, "(");
+        if (first == index + 1 || first == index + 2) {
+            addModule(workspace, script.text(first));
+            return first;
+        }
+        // group: 'g', name: 'n', version: 'v'
+        String group = null;
+        String name = null;
+        String version = null;
+        int i = script.is(index + 1, "(") ? index + 2 : index + 1;
+        while (i + 2 < script.size() && script.type(i) == BuildScript.IDENTIFIER && (script.is(i + 1, ":") || script.is(i + 1, "="))
+                && script.type(i + 2) == BuildScript.STRING) {
+            switch (script.text(i)) {
+                case "group":
+                    group = script.text(i + 2);
+                    break;
+                case "name":
+                    name = script.text(i + 2);
+                    break;
+                case "version":
+                    version = script.text(i + 2);
+                    break;
+                default:
+                    break;
+            }
+            i += script.is(i + 3, ",") ? 4 : 3;
+        }
+        if (group != null && name != null) {
+            addModule(workspace, version == null ? group + ":" + name : group + ":" + name + ":" + version);
+            return i - 1;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The projects included by a Gradle <tt>settings.gradle</tt> or <tt>settings.gradle.kts</tt>, with their directories.<br>
+ * Understands <tt>include</tt>, <tt>includeFlat</tt> and the <tt>project(':x').projectDir = file('y')</tt> assignments, in both the Groovy and Kotlin
+ * syntaxes.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class GradleSettings {
+
+    /**
+     * Parses the specified settings file.
+     *
+     * @param file The settings file.
+     * @return The {@link GradleSettings}.
+     * @throws IOException If the file cannot be read.
+     */
+    static GradleSettings read(Path file) throws IOException {
+        final GradleSettings settings = new GradleSettings(file.toAbsolutePath().normalize());
+        settings.readScript(BuildScript.read(file, BuildScript.Syntax.GRADLE));
+        settings.indexParents();
+        return settings;
+    }
+
+    // the path of a project without its leading ':'
+    private static String relative(String projectPath) {
+        return projectPath.startsWith(":") ? projectPath.substring(1) : projectPath;
+    }
+
+    private final Path file;
+    private final Path root;
+    private final Map<String, Path> directories = new HashMap<>();
+    private final Map<Path, String> projectPaths = new HashMap<>();
+    // the directories above the included projects
+    private final Set<Path> parents = new HashSet<>();
+
+    private GradleSettings(Path file) {
+        this.file = file;
+        this.root = file.getParent();
+    }
+
+    /**
+     * Returns the directory of the project with the specified Gradle path, like <tt>":libs:core"</tt>.
+     */
+    Path getDirectory(String projectPath) {
+        final String path = ":" + relative(projectPath);
+        final Path directory = directories.get(path);
+        if (directory != null) {
+            return directory;
+        }
+        return ":".equals(path) ? root : root.resolve(relative(path).replace(':', '/')).normalize();
+    }
+
+    /**
+     * Returns the name of the project in the specified directory, the name of the root directory followed by the Gradle path of the project, like
+     * <tt>"acme:libs:core"</tt>, or only the name of the root directory for the root project.<br>
+     * The Gradle path alone is unique in a build, the name of the root tells apart the builds of a directory tree.
+     */
+    String getProjectName(Path directory) {
+        final Path rootName = root.getFileName();
+        final String path = getProjectPath(directory);
+        return (rootName == null ? "" : rootName.toString()) + (":".equals(path) ? "" : path);
+    }
+
+    /**
+     * Returns the Gradle path of the project in the specified directory, like <tt>":libs:core"</tt>.
+     */
+    String getProjectPath(Path directory) {
+        directory = directory.toAbsolutePath().normalize();
+        final String path = projectPaths.get(directory);
+        if (path != null) {
+            return path;
+        }
+        final StringBuilder result = new StringBuilder();
+        for (Path name : root.relativize(directory)) {
+            result.append(':').append(name);
+        }
+        return result.length() == 0 ? ":" : result.toString();
+    }
+
+    /**
+     * Returns the settings file.
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the directory of the settings file, the root project.
+     */
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Tells if the settings include any project in a directory below the specified one.
+     */
+    boolean hasIncludesBelow(Path directory) {
+        return parents.contains(directory.toAbsolutePath().normalize());
+    }
+
+    private void include(String projectPath, boolean flat) {
+        final String path = ":" + relative(projectPath);
+        if (path.length() > 1 && !directories.containsKey(path)) {
+            Path base = flat ? root.getParent() : root;
+            setDirectory(path, base == null ? root : base.resolve(relative(path).replace(':', '/')).normalize());
+        }
+    }
+
+    private void indexParents() {
+        for (Path directory : directories.values()) {
+            // the ancestors above an already indexed parent are indexed too
+            Path parent = directory.getParent();
+            while (parent != null && parents.add(parent)) {
+                parent = parent.getParent();
+            }
+        }
+    }
+
+    private void readScript(BuildScript script) {
+        for (int i = 0; i < script.size(); i++) {
+            if (script.type(i) != BuildScript.IDENTIFIER) {
+                continue;
+            }
+            final String text = script.text(i);
+            if ("include".equals(text) || "includeFlat".equals(text)) {
+                // include ':a', ':b' or include(":a", ":b")
+                int j = i + 1;
+                while (j < script.size() && (script.type(j) == BuildScript.STRING || script.is(j, ",") || script.is(j, "("))) {
+                    if (script.type(j) == BuildScript.STRING) {
+                        include(script.text(j), "includeFlat".equals(text));
+                    }
+                    j++;
+                }
+                i = j - 1;
+            } else if ("project".equals(text) && script.is(i + 1, "(")) {
+                // project(':a').projectDir = file('b') or new File(settingsDir, 'b')
+                int path = script.nextString(i + 2, "");
+                if (path == i + 2 && script.is(path + 1, ")") && script.is(path + 2, ".") && script.is(path + 3, "projectDir")
+                        && script.is(path + 4, "=")) {
+                    int directory = script.nextString(path + 5, "(,");
+                    if (directory > 0) {
+                        setDirectory(":" + relative(script.text(path)), root.resolve(script.text(directory).replace('\\', '/')).normalize());
+                        i = directory;
+                    }
+                }
+            }
+        }
+    }
+
+    private void setDirectory(String projectPath, Path directory) {
+        final Path previous = directories.put(projectPath, directory);
+        if (previous != null) {
+            projectPaths.remove(previous);
+        }
+        projectPaths.put(directory, projectPath);
+    }
+}
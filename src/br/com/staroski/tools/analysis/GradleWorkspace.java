@@ -0,0 +1,96 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Gradle settings shared by the {@link GradleProject}s of a {@link ProjectRegistry}.<br>
+ * Each settings file is parsed only once, so the thousands of subprojects of a big build resolve their <tt>project(':x')</tt> dependencies against the
+ * same in-memory table, without starting Gradle.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class GradleWorkspace {
+
+    static final String[] SETTINGS_FILES = { "settings.gradle", "settings.gradle.kts" };
+
+    // the cache of downloaded modules, it doesn't need to exist
+    private static Path modulesCache() {
+        String home = System.getenv("GRADLE_USER_HOME");
+        Path userHome = home == null ? Paths.get(System.getProperty("user.home"), ".gradle") : Paths.get(home);
+        return userHome.resolve("caches").resolve("modules-2").resolve("files-2.1");
+    }
+
+    // the settings by directory, an empty value means the directory has no settings file
+    private final Map<Path, Optional<GradleSettings>> settings = new ConcurrentHashMap<>();
+
+    private final Path modulesCache = modulesCache();
+
+    /**
+     * Returns the file of an external module, like <tt>"com.google.guava:guava:33.0"</tt>, in the Gradle cache.<br>
+     * The cache keeps each file in a directory named by its hash, that cannot be known without downloading it, so the returned file may not exist.
+     */
+    Path getModuleFile(String coordinates) {
+        final String[] parts = coordinates.split(":");
+        Path file = modulesCache;
+        for (int i = 0; i < parts.length && i < 3; i++) {
+            file = file.resolve(parts[i]);
+        }
+        final String name = parts.length > 2 ? parts[1] + "-" + parts[2] : parts[parts.length - 1];
+        return file.resolve(name + ".jar");
+    }
+
+    /**
+     * Returns the settings of the build that contains the specified project directory, the nearest settings file in the directory or above it.
+     *
+     * @return The {@link GradleSettings} or <tt>null</tt> if there is none.
+     */
+    GradleSettings getSettings(Path directory) {
+        for (Path current = directory.toAbsolutePath().normalize(); current != null; current = current.getParent()) {
+            GradleSettings found = getSettingsOf(current);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Discards the settings of the specified directory, so they are read again.
+     */
+    void invalidate(Path directory) {
+        settings.remove(directory.toAbsolutePath().normalize());
+    }
+
+    private GradleSettings getSettingsOf(Path directory) {
+        Optional<GradleSettings> found = settings.get(directory);
+        if (found == null) {
+            found = Optional.ofNullable(read(directory));
+            Optional<GradleSettings> previous = settings.putIfAbsent(directory, found);
+            if (previous != null) {
+                found = previous;
+            }
+        }
+        return found.orElse(null);
+    }
+
+    private GradleSettings read(Path directory) {
+        for (String name : SETTINGS_FILES) {
+            Path file = directory.resolve(name);
+            if (Files.isRegularFile(file)) {
+                try {
+                    return GradleSettings.read(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return null;
+    }
+}
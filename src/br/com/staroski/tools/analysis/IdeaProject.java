@@ -0,0 +1,122 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class represents an <b><a href="https://www.jetbrains.com/idea/download/">IntelliJ IDEA</a> module</b>, a directory with an <tt>.iml</tt>
+ * file or the content root of a module whose <tt>.iml</tt> is elsewhere, like in <tt>.idea/modules</tt>.<br>
+ * Instances of this class are created through the static method {@link Projects#get(File)} passing the name directory as parameter.<br>
+ * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.<br>
+ * <br>
+ * The modules are listed by the <tt>.idea/modules.xml</tt> of the workspace. The <tt>module</tt> order entries of the <tt>.iml</tt> are dependencies of
+ * kind {@link Dependency#KIND_SRC}, the project and module libraries are dependencies of kind {@link Dependency#KIND_LIB}. A workspace folder without an
+ * <tt>.iml</tt> of its own is not a {@link #isComponent() component}, its modules are scanned instead.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class IdeaProject extends AbstractProject {
+
+    private static final String ORDER_ENTRY_ELEMENT = "orderEntry";
+    private static final String LIBRARY_ELEMENT = "library";
+    private static final String PROJECT_LEVEL = "project";
+
+    // finds the .iml of a module that is not listed by the modules.xml
+    private static Path findModuleFile(Path folder) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + IdeaWorkspace.MODULE_EXTENSION)) {
+            for (Path file : files) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private final IdeaWorkspace.Layout layout;
+    private final boolean component;
+
+    /**
+     * Creates a new {@link IdeaProject} for the specified folder.
+     *
+     * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
+     */
+    IdeaProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, registry);
+        layout = registry.getIdeaWorkspace().getLayout(projectFolder);
+        Path moduleFile = null;
+        try {
+            moduleFile = layout == null ? null : layout.getModuleFileOf(projectFolder);
+            if (moduleFile == null) {
+                moduleFile = findModuleFile(projectFolder);
+                if (moduleFile != null && layout != null && layout.isModuleFile(moduleFile)) {
+                    moduleFile = null; // the .iml of a module whose content root is another folder, like in .idea/modules
+                }
+            }
+            if (layout != null) {
+                addDescriptorFile(layout.getRoot().resolve(IdeaWorkspace.IDEA_FOLDER).resolve(IdeaWorkspace.MODULES_FILE));
+                addDescriptorFile(layout.getRoot().resolve(IdeaWorkspace.IDEA_FOLDER).resolve(IdeaWorkspace.LIBRARIES_FOLDER));
+            }
+            if (moduleFile != null) {
+                addDescriptorFile(moduleFile);
+                final Path moduleFolder = moduleFile.getParent();
+                final Path projectDir = layout == null ? moduleFolder : layout.getRoot();
+                XmlFiles.read(moduleFile, reader -> readModule(reader, projectDir, moduleFolder));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        component = moduleFile != null;
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        // a folder without a module of its own is never a leaf, the projects below it are scanned
+        return !component || layout != null && layout.getRoot().equals(getPath().toAbsolutePath().normalize()) && layout.hasNestedModules();
+    }
+
+    @Override
+    public boolean isComponent() {
+        return component;
+    }
+
+    private void readModule(XMLStreamReader reader, Path projectFolder, Path moduleFolder) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamReader.START_ELEMENT || !ORDER_ENTRY_ELEMENT.equals(reader.getLocalName())) {
+                continue;
+            }
+            final String type = String.valueOf(reader.getAttributeValue(null, "type"));
+            switch (type) {
+                case "module":
+                    Path module = layout == null ? null : layout.getModuleFolder(String.valueOf(reader.getAttributeValue(null, "module-name")));
+                    if (module != null && !module.equals(getPath().toAbsolutePath().normalize())) {
+                        addDependency(Dependency.KIND_SRC, module);
+                    }
+                    break;
+                case "library":
+                    // the application libraries are defined outside of the workspace
+                    if (layout != null && PROJECT_LEVEL.equals(reader.getAttributeValue(null, "level"))) {
+                        for (Path file : layout.getLibrary(String.valueOf(reader.getAttributeValue(null, "name")))) {
+                            addDependency(Dependency.KIND_LIB, file);
+                        }
+                    }
+                    break;
+                case "module-library":
+                    if (reader.nextTag() == XMLStreamReader.START_ELEMENT && LIBRARY_ELEMENT.equals(reader.getLocalName())) {
+                        for (Path file : IdeaWorkspace.readClasses(reader, projectFolder, moduleFolder)) {
+                            addDependency(Dependency.KIND_LIB, file);
+                        }
+                    }
+                    break;
+                default:
+                    // the JDK and the module's own sources
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The IntelliJ IDEA workspaces shared by the {@link IdeaProject}s of a {@link ProjectRegistry}.<br>
+ * The <tt>.idea/modules.xml</tt> and the project libraries of <tt>.idea/libraries</tt> of each workspace are read only once and shared by all of its
+ * modules.<br>
+ * A module is the folder of its first content root, not the folder of its <tt>.iml</tt>, so the modules whose files are all kept together, like in
+ * <tt>.idea/modules</tt>, are still told apart.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class IdeaWorkspace {
+
+    /**
+     * The modules and the project libraries of a workspace.
+     */
+    static final class Layout {
+
+        private final Path root;
+        private final Map<String, Path> moduleFolders = new HashMap<>();
+        private final Set<Path> moduleFiles = new HashSet<>();
+        private final Map<Path, Path> moduleFilesByFolder = new HashMap<>();
+        private final Map<String, List<Path>> libraries = new HashMap<>();
+
+        private Layout(Path root) {
+            this.root = root;
+        }
+
+        /**
+         * Returns the files of the classes roots of the specified project library, empty if it is not defined.
+         */
+        List<Path> getLibrary(String name) {
+            final List<Path> files = libraries.get(name);
+            return files == null ? Collections.emptyList() : files;
+        }
+
+        /**
+         * Returns the folder of the specified module, its content root, <tt>null</tt> if it is not part of the workspace.
+         */
+        Path getModuleFolder(String name) {
+            return moduleFolders.get(name);
+        }
+
+        /**
+         * Returns the <tt>.iml</tt> file of the module whose content root is the specified folder, <tt>null</tt> if there is none.
+         */
+        Path getModuleFileOf(Path folder) {
+            return moduleFilesByFolder.get(folder.toAbsolutePath().normalize());
+        }
+
+        /**
+         * Tells if the specified file is the <tt>.iml</tt> of a module of the workspace.
+         */
+        boolean isModuleFile(Path file) {
+            return moduleFiles.contains(file.toAbsolutePath().normalize());
+        }
+
+        /**
+         * Tells if the workspace has modules outside of its root folder.
+         */
+        boolean hasNestedModules() {
+            for (Path folder : moduleFilesByFolder.keySet()) {
+                if (!folder.equals(root)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the directory of the workspace, the one with the <tt>.idea</tt> folder.
+         */
+        Path getRoot() {
+            return root;
+        }
+
+        // the first content root of a module, the folder of its .iml if it has none or cannot be read
+        private Path readContentRoot(Path moduleFile) {
+            final Path moduleFolder = moduleFile.getParent();
+            final Path[] contentRoot = { moduleFolder };
+            try {
+                XmlFiles.read(moduleFile, reader -> {
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamReader.START_ELEMENT && "content".equals(reader.getLocalName())) {
+                            String url = reader.getAttributeValue(null, "url");
+                            if (url != null) {
+                                contentRoot[0] = resolve(url, root, moduleFolder);
+                                return;
+                            }
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                // a missing or broken .iml keeps its folder, the module reports the error when it is read
+            }
+            return contentRoot[0];
+        }
+
+        private void readLibraries(Path folder) throws IOException {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*.xml")) {
+                for (Path file : files) {
+                    XmlFiles.read(file, reader -> {
+                        while (reader.hasNext()) {
+                            if (reader.next() == XMLStreamReader.START_ELEMENT && "library".equals(reader.getLocalName())) {
+                                String name = reader.getAttributeValue(null, "name");
+                                List<Path> roots = readClasses(reader, root, root);
+                                if (name != null) {
+                                    libraries.put(name, roots);
+                                }
+                            }
+                        }
+                    });
+                }
+            } catch (NoSuchFileException e) {
+                // no project libraries
+            }
+        }
+
+        private void readModules(Path file) throws IOException {
+            XmlFiles.read(file, reader -> {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamReader.START_ELEMENT && "module".equals(reader.getLocalName())) {
+                        String path = reader.getAttributeValue(null, "filepath");
+                        if (path != null) {
+                            Path moduleFile = resolve(path, root, root);
+                            String name = moduleFile.getFileName().toString();
+                            name = name.substring(0, name.length() - MODULE_EXTENSION.length());
+                            Path folder = readContentRoot(moduleFile);
+                            moduleFiles.add(moduleFile);
+                            moduleFolders.put(name, folder);
+                            moduleFilesByFolder.put(folder, moduleFile);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    static final String IDEA_FOLDER = ".idea";
+    static final String MODULES_FILE = "modules.xml";
+    static final String MODULE_EXTENSION = ".iml";
+    static final String LIBRARIES_FOLDER = "libraries";
+
+    /**
+     * Reads the classes roots of the current <tt>&lt;library&gt;</tt> element, consuming its end tag.
+     *
+     * @param reader        The reader positioned on the library element.
+     * @param projectFolder The value of <tt>$PROJECT_DIR$</tt>.
+     * @param moduleFolder  The value of <tt>$MODULE_DIR$</tt>.
+     * @return The files of the classes roots.
+     */
+    static List<Path> readClasses(XMLStreamReader reader, Path projectFolder, Path moduleFolder) throws XMLStreamException {
+        final List<Path> roots = new ArrayList<>();
+        boolean classes = false;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+                if ("CLASSES".equals(reader.getLocalName())) {
+                    classes = true;
+                } else if (classes && "root".equals(reader.getLocalName())) {
+                    String url = reader.getAttributeValue(null, "url");
+                    if (url != null) {
+                        roots.add(resolve(url, projectFolder, moduleFolder));
+                    }
+                }
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+                if ("CLASSES".equals(reader.getLocalName())) {
+                    classes = false;
+                }
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Resolves an IDEA path or URL, like <tt>jar://$PROJECT_DIR$/lib/a.jar!/</tt>, expanding its path macros.
+     */
+    static Path resolve(String url, Path projectFolder, Path moduleFolder) {
+        String path = url;
+        final int scheme = path.indexOf("://");
+        if (scheme > 0) {
+            path = path.substring(scheme + 3);
+        }
+        if (path.endsWith("!/")) {
+            path = path.substring(0, path.length() - 2);
+        }
+        path = path.replace("$PROJECT_DIR$", projectFolder.toString())
+                .replace("$MODULE_DIR$", moduleFolder.toString())
+                .replace("$USER_HOME$", System.getProperty("user.home"))
+                .replace('\\', '/');
+        return moduleFolder.resolve(path).normalize();
+    }
+
+    // the workspace of each directory already looked up, an empty value means the directory is not inside a workspace
+    private final Map<Path, Optional<Layout>> layouts = new ConcurrentHashMap<>();
+
+    // the module folders of the workspaces already read, they may have no project file of their own
+    private final Set<Path> moduleFolders = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the workspace that contains the specified directory, the nearest one in the directory or above it.
+     *
+     * @return The {@link Layout} of the workspace or <tt>null</tt> if there is none.
+     */
+    Layout getLayout(Path directory) {
+        for (Path current = directory.toAbsolutePath().normalize(); current != null; current = current.getParent()) {
+            Layout layout = getLayoutOf(current);
+            if (layout != null) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells if the specified directory is the folder of a module of a workspace already read, it doesn't read any workspace.
+     */
+    boolean isModuleFolder(Path directory) {
+        return moduleFolders.contains(directory.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Discards the workspace of the specified directory, so it is read again.
+     */
+    void invalidate(Path directory) {
+        layouts.remove(directory.toAbsolutePath().normalize());
+    }
+
+    private Layout getLayoutOf(Path directory) {
+        Optional<Layout> layout = layouts.get(directory);
+        if (layout == null) {
+            layout = Optional.ofNullable(read(directory));
+            Optional<Layout> previous = layouts.putIfAbsent(directory, layout);
+            if (previous != null) {
+                layout = previous;
+            }
+        }
+        return layout.orElse(null);
+    }
+
+    private Layout read(Path directory) {
+        final Path idea = directory.resolve(IDEA_FOLDER);
+        final Path modules = idea.resolve(MODULES_FILE);
+        if (!Files.isRegularFile(modules)) {
+            return null;
+        }
+        final Layout layout = new Layout(directory);
+        try {
+            layout.readModules(modules);
+            layout.readLibraries(idea.resolve(LIBRARIES_FOLDER));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        moduleFolders.addAll(layout.moduleFilesByFolder.keySet());
+        return layout;
+    }
+}
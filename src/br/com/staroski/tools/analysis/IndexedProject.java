@@ -0,0 +1,46 @@
+package br.com.staroski.tools.analysis;
+
+import java.nio.file.Path;
+
+/**
+ * A {@link Project} rebuilt from a {@link ScanIndex}, with the name and the dependencies read by a previous scan, its descriptor files are not read
+ * again.<br>
+ * It is only created while none of the descriptor files of the project changed since they were read.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class IndexedProject extends AbstractProject {
+
+    private final boolean component;
+    private final boolean nestedProjects;
+
+    /**
+     * Creates a new {@link IndexedProject} for the specified folder, its dependencies and descriptor files are declared by the index.
+     *
+     * @param projectFolder  The project's folder.
+     * @param kind           The kind of the project, an IntelliJ IDEA workspace is still read to find its modules.
+     * @param name           The project's name.
+     * @param component      If the project is a {@link #isComponent() component}.
+     * @param nestedProjects If the project {@link #hasNestedProjects() has nested projects}.
+     * @param registry       The registry the project belongs to.
+     */
+    IndexedProject(Path projectFolder, ProjectKind kind, String name, boolean component, boolean nestedProjects, ProjectRegistry registry) {
+        super(projectFolder, name, registry);
+        this.component = component;
+        this.nestedProjects = nestedProjects;
+        if (kind == ProjectKind.IDEA) {
+            // the module folders without a project file of their own are only known after their workspace is read
+            registry.getIdeaWorkspace().getLayout(projectFolder);
+        }
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        return nestedProjects;
+    }
+
+    @Override
+    public boolean isComponent() {
+        return component;
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the directories and packages of the jar files used as {@link Dependency#KIND_LIB lib} dependencies.<br>
+ * Only the central directory of a jar is read, no entry is inflated, and the result is cached by the canonical path, size and modification time of the
+ * jar, so a jar referenced by hundreds of projects is read only once. The index can also be stored in a file and reused by the next runs.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class JarIndex {
+
+    /**
+     * The directories and packages of a jar file.
+     */
+    public static final class Entry {
+
+        private final long size;
+        private final long modified;
+        private final Set<String> directories;
+        private final Set<String> packages;
+
+        private Entry(long size, long modified, Set<String> directories, Set<String> packages) {
+            this.size = size;
+            this.modified = modified;
+            this.directories = Collections.unmodifiableSet(directories);
+            this.packages = Collections.unmodifiableSet(packages);
+        }
+
+        /**
+         * Returns the directories of the jar, like <tt>"com/acme/"</tt>, including the ones that have no entry of their own.
+         */
+        public Set<String> getDirectories() {
+            return directories;
+        }
+
+        /**
+         * Returns the packages with classes of the jar, like <tt>"com.acme"</tt>.
+         */
+        public Set<String> getPackages() {
+            return packages;
+        }
+    }
+
+    private static final String HEADER = "# staroski-architecture-tools jar index v1";
+    private static final String SEPARATOR = "|";
+    private static final String META_INF = "META-INF/";
+    private static final String CLASS_EXTENSION = ".class";
+
+    // the entry of the jars that are not on disk, like artifacts never downloaded to the local repository
+    private static final Entry MISSING = new Entry(-1, -1, Collections.emptySet(), Collections.emptySet());
+
+    // the index shared by the dependencies that don't specify one
+    private static final JarIndex SHARED = new JarIndex(null);
+
+    /**
+     * Returns the in-memory index shared by the whole application.
+     */
+    public static JarIndex getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Loads the index stored in the specified file.<br>
+     * If the file doesn't exist or is not a valid index, an empty index is returned and the file will be created by {@link #save()}.
+     *
+     * @param file The index file.
+     * @return The {@link JarIndex}.
+     */
+    public static JarIndex load(File file) {
+        JarIndex index = new JarIndex(file);
+        if (file.isFile()) {
+            try {
+                index.read();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring invalid jar index \"" + file.getAbsolutePath() + "\": " + e.getMessage());
+                index.entries.clear();
+            }
+        }
+        return index;
+    }
+
+    private static void addName(String name, Set<String> directories, Set<String> packages) {
+        int slash = name.lastIndexOf('/', name.endsWith("/") ? name.length() - 2 : name.length() - 1);
+        if (name.endsWith("/")) {
+            directories.add(name);
+        } else if (slash > 0 && name.endsWith(CLASS_EXTENSION) && !name.startsWith(META_INF)) {
+            packages.add(name.substring(0, slash).replace('/', '.'));
+        }
+        // the parent directories, many jars have no entries for them
+        while (slash > 0 && directories.add(name.substring(0, slash + 1))) {
+            slash = name.lastIndexOf('/', slash - 1);
+        }
+    }
+
+    private static Set<String> split(String field) {
+        final Set<String> values = new TreeSet<>();
+        for (String value : field.split("\\" + SEPARATOR)) {
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private JarIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the directories and packages of the specified jar, reading its central directory only if it changed since it was indexed.<br>
+     * A jar that doesn't exist has no directories nor packages.
+     *
+     * @param jar The jar file, it can be on any file system.
+     * @return The {@link Entry} of the jar.
+     * @throws IOException If the jar cannot be read.
+     */
+    public Entry get(Path jar) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            return MISSING;
+        }
+        final Path path = jar.toRealPath();
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+        final String key = path.toUri().toString();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.size != size || entry.modified != modified) {
+            entry = read(path, size, modified);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Writes the indexed jars to the index file, an in-memory index is not saved.
+     *
+     * @throws IOException If some IO error occurs.
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Entry> item : entries.entrySet()) {
+                Entry entry = item.getValue();
+                StringBuilder line = new StringBuilder(item.getKey());
+                line.append('\t').append(entry.size);
+                line.append('\t').append(entry.modified);
+                line.append('\t').append(String.join(SEPARATOR, entry.directories));
+                line.append('\t').append(String.join(SEPARATOR, entry.packages));
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private Entry read(Path jar, long size, long modified) throws IOException {
+        final Set<String> directories = new TreeSet<>();
+        final Set<String> packages = new TreeSet<>();
+        if (jar.getFileSystem() == FileSystems.getDefault()) {
+            // ZipFile reads the central directory at the end of the file, the entries are never inflated
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+                while (zipEntries.hasMoreElements()) {
+                    addName(zipEntries.nextElement().getName(), directories, packages);
+                }
+            }
+        } else {
+            // a jar inside an archive is opened as a file system, that also reads only its central directory
+            try (FileSystem zip = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+                final Path root = zip.getRootDirectories().iterator().next();
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                        if (!directory.equals(root)) {
+                            addName(root.relativize(directory) + "/", directories, packages);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        addName(root.relativize(file).toString(), directories, packages);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        }
+        return new Entry(size, modified, directories, packages);
+    }
+
+    private void read() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("unknown header");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                long size = Long.parseLong(fields[1]);
+                long modified = Long.parseLong(fields[2]);
+                entries.put(fields[0], new Entry(size, modified, split(fields[3]), split(fields[4])));
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.staroski.tools.analysis;
+
+/**
+ * {@link MetricsVisitor} implementation that sets the layer and depth of a {@link Project}'s {@link Metrics}.
+ * 
+ * @author Staroski, Ricardo Artur
+ */
+final class LayerUpdater implements MetricsVisitor {
+
+    private final int layer;
+    private final int depth;
+
+    LayerUpdater(int layer, int depth) {
+        this.layer = layer;
+        this.depth = depth;
+    }
+
+    @Override
+    public void visit(Metrics metrics) {
+        metrics.setLayer(layer, depth);
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * The architecture layers of a {@link Condensation}, computed by two runs of Kahn's algorithm, one from the leaves and one from the roots:
+ * <ul>
+ * <li>the <b>layer</b> of a component is the length of the longest path from it to a component without dependencies, those are on layer
+ * <tt>0</tt>;</li>
+ * <li>the <b>depth</b> of a component is the length of the longest path from a component nobody depends on to it, those have depth <tt>0</tt>.</li>
+ * </ul>
+ * Each run removes a whole frontier of components at a time, and the large frontiers are processed in parallel, so the layering takes <tt>O(V + E)</tt>
+ * work even for tens of thousands of projects.<br>
+ * All projects of a component share its layer and depth, see {@link StronglyConnectedComponents#getComponent(int)}.<br>
+ * Instances of this class are immutable.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class Layering {
+
+    // the frontiers smaller than this are not worth splitting among threads
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Computes the layers of the projects of the specified graph.
+     */
+    public static Layering of(ProjectGraph graph) {
+        return of(Condensation.of(graph));
+    }
+
+    /**
+     * Computes the layers of the components of the specified condensation.
+     */
+    public static Layering of(Condensation condensation) {
+        final int[] layers = new int[condensation.size()];
+        final int[] depths = new int[condensation.size()];
+        final int layerCount = kahn(condensation, true, layers);
+        kahn(condensation, false, depths);
+        return new Layering(condensation, layers, layerCount, depths);
+    }
+
+    // removes the frontiers of components without pending dependencies (or dependents) and returns how many there were
+    private static int kahn(Condensation condensation, boolean fromLeaves, int[] levels) {
+        final int size = condensation.size();
+        final AtomicIntegerArray pending = new AtomicIntegerArray(size);
+        int[] frontier = new int[size];
+        int frontierSize = 0;
+        for (int c = 0; c < size; c++) {
+            final int degree = fromLeaves ? condensation.getOutDegree(c) : condensation.getInDegree(c);
+            pending.set(c, degree);
+            if (degree == 0) {
+                frontier[frontierSize++] = c;
+            }
+        }
+        int[] next = new int[size];
+        int level = 0;
+        while (frontierSize > 0) {
+            final int[] current = frontier;
+            final int[] following = next;
+            final int currentLevel = level;
+            final AtomicInteger followingSize = new AtomicInteger();
+            IntStream indexes = IntStream.range(0, frontierSize);
+            if (frontierSize >= PARALLEL_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            indexes.forEach(i -> {
+                final int c = current[i];
+                levels[c] = currentLevel;
+                final int degree = fromLeaves ? condensation.getInDegree(c) : condensation.getOutDegree(c);
+                for (int j = 0; j < degree; j++) {
+                    final int neighbour = fromLeaves ? condensation.getPredecessor(c, j) : condensation.getSuccessor(c, j);
+                    // only the last removed neighbour sees zero, so each component joins exactly one frontier
+                    if (pending.decrementAndGet(neighbour) == 0) {
+                        following[followingSize.getAndIncrement()] = neighbour;
+                    }
+                }
+            });
+            frontier = following;
+            next = current;
+            frontierSize = followingSize.get();
+            level++;
+        }
+        return level;
+    }
+
+    private final Condensation condensation;
+    private final int[] layers;
+    private final int layerCount;
+    private final int[] depths;
+
+    private Layering(Condensation condensation, int[] layers, int layerCount, int[] depths) {
+        this.condensation = condensation;
+        this.layers = layers;
+        this.layerCount = layerCount;
+        this.depths = depths;
+    }
+
+    /**
+     * Returns the {@link Condensation} of this layering.
+     */
+    public Condensation getCondensation() {
+        return condensation;
+    }
+
+    /**
+     * Returns the depth of the specified component, from <tt>0</tt> to <tt>getLayerCount() - 1</tt>.
+     */
+    public int getDepth(int component) {
+        return depths[component];
+    }
+
+    /**
+     * Returns the layer of the specified component, from <tt>0</tt> to <tt>getLayerCount() - 1</tt>.
+     */
+    public int getLayer(int component) {
+        return layers[component];
+    }
+
+    /**
+     * Returns the number of layers, that is, the number of components of the longest dependency chain, which is also the number of depths.
+     */
+    public int getLayerCount() {
+        return layerCount;
+    }
+}
@@ -0,0 +1,374 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The parts of a Maven <tt>pom.xml</tt> needed to resolve the dependencies of a module: its coordinates, parent, modules, properties, managed versions and
+ * dependencies.<br>
+ * Instances are immutable and shared by all the modules of a {@link MavenReactor}, the values inherited from the parent POMs are resolved only once, on the
+ * first call to {@link #getEffective(MavenReactor)}.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class MavenPom {
+
+    /**
+     * A <tt>&lt;dependency&gt;</tt> or a <tt>&lt;parent&gt;</tt> of a POM.
+     */
+    static final class Artifact {
+
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String type;
+        private final String scope;
+        private final String relativePath;
+
+        private Artifact(Map<String, String> values) {
+            this.groupId = values.get("groupId");
+            this.artifactId = values.get("artifactId");
+            this.version = values.get("version");
+            this.type = values.get("type");
+            this.scope = values.get("scope");
+            this.relativePath = values.get("relativePath");
+        }
+
+        private Artifact(String groupId, String artifactId, String version, String type, String scope) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.type = type;
+            this.scope = scope;
+            this.relativePath = null;
+        }
+
+        String getArtifactId() {
+            return artifactId;
+        }
+
+        String getGroupId() {
+            return groupId;
+        }
+
+        /**
+         * Returns the <tt>groupId:artifactId</tt> that identifies the artifact regardless of its version.
+         */
+        String getKey() {
+            return groupId + ":" + artifactId;
+        }
+
+        /**
+         * Returns the path of the parent POM, <tt>null</tt> if not declared.
+         */
+        String getRelativePath() {
+            return relativePath;
+        }
+
+        String getScope() {
+            return scope;
+        }
+
+        /**
+         * Returns the packaging type, <tt>"jar"</tt> if not declared.
+         */
+        String getType() {
+            return type == null ? "jar" : type;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        private Artifact interpolate(Map<String, String> properties, Map<String, String> managedVersions) {
+            String g = MavenPom.interpolate(groupId, properties);
+            String a = MavenPom.interpolate(artifactId, properties);
+            String v = MavenPom.interpolate(version, properties);
+            if (v == null) {
+                v = managedVersions.get(g + ":" + a);
+            }
+            return new Artifact(g, a, v, MavenPom.interpolate(type, properties), MavenPom.interpolate(scope, properties));
+        }
+    }
+
+    /**
+     * The values of a POM after the inheritance from its parents and the interpolation of the <tt>${...}</tt> properties.
+     */
+    static final class Effective {
+
+        private final String groupId;
+        private final String version;
+        private final Map<String, String> properties;
+        private final Map<String, String> managedVersions;
+        private final Map<String, Artifact> dependencies;
+
+        private Effective(String groupId, String version, Map<String, String> properties, Map<String, String> managedVersions,
+                Map<String, Artifact> dependencies) {
+            this.groupId = groupId;
+            this.version = version;
+            this.properties = properties;
+            this.managedVersions = managedVersions;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Returns the declared and inherited dependencies, with their versions resolved.
+         */
+        Iterable<Artifact> getDependencies() {
+            return dependencies.values();
+        }
+
+        String getGroupId() {
+            return groupId;
+        }
+
+        String getVersion() {
+            return version;
+        }
+    }
+
+    private static final String POM_PACKAGING = "pom";
+
+    // guards against properties that reference each other
+    private static final int MAX_INTERPOLATIONS = 16;
+
+    /**
+     * Parses the specified <tt>pom.xml</tt> file.
+     *
+     * @param file The POM file.
+     * @return The {@link MavenPom}.
+     * @throws IOException If the file cannot be read or parsed.
+     */
+    static MavenPom read(Path file) throws IOException {
+        final MavenPom pom = new MavenPom(file);
+        XmlFiles.read(file, pom::readProject);
+        return pom;
+    }
+
+    private static String interpolate(String value, Map<String, String> properties) {
+        if (value == null) {
+            return null;
+        }
+        for (int i = 0; i < MAX_INTERPOLATIONS; i++) {
+            int begin = value.indexOf("${");
+            int end = begin < 0 ? -1 : value.indexOf('}', begin);
+            if (end < 0) {
+                return value;
+            }
+            String replacement = properties.get(value.substring(begin + 2, end));
+            if (replacement == null) {
+                return value; // undefined, like the properties of the settings.xml
+            }
+            value = value.substring(0, begin) + replacement + value.substring(end + 1);
+        }
+        return value;
+    }
+
+    private final Path file;
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String packaging = "jar";
+    private Artifact parent;
+    private final List<String> modules = new ArrayList<>();
+    private final Map<String, String> properties = new HashMap<>();
+    private final List<Artifact> managedDependencies = new ArrayList<>();
+    private final List<Artifact> dependencies = new ArrayList<>();
+
+    private volatile Effective effective;
+
+    private MavenPom(Path file) {
+        this.file = file;
+    }
+
+    String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * Returns the <tt>pom.xml</tt> file of this POM.
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the directory of this POM.
+     */
+    Path getDirectory() {
+        return file.getParent();
+    }
+
+    /**
+     * Returns the values of this POM after the inheritance from its parents, they are computed on the first call.
+     *
+     * @param reactor The reactor that resolves the parent POMs.
+     */
+    Effective getEffective(MavenReactor reactor) {
+        return getEffective(reactor, new HashSet<>());
+    }
+
+    /**
+     * Returns the <tt>groupId:artifactId</tt> of this POM, the groupId may be inherited from its parent.
+     *
+     * @param reactor The reactor that resolves the parent POMs.
+     */
+    String getKey(MavenReactor reactor) {
+        return getEffective(reactor).getGroupId() + ":" + artifactId;
+    }
+
+    // the POMs being resolved break a parent chain that loops back to one of them
+    private Effective getEffective(MavenReactor reactor, Set<MavenPom> resolving) {
+        Effective resolved = effective;
+        if (resolved == null) {
+            resolved = resolve(reactor, resolving);
+            effective = resolved;
+        }
+        return resolved;
+    }
+
+    List<String> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    String getPackaging() {
+        return packaging;
+    }
+
+    Artifact getParent() {
+        return parent;
+    }
+
+    /**
+     * Tells if this POM only aggregates or configures other modules, so it has no code of its own.
+     */
+    boolean isAggregator() {
+        return POM_PACKAGING.equals(packaging);
+    }
+
+    private void readDependencies(XMLStreamReader reader, List<Artifact> list) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+            if ("dependency".equals(reader.getLocalName())) {
+                list.add(new Artifact(readValues(reader)));
+            } else {
+                XmlFiles.skipElement(reader);
+            }
+        }
+    }
+
+    private void readProject(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "groupId":
+                    groupId = XmlFiles.readText(reader);
+                    break;
+                case "artifactId":
+                    artifactId = XmlFiles.readText(reader);
+                    break;
+                case "version":
+                    version = XmlFiles.readText(reader);
+                    break;
+                case "packaging":
+                    packaging = XmlFiles.readText(reader);
+                    break;
+                case "parent":
+                    parent = new Artifact(readValues(reader));
+                    break;
+                case "modules":
+                    while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+                        modules.add(XmlFiles.readText(reader));
+                    }
+                    break;
+                case "properties":
+                    properties.putAll(readValues(reader));
+                    break;
+                case "dependencyManagement":
+                    while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+                        if ("dependencies".equals(reader.getLocalName())) {
+                            readDependencies(reader, managedDependencies);
+                        } else {
+                            XmlFiles.skipElement(reader);
+                        }
+                    }
+                    break;
+                case "dependencies":
+                    readDependencies(reader, dependencies);
+                    break;
+                default:
+                    // build, profiles, reporting, etc.
+                    XmlFiles.skipElement(reader);
+                    break;
+            }
+        }
+    }
+
+    // reads the text of the child elements of the current element
+    private Map<String, String> readValues(XMLStreamReader reader) throws XMLStreamException {
+        final Map<String, String> values = new HashMap<>();
+        while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+            String name = reader.getLocalName();
+            values.put(name, XmlFiles.readText(reader));
+        }
+        return values;
+    }
+
+    private Effective resolve(MavenReactor reactor, Set<MavenPom> resolving) {
+        resolving.add(this);
+        final MavenPom parentPom = parent == null ? null : reactor.getParent(this);
+        final Effective inherited = parentPom == null || resolving.contains(parentPom) ? null : parentPom.getEffective(reactor, resolving);
+
+        String effectiveGroupId = groupId;
+        String effectiveVersion = version;
+        final Map<String, String> effectiveProperties = new HashMap<>();
+        if (inherited != null) {
+            effectiveProperties.putAll(inherited.properties);
+        }
+        if (parent != null) {
+            effectiveGroupId = effectiveGroupId == null ? parent.getGroupId() : effectiveGroupId;
+            effectiveVersion = effectiveVersion == null ? parent.getVersion() : effectiveVersion;
+            effectiveProperties.put("project.parent.groupId", String.valueOf(parent.getGroupId()));
+            effectiveProperties.put("project.parent.version", String.valueOf(parent.getVersion()));
+        }
+        effectiveProperties.putAll(properties);
+        effectiveProperties.put("project.groupId", String.valueOf(effectiveGroupId));
+        effectiveProperties.put("project.artifactId", String.valueOf(artifactId));
+        effectiveProperties.put("project.version", String.valueOf(effectiveVersion));
+        effectiveProperties.put("pom.groupId", String.valueOf(effectiveGroupId));
+        effectiveProperties.put("pom.version", String.valueOf(effectiveVersion));
+        effectiveGroupId = interpolate(effectiveGroupId, effectiveProperties);
+        effectiveVersion = interpolate(effectiveVersion, effectiveProperties);
+
+        final Map<String, String> managedVersions = new HashMap<>();
+        if (inherited != null) {
+            managedVersions.putAll(inherited.managedVersions);
+        }
+        for (Artifact managed : managedDependencies) {
+            Artifact resolved = managed.interpolate(effectiveProperties, Collections.emptyMap());
+            if (resolved.getVersion() != null) {
+                managedVersions.put(resolved.getKey(), resolved.getVersion());
+            }
+        }
+
+        // the dependencies of the parents are inherited, the ones declared again here take precedence
+        final Map<String, Artifact> effectiveDependencies = new LinkedHashMap<>();
+        if (inherited != null) {
+            effectiveDependencies.putAll(inherited.dependencies);
+        }
+        for (Artifact dependency : dependencies) {
+            Artifact resolved = dependency.interpolate(effectiveProperties, managedVersions);
+            effectiveDependencies.put(resolved.getKey(), resolved);
+        }
+        return new Effective(effectiveGroupId, effectiveVersion, effectiveProperties, managedVersions, effectiveDependencies);
+    }
+}
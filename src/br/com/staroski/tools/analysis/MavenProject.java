@@ -1,11 +1,18 @@
 package br.com.staroski.tools.analysis;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * This class represents a <b><a href="https://maven.apache.org/download.cgi">Maven</a> project</b>.<br>
  * Instances of this class are created through the static method {@link Projects#get(File)} passing the name directory as parameter.<br>
- * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.
+ * A project is named by its <tt>groupId:artifactId</tt>, the modules of a reactor often share the name of their folders.<br>
+ * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.<br>
+ * <br>
+ * The dependencies on other modules of the same reactor are of kind {@link Dependency#KIND_SRC}, the external ones are of kind {@link Dependency#KIND_LIB}
+ * and point to the local repository. A POM with packaging <tt>pom</tt> is not a {@link #isComponent() component}, its modules are scanned instead.
  *
  * @author Staroski, Ricardo Artur
  */
@@ -13,14 +20,59 @@ final class MavenProject extends AbstractProject {
 
     public static final String POM_FILE = "pom.xml";
 
+    // the BOMs imported by the dependencyManagement are not dependencies
+    private static final String SCOPE_IMPORT = "import";
+
+    private final MavenPom pom;
+
     /**
      * Creates a new {@link MavenProject} for the specified folder.
      * 
      * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
      */
-    MavenProject(File projectFolder) {
-        super(projectFolder);
-        // TODO
-        throw new UnsupportedOperationException("Maven projects are not yet supported!");
+    MavenProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, nameOf(projectFolder, registry.getMavenReactor()), registry);
+        final MavenReactor reactor = registry.getMavenReactor();
+        pom = reactor.getPomOf(projectFolder);
+        addDescriptorFile(projectFolder.resolve(POM_FILE));
+        if (pom != null) {
+            // the inherited versions and the module list of the parents decide the dependencies too
+            final Set<MavenPom> parents = new HashSet<>();
+            for (MavenPom parent = reactor.getParent(pom); parent != null && parents.add(parent); parent = reactor.getParent(parent)) {
+                addDescriptorFile(parent.getFile());
+            }
+            readDependencies(reactor);
+        }
+    }
+
+    // a folder without a readable POM or artifactId is named by the folder
+    private static String nameOf(Path projectFolder, MavenReactor reactor) {
+        final MavenPom pom = reactor.getPomOf(projectFolder);
+        return pom == null || pom.getArtifactId() == null ? null : pom.getKey(reactor);
+    }
+
+    @Override
+    public boolean isComponent() {
+        return pom == null || !pom.isAggregator();
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        return pom != null && !pom.getModules().isEmpty();
+    }
+
+    private void readDependencies(MavenReactor reactor) {
+        for (MavenPom.Artifact artifact : pom.getEffective(reactor).getDependencies()) {
+            if (SCOPE_IMPORT.equals(artifact.getScope())) {
+                continue;
+            }
+            final Path module = reactor.getModule(pom, artifact.getKey());
+            if (module != null) {
+                addProjectDependency(module, artifact.getKey());
+            } else {
+                addDependency(Dependency.KIND_LIB, reactor.getArtifactFile(artifact));
+            }
+        }
     }
 }
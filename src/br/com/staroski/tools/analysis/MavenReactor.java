@@ -0,0 +1,194 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Maven model shared by the {@link MavenProject}s of a {@link ProjectRegistry}.<br>
+ * Each <tt>pom.xml</tt> is parsed only once, so the parent POMs of a big reactor are not read again for each of its modules, and the modules of each reactor
+ * are indexed by their <tt>groupId:artifactId</tt> to tell the dependencies between modules from the external ones.<br>
+ * No network access or Maven installation is needed, the parent POMs outside of the repository are read from the local repository
+ * (<tt>~/.m2/repository</tt>) when they are there.<br>
+ * Instances of this class are thread-safe.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class MavenReactor {
+
+    private static final String DEFAULT_RELATIVE_PATH = "../" + MavenProject.POM_FILE;
+
+    // the local repository, it doesn't need to exist
+    private static Path localRepository() {
+        String path = System.getProperty("maven.repo.local");
+        if (path == null) {
+            return Paths.get(System.getProperty("user.home"), ".m2", "repository");
+        }
+        return Paths.get(path);
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    // parsed POMs by file, an empty value means the file doesn't exist or cannot be parsed
+    private final Map<Path, Optional<MavenPom>> poms = new ConcurrentHashMap<>();
+
+    // the modules of each reactor by groupId:artifactId, by the directory of the reactor's root POM
+    private final Map<Path, Map<String, Path>> reactors = new ConcurrentHashMap<>();
+
+    private final Path localRepository = localRepository();
+
+    /**
+     * Returns the file of an external artifact in the local repository, the file may not exist.
+     */
+    Path getArtifactFile(MavenPom.Artifact artifact) {
+        return getArtifactFile(artifact, artifact.getType());
+    }
+
+    /**
+     * Returns the directory of the module of the same reactor as the specified POM with the specified <tt>groupId:artifactId</tt>.
+     *
+     * @return The module directory or <tt>null</tt> if the artifact is not built by the reactor.
+     */
+    Path getModule(MavenPom pom, String key) {
+        return getReactor(pom.getDirectory()).get(key);
+    }
+
+    /**
+     * Returns the parent of the specified POM, looking first at its <tt>relativePath</tt> and then at the local repository.
+     *
+     * @return The parent POM or <tt>null</tt> if it cannot be found.
+     */
+    MavenPom getParent(MavenPom pom) {
+        final MavenPom.Artifact parent = pom.getParent();
+        if (parent == null) {
+            return null;
+        }
+        String relativePath = parent.getRelativePath();
+        if (relativePath == null) {
+            relativePath = DEFAULT_RELATIVE_PATH;
+        }
+        if (!relativePath.isEmpty()) {
+            Path file = pom.getDirectory().resolve(relativePath.replace('\\', '/'));
+            if (!file.getFileName().toString().endsWith(".xml")) {
+                file = file.resolve(MavenProject.POM_FILE);
+            }
+            MavenPom local = getPom(file);
+            // the relative path is only used if it is the declared parent
+            if (local != null && local != pom && Objects.equals(parent.getArtifactId(), local.getArtifactId())) {
+                return local;
+            }
+        }
+        return getPom(getArtifactFile(parent, "pom"));
+    }
+
+    /**
+     * Returns the parsed <tt>pom.xml</tt> of the specified directory.
+     *
+     * @return The {@link MavenPom} or <tt>null</tt> if the directory has no readable POM.
+     */
+    MavenPom getPomOf(Path directory) {
+        return getPom(normalize(directory).resolve(MavenProject.POM_FILE));
+    }
+
+    /**
+     * Discards the POM of the specified directory and the reactor indexes, so they are read again.
+     */
+    void invalidate(Path directory) {
+        poms.remove(normalize(directory).resolve(MavenProject.POM_FILE));
+        reactors.clear();
+    }
+
+    private Path getArtifactFile(MavenPom.Artifact artifact, String type) {
+        final String artifactId = artifact.getArtifactId();
+        final String version = artifact.getVersion();
+        Path directory = localRepository.resolve(String.valueOf(artifact.getGroupId()).replace('.', '/')).resolve(artifactId);
+        if (version == null) {
+            return directory.resolve(artifactId + "." + type);
+        }
+        return directory.resolve(version).resolve(artifactId + "-" + version + "." + type);
+    }
+
+    private MavenPom getPom(Path file) {
+        final Path key = normalize(file);
+        Optional<MavenPom> pom = poms.get(key);
+        if (pom == null) {
+            // parsed outside of the map, the parents may be parsed while resolving a POM
+            pom = Optional.ofNullable(read(key));
+            Optional<MavenPom> previous = poms.putIfAbsent(key, pom);
+            if (previous != null) {
+                pom = previous;
+            }
+        }
+        return pom.orElse(null);
+    }
+
+    // the reactor of a module is built by the topmost POM of the directories above it, or of its parents in the repository, the modules may be nested
+    // in folders without a POM of their own, like "libs/core"
+    private Map<String, Path> getReactor(Path directory) {
+        Path root = normalize(directory);
+        final Set<Path> visited = new HashSet<>();
+        while (visited.add(root)) {
+            final Path above = root.getParent();
+            if (above != null && getPomOf(above) != null) {
+                root = above;
+                continue;
+            }
+            final MavenPom pom = getPomOf(root);
+            final MavenPom parent = pom == null ? null : getParent(pom);
+            if (parent != null && !normalize(parent.getDirectory()).startsWith(localRepository.toAbsolutePath().normalize())) {
+                root = normalize(parent.getDirectory());
+            }
+        }
+        Map<String, Path> reactor = reactors.get(root);
+        if (reactor == null) {
+            reactor = indexReactor(root);
+            reactors.putIfAbsent(root, reactor);
+        }
+        return reactor;
+    }
+
+    private Map<String, Path> indexReactor(Path root) {
+        final Map<String, Path> modules = new HashMap<>();
+        final Set<Path> visited = new HashSet<>();
+        final Deque<Path> pending = new ArrayDeque<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Path directory = pending.poll();
+            MavenPom pom = visited.add(directory) ? getPomOf(directory) : null;
+            if (pom == null) {
+                continue;
+            }
+            modules.put(pom.getKey(this), directory);
+            for (String module : pom.getModules()) {
+                Path path = directory.resolve(module.replace('\\', '/')).normalize();
+                pending.add(path.getFileName() != null && path.getFileName().toString().endsWith(".xml") ? path.getParent() : path);
+            }
+        }
+        return Collections.unmodifiableMap(modules);
+    }
+
+    private MavenPom read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return MavenPom.read(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
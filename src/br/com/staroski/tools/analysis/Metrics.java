@@ -16,6 +16,12 @@ public class Metrics {
     private int inputDependencies;
     private int outputDependencies;
     private List<Cycle> cycles;
+    private int component = -1;
+    private int componentSize = 1;
+    private int layer = -1;
+    private int depth = -1;
+    private int transitiveInputDependencies;
+    private int transitiveOutputDependencies;
 
     private final Project project;
 
@@ -47,6 +53,29 @@ public class Metrics {
         return abstractClasses;
     }
 
+    /**
+     * Returns the id of the strongly connected component of the {@link Project}, see {@link StronglyConnectedComponents}, or <tt>-1</tt> if the cycles
+     * were not analyzed.
+     */
+    public int getComponent() {
+        return component;
+    }
+
+    /**
+     * Returns the number of projects of the strongly connected component of the {@link Project}, more than one means they are all part of a cycle.
+     */
+    public int getComponentSize() {
+        return componentSize;
+    }
+
+    /**
+     * Returns the length of the longest dependency path from a {@link Project} nobody depends on to the strongly connected component of the
+     * {@link Project}, see {@link Layering}, or <tt>-1</tt> if the layers were not analyzed.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
     /**
      * Returns the "Nc", number of <b>Concrete Types</b>.
      */
@@ -70,6 +99,14 @@ public class Metrics {
         return inputDependencies;
     }
 
+    /**
+     * Returns the architecture layer of the {@link Project}, the length of the longest dependency path from its strongly connected component to a
+     * {@link Project} without dependencies, see {@link Layering}, or <tt>-1</tt> if the layers were not analyzed.
+     */
+    public int getLayer() {
+        return layer;
+    }
+
     /**
      * Returns the "I", <b>Instability</b>.
      */
@@ -87,6 +124,20 @@ public class Metrics {
         return outputDependencies;
     }
 
+    /**
+     * Returns the "TCa", <b>Transitive Afferent Coupling</b>, it means "how many projects depend on me, directly or indirectly".
+     */
+    public int getTransitiveInputDependencies() {
+        return transitiveInputDependencies;
+    }
+
+    /**
+     * Returns the "TCe", <b>Transitive Efferent Coupling</b>, it means "how many projects I depend on, directly or indirectly".
+     */
+    public int getTransitiveOutputDependencies() {
+        return transitiveOutputDependencies;
+    }
+
     /**
      * Returns the {@link Project} this {@link Metrics} objects reffers to.
      */
@@ -133,7 +184,32 @@ public class Metrics {
         outputDependencies++;
     }
 
+    void resetTypes() {
+        abstractClasses = 0;
+        concreteClasses = 0;
+    }
+
+    void setComponent(int component, int componentSize) {
+        this.component = component;
+        this.componentSize = componentSize;
+    }
+
+    void setCoupling(int inputDependencies, int outputDependencies) {
+        this.inputDependencies = inputDependencies;
+        this.outputDependencies = outputDependencies;
+    }
+
     void setCycles(List<Cycle> cycles) {
         this.cycles = Objects.requireNonNull(cycles, List.class.getSimpleName() + "<" + Cycle.class.getSimpleName() + "> cannot be null!");
     }
+
+    void setLayer(int layer, int depth) {
+        this.layer = layer;
+        this.depth = depth;
+    }
+
+    void setTransitiveCoupling(int transitiveInputDependencies, int transitiveOutputDependencies) {
+        this.transitiveInputDependencies = transitiveInputDependencies;
+        this.transitiveOutputDependencies = transitiveOutputDependencies;
+    }
 }
\ No newline at end of file
@@ -37,6 +37,41 @@ public final class MetricsVisitors {
         return new OutputDependenciesUpdater();
     }
 
+    /**
+     * Provides an {@link MetricsVisitor} that sets the strongly connected component and its number of projects.
+     */
+    public static MetricsVisitor setComponent(int component, int componentSize) {
+        return new ComponentUpdater(component, componentSize);
+    }
+
+    /**
+     * Provides an {@link MetricsVisitor} that sets the input (afferent coupling) and output (efferent coupling) dependencies.
+     */
+    public static MetricsVisitor setCoupling(int inputDependencies, int outputDependencies) {
+        return new CouplingUpdater(inputDependencies, outputDependencies);
+    }
+
+    /**
+     * Provides an {@link MetricsVisitor} that sets the architecture layer and the depth.
+     */
+    public static MetricsVisitor setLayer(int layer, int depth) {
+        return new LayerUpdater(layer, depth);
+    }
+
+    /**
+     * Provides an {@link MetricsVisitor} that sets the transitive input (afferent coupling) and output (efferent coupling) dependencies.
+     */
+    public static MetricsVisitor setTransitiveCoupling(int inputDependencies, int outputDependencies) {
+        return new TransitiveCouplingUpdater(inputDependencies, outputDependencies);
+    }
+
+    /**
+     * Provides an {@link MetricsVisitor} that sets the abstract and concrete types to zero.
+     */
+    public static MetricsVisitor resetTypes() {
+        return new TypesResetter();
+    }
+
     /**
      * Provides an {@link MetricsVisitor} that sets the cycles property.
      */
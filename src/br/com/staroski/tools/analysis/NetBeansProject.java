@@ -1,26 +1,168 @@
 package br.com.staroski.tools.analysis;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * This class represents a <b><a href="https://netbeans.apache.org/front/main/download/">NetBeans</a> project</b>.<br>
  * Instances of this class are created through the static method {@link Projects#get(File)} passing the name directory as parameter.<br>
- * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.
+ * You can also get a list of projects inside a directory tree using the static method {@link Projects#scan(File)}.<br>
+ * <br>
+ * The projects referenced by <tt>nbproject/project.xml</tt> are dependencies of kind {@link Dependency#KIND_SRC}, the other entries of the
+ * <tt>javac.classpath</tt> of <tt>nbproject/project.properties</tt> are dependencies of kind {@link Dependency#KIND_LIB}.
  *
  * @author Staroski, Ricardo Artur
  */
 final class NetBeansProject extends AbstractProject {
 
+    /**
+     * Expands the <tt>${...}</tt> references of the properties, each property is expanded only once.
+     */
+    private static final class PropertyExpander {
+
+        private final Properties properties;
+        private final Map<String, String> expanded = new HashMap<>();
+        private final Set<String> expanding = new HashSet<>();
+
+        PropertyExpander(Properties properties) {
+            this.properties = properties;
+        }
+
+        /**
+         * Returns the value of a property without expanding it, an empty string if it is not defined.
+         */
+        String getRaw(String name) {
+            return properties.getProperty(name, "");
+        }
+
+        /**
+         * Returns the expanded value of a property, <tt>null</tt> if it is not defined.
+         */
+        String get(String name) {
+            String value = expanded.get(name);
+            if (value == null && !expanded.containsKey(name)) {
+                String raw = properties.getProperty(name);
+                if (raw != null && expanding.add(name)) {
+                    value = expand(raw);
+                    expanding.remove(name);
+                }
+                expanded.put(name, value);
+            }
+            return value;
+        }
+
+        /**
+         * Expands the references of a value, the undefined ones are kept as they are.
+         */
+        String expand(String value) {
+            int begin = value.indexOf("${");
+            if (begin < 0) {
+                return value;
+            }
+            final StringBuilder result = new StringBuilder();
+            int from = 0;
+            while (begin >= 0) {
+                int end = value.indexOf('}', begin);
+                if (end < 0) {
+                    break;
+                }
+                String name = value.substring(begin + 2, end);
+                String replacement = get(name);
+                result.append(value, from, begin).append(replacement == null ? value.substring(begin, end + 1) : replacement);
+                from = end + 1;
+                begin = value.indexOf("${", from);
+            }
+            return result.append(value.substring(from)).toString();
+        }
+    }
+
     public static final String NBPROJECT_FOLDER = "nbproject";
+    public static final String PROJECT_FILE = "project.xml";
+    public static final String PROPERTIES_FILE = "project.properties";
+
+    private static final String FOREIGN_PROJECT_ELEMENT = "foreign-project";
+    private static final String CLASSPATH_PROPERTY = "javac.classpath";
+    private static final String PROJECT_PROPERTY_PREFIX = "project.";
+    private static final String REFERENCE_PREFIX = "${reference.";
 
     /**
      * Creates a new {@link NetBeansProject} for the specified folder.
-     * 
+     *
      * @param projectFolder THe project's folder.
+     * @param registry      The registry the project belongs to.
      */
-    NetBeansProject(File projectFolder) {
-        super(projectFolder);
-        // TODO
-        throw new UnsupportedOperationException("NetBeans projects are not yet supported!");
+    NetBeansProject(Path projectFolder, ProjectRegistry registry) {
+        super(projectFolder, registry);
+        final Path nbproject = projectFolder.resolve(NBPROJECT_FOLDER);
+        addDescriptorFile(nbproject.resolve(PROJECT_FILE));
+        addDescriptorFile(nbproject.resolve(PROPERTIES_FILE));
+        try {
+            final Path folder = projectFolder.toRealPath();
+            final PropertyExpander properties = new PropertyExpander(readProperties(nbproject.resolve(PROPERTIES_FILE)));
+            for (String foreignProject : readForeignProjects(nbproject.resolve(PROJECT_FILE))) {
+                String location = properties.get(PROJECT_PROPERTY_PREFIX + foreignProject);
+                if (location != null) {
+                    addDependency(Dependency.KIND_SRC, resolve(folder, location));
+                }
+            }
+            final String classpath = properties.getRaw(CLASSPATH_PROPERTY);
+            for (String entry : classpath.split("[:;]")) {
+                entry = entry.trim();
+                // the references to other projects were already added, the undefined ones, like the IDE libraries, cannot be resolved
+                if (entry.isEmpty() || entry.startsWith(REFERENCE_PREFIX)) {
+                    continue;
+                }
+                String location = properties.expand(entry);
+                if (!location.contains("${")) {
+                    addDependency(Dependency.KIND_LIB, resolve(folder, location));
+                }
+            }
+        } catch (IOException | InvalidPathException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static List<String> readForeignProjects(Path projectFile) throws IOException {
+        final List<String> names = new ArrayList<>();
+        if (!Files.isRegularFile(projectFile)) {
+            return names;
+        }
+        XmlFiles.read(projectFile, reader -> {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamReader.START_ELEMENT && FOREIGN_PROJECT_ELEMENT.equals(reader.getLocalName())) {
+                    names.add(XmlFiles.readText(reader));
+                }
+            }
+        });
+        return names;
+    }
+
+    private static Properties readProperties(Path propertiesFile) throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(propertiesFile)) {
+            properties.load(input);
+        } catch (NoSuchFileException e) {
+            // a project without dependencies
+        }
+        return properties;
+    }
+
+    // the paths are relative to the project folder, the separator is '/' even inside zip archives
+    private static Path resolve(Path folder, String location) {
+        return folder.resolve(location.replace('\\', '/')).normalize();
     }
 }
@@ -1,6 +1,7 @@
 package br.com.staroski.tools.analysis;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Set;
 
 /**
@@ -18,7 +19,8 @@ public interface Project extends Comparable<Project> {
     Set<Dependency> getAllDependencies();
 
     /**
-     * Get the directory of this {@link Project}.
+     * Get the directory of this {@link Project}.<br>
+     * For projects inside an archive the {@link File} cannot be read, see {@link #getPath()}.
      */
     File getDirectory();
 
@@ -32,11 +34,29 @@ public interface Project extends Comparable<Project> {
      */
     Metrics getMetrics();
 
+    /**
+     * Tells if other projects can be found inside the directory of this {@link Project}, like the modules of a Maven aggregator, so the scan goes on into
+     * it and the sources of the nested projects are not counted as sources of this one.
+     */
+    boolean hasNestedProjects();
+
+    /**
+     * Tells if this {@link Project} is a component with code of its own.<br>
+     * A project that only aggregates other projects, like a Maven POM with packaging <tt>pom</tt>, is not a component and is not part of the scan
+     * results.
+     */
+    boolean isComponent();
+
     /**
      * Get the name of this {@link Project}.
      */
     String getName();
 
+    /**
+     * Get the directory of this {@link Project} on its file system, that can be the default one or, for instance, a zip archive.
+     */
+    Path getPath();
+
     /**
      * Get all other {@link Project}s that are dependencies of this one.
      */
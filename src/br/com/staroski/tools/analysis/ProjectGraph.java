@@ -0,0 +1,210 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dependency graph of a set of {@link Project}s, resolved only once after the projects are discovered.<br>
+ * Each project has a dense <tt>int</tt> id, from <tt>0</tt> to <tt>size() - 1</tt> in the iteration order of the projects, and the forward and reverse
+ * adjacencies are stored as primitive CSR (compressed sparse row) arrays, so the analyzers traverse the graph without touching the file system, the
+ * {@link ProjectRegistry} or any collection of objects.<br>
+ * The dependencies on projects outside of the set are not edges of the graph, they are only {@link #getExternalDependencies(int) counted}.<br>
+ * Instances of this class are immutable.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ProjectGraph {
+
+    /**
+     * Builds the graph of the specified projects.
+     *
+     * @param projects The projects, the ids follow their iteration order.
+     * @return The {@link ProjectGraph}.
+     */
+    public static ProjectGraph of(Collection<? extends Project> projects) {
+        final List<Project> vertices = new ArrayList<>(projects);
+        final int size = vertices.size();
+        final Map<Project, Integer> ids = new HashMap<>(size * 2);
+        for (int id = 0; id < size; id++) {
+            ids.putIfAbsent(vertices.get(id), id);
+        }
+
+        // forward adjacency, the dependencies of each project in their sorted order
+        final int[] outStart = new int[size + 1];
+        final int[] external = new int[size];
+        int[] out = new int[Math.max(16, size * 4)];
+        int edges = 0;
+        for (int id = 0; id < size; id++) {
+            outStart[id] = edges;
+            for (Project dependency : vertices.get(id).getProjectDependencies()) {
+                Integer target = ids.get(dependency);
+                if (target == null) {
+                    external[id]++;
+                    continue;
+                }
+                if (edges == out.length) {
+                    out = Arrays.copyOf(out, edges * 2);
+                }
+                out[edges++] = target;
+            }
+        }
+        outStart[size] = edges;
+        return of(vertices, ids, outStart, Arrays.copyOf(out, edges), external);
+    }
+
+    /**
+     * Builds the graph of the specified projects from an adjacency already resolved, without reading their dependencies.
+     *
+     * @param projects The projects, the ids are their indexes.
+     * @param outStart The index in <tt>out</tt> of the first dependency of each project, plus the number of dependencies at the end.
+     * @param out      The ids of the dependencies of all projects.
+     * @return The {@link ProjectGraph}, without external dependencies.
+     */
+    static ProjectGraph of(List<Project> projects, int[] outStart, int[] out) {
+        final int size = projects.size();
+        final Map<Project, Integer> ids = new HashMap<>(size * 2);
+        for (int id = 0; id < size; id++) {
+            ids.putIfAbsent(projects.get(id), id);
+        }
+        return of(new ArrayList<>(projects), ids, outStart, out, new int[size]);
+    }
+
+    private static ProjectGraph of(List<Project> vertices, Map<Project, Integer> ids, int[] outStart, int[] out, int[] external) {
+        final int size = vertices.size();
+        final int edges = out.length;
+
+        // reverse adjacency by counting sort of the targets, the predecessors end up sorted by id
+        final int[] inStart = new int[size + 1];
+        for (int i = 0; i < edges; i++) {
+            inStart[out[i] + 1]++;
+        }
+        for (int id = 0; id < size; id++) {
+            inStart[id + 1] += inStart[id];
+        }
+        final int[] in = new int[edges];
+        final int[] next = Arrays.copyOf(inStart, size);
+        for (int source = 0; source < size; source++) {
+            for (int i = outStart[source]; i < outStart[source + 1]; i++) {
+                in[next[out[i]]++] = source;
+            }
+        }
+        return new ProjectGraph(vertices, ids, outStart, out, inStart, in, external);
+    }
+
+    /**
+     * Builds the graph of the specified projects and of all projects they depend on, directly or indirectly.
+     *
+     * @param roots The projects where the graph starts, they get the first ids.
+     * @return The {@link ProjectGraph}.
+     */
+    public static ProjectGraph reachableFrom(Collection<? extends Project> roots) {
+        final Set<Project> reachable = new LinkedHashSet<>(roots);
+        final Deque<Project> pending = new ArrayDeque<>(reachable);
+        while (!pending.isEmpty()) {
+            for (Project dependency : pending.poll().getProjectDependencies()) {
+                if (reachable.add(dependency)) {
+                    pending.add(dependency);
+                }
+            }
+        }
+        return of(reachable);
+    }
+
+    private final List<Project> projects;
+    private final Map<Project, Integer> ids;
+    private final int[] outStart;
+    private final int[] out;
+    private final int[] inStart;
+    private final int[] in;
+    private final int[] external;
+
+    private ProjectGraph(List<Project> projects, Map<Project, Integer> ids, int[] outStart, int[] out, int[] inStart, int[] in, int[] external) {
+        this.projects = Collections.unmodifiableList(projects);
+        this.ids = ids;
+        this.outStart = outStart;
+        this.out = out;
+        this.inStart = inStart;
+        this.in = in;
+        this.external = external;
+    }
+
+    /**
+     * Returns the number of edges, that is, of dependencies between projects of the graph.
+     */
+    public int getEdgeCount() {
+        return out.length;
+    }
+
+    /**
+     * Returns the number of dependencies of the specified project on projects that are not part of the graph.
+     */
+    public int getExternalDependencies(int id) {
+        return external[id];
+    }
+
+    /**
+     * Returns the id of the specified project or <tt>-1</tt> if it is not part of the graph.
+     */
+    public int getId(Project project) {
+        final Integer id = ids.get(project);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the number of projects of the graph that depend on the specified one.
+     */
+    public int getInDegree(int id) {
+        return inStart[id + 1] - inStart[id];
+    }
+
+    /**
+     * Returns the number of projects of the graph the specified one depends on.
+     */
+    public int getOutDegree(int id) {
+        return outStart[id + 1] - outStart[id];
+    }
+
+    /**
+     * Returns the <tt>index</tt>-th project, from <tt>0</tt> to <tt>getInDegree(id) - 1</tt>, that depends on the specified one.
+     */
+    public int getPredecessor(int id, int index) {
+        return in[inStart[id] + index];
+    }
+
+    /**
+     * Returns the project with the specified id.
+     */
+    public Project getProject(int id) {
+        return projects.get(id);
+    }
+
+    /**
+     * Returns the projects of the graph, the index of each project is its id.
+     */
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    /**
+     * Returns the <tt>index</tt>-th project, from <tt>0</tt> to <tt>getOutDegree(id) - 1</tt>, the specified one depends on.
+     */
+    public int getSuccessor(int id, int index) {
+        return out[outStart[id] + index];
+    }
+
+    /**
+     * Returns the number of projects of the graph.
+     */
+    public int size() {
+        return projects.size();
+    }
+}
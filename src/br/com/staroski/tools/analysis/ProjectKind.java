@@ -0,0 +1,163 @@
+package br.com.staroski.tools.analysis;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The kinds of {@link Project} that can be detected in a directory.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+enum ProjectKind {
+
+    ECLIPSE(EclipseProject.PROJECT_FILE, EclipseProject.CLASSPATH_FILE) {
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            return listing.hasFile(EclipseProject.PROJECT_FILE) && listing.hasFile(EclipseProject.CLASSPATH_FILE);
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new EclipseProject(directory, registry);
+        }
+    },
+
+    NETBEANS(NetBeansProject.PROJECT_FILE, NetBeansProject.PROPERTIES_FILE) {
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            return listing.hasDirectory(NetBeansProject.NBPROJECT_FOLDER);
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new NetBeansProject(directory, registry);
+        }
+    },
+
+    MAVEN(MavenProject.POM_FILE) {
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            return listing.hasFile(MavenProject.POM_FILE);
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new MavenProject(directory, registry);
+        }
+    },
+
+    GRADLE(GradleProject.BUILD_FILES[0], GradleProject.BUILD_FILES[1], GradleWorkspace.SETTINGS_FILES[0], GradleWorkspace.SETTINGS_FILES[1]) {
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            for (String descriptor : getDescriptors()) {
+                if (listing.hasFile(descriptor)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new GradleProject(directory, registry);
+        }
+    },
+
+    BAZEL(BazelProject.BUILD_FILES[0], BazelProject.BUILD_FILES[1]) {
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            for (String descriptor : getDescriptors()) {
+                if (listing.hasFile(descriptor)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new BazelProject(directory, registry);
+        }
+    },
+
+    IDEA(IdeaWorkspace.MODULES_FILE) {
+
+        @Override
+        boolean describes(String fileName) {
+            return super.describes(fileName) || fileName.endsWith(IdeaWorkspace.MODULE_EXTENSION);
+        }
+
+        @Override
+        boolean matches(DirectoryListing listing) {
+            if (listing.hasFileEndingWith(IdeaWorkspace.MODULE_EXTENSION)) {
+                return true;
+            }
+            // a folder only opened in the IDE has an .idea folder without modules, it is not a workspace
+            return listing.hasDirectory(IdeaWorkspace.IDEA_FOLDER)
+                    && Files.isRegularFile(listing.getDirectory().resolve(IdeaWorkspace.IDEA_FOLDER).resolve(IdeaWorkspace.MODULES_FILE));
+        }
+
+        @Override
+        Project newProject(Path directory, ProjectRegistry registry) {
+            return new IdeaProject(directory, registry);
+        }
+    };
+
+    /**
+     * Detects the kind of project in a directory, the constants are tested in declaration order.
+     *
+     * @param listing The listing of the directory.
+     * @return The {@link ProjectKind} or <tt>null</tt> if the directory is not a project folder.
+     */
+    static ProjectKind of(DirectoryListing listing) {
+        for (ProjectKind kind : values()) {
+            if (kind.matches(listing)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells if the specified file name is the name of a file that describes a project, like its dependencies.
+     */
+    static boolean isDescriptor(String fileName) {
+        for (ProjectKind kind : values()) {
+            if (kind.describes(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final String[] descriptors;
+
+    private ProjectKind(String... descriptors) {
+        this.descriptors = descriptors;
+    }
+
+    /**
+     * Tells if the specified file name is the name of a file that describes a project of this kind.
+     */
+    boolean describes(String fileName) {
+        for (String descriptor : descriptors) {
+            if (descriptor.equals(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String[] getDescriptors() {
+        return descriptors.clone();
+    }
+
+    abstract boolean matches(DirectoryListing listing);
+
+    abstract Project newProject(Path directory, ProjectRegistry registry);
+}
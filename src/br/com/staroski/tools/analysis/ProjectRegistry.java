@@ -0,0 +1,243 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Project} instances of an analysis session, one instance per project directory.<br>
+ * Every {@link Project} belongs to the registry that created it and its {@link Dependency dependencies} are resolved by the same registry, so analyses of
+ * different repositories running in the same JVM never share or clear each other's projects.<br>
+ * Instances of this class are thread-safe, each project is created only once even when many threads ask for it concurrently.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ProjectRegistry {
+
+    // projects by its canonical directory, paths of different file systems are never equal
+    // each entry is a placeholder completed by the thread that creates the project, the others wait for it
+    private final Map<Path, CompletableFuture<Project>> projects = new ConcurrentHashMap<>();
+
+    // the POMs parsed for the Maven projects, shared by all of them
+    private final MavenReactor mavenReactor = new MavenReactor();
+
+    // the settings parsed for the Gradle projects, shared by all of them
+    private final GradleWorkspace gradleWorkspace = new GradleWorkspace();
+
+    // the package tables of the Bazel projects, shared by all of them
+    private final BazelWorkspace bazelWorkspace = new BazelWorkspace();
+
+    // the modules and libraries of the IntelliJ IDEA projects, shared by all of them
+    private final IdeaWorkspace ideaWorkspace = new IdeaWorkspace();
+
+    // the dependencies of all projects, each artifact is represented by a single instance
+    private final DependencyPool dependencyPool = new DependencyPool(this);
+
+    // the real path of an existing directory, a directory that no longer exists is identified by its normalized path
+    static Path keyOf(Path directory) throws IOException {
+        try {
+            return directory.toRealPath();
+        } catch (NoSuchFileException e) {
+            return directory.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Gets the {@link Project} instance for the specified directory, creating it on the first call.
+     *
+     * @param directory The projects's directory.
+     * @return A {@link Project} instance.
+     * @throws IOException              if some IO exception occurs.
+     * @throws IllegalArgumentException If the specified directory is not a project folder.
+     */
+    public Project get(File directory) throws IOException {
+        return get(directory.toPath());
+    }
+
+    /**
+     * Gets the {@link Project} instance for the specified directory, creating it on the first call.<br>
+     * The directory can be on any file system, for instance, inside a zip archive.
+     *
+     * @param directory The projects's directory.
+     * @return A {@link Project} instance.
+     * @throws IOException              if some IO exception occurs.
+     * @throws IllegalArgumentException If the specified directory is not a project folder.
+     */
+    public Project get(Path directory) throws IOException {
+        final Project project = find(directory);
+        if (project == null) {
+            throw new IllegalArgumentException("\"" + directory + "\" is not a valid project folder");
+        }
+        return project;
+    }
+
+    /**
+     * Discards the {@link Project} instance of the specified directory and creates a new one.<br>
+     * The project dependencies already resolved by the projects that depend on it, or on its directory, are discarded too, so they resolve to the new
+     * instance. The other projects keep theirs.
+     *
+     * @param directory The projects's directory.
+     * @return The new {@link Project} instance or <tt>null</tt> if the directory is no longer a project folder.
+     * @throws IOException if some IO exception occurs.
+     */
+    public Project reload(File directory) throws IOException {
+        return reload(directory.toPath());
+    }
+
+    /**
+     * Discards the {@link Project} instance of the specified directory and creates a new one.<br>
+     * The project dependencies already resolved by the projects that depend on it, or on its directory, are discarded too, so they resolve to the new
+     * instance. The other projects keep theirs.
+     *
+     * @param directory The projects's directory.
+     * @return The new {@link Project} instance or <tt>null</tt> if the directory is no longer a project folder.
+     * @throws IOException if some IO exception occurs.
+     */
+    public Project reload(Path directory) throws IOException {
+        final CompletableFuture<Project> removed = projects.remove(keyOf(directory));
+        final Project old = removed == null ? null : removed.getNow(null);
+        mavenReactor.invalidate(directory);
+        gradleWorkspace.invalidate(directory);
+        bazelWorkspace.invalidate();
+        ideaWorkspace.invalidate(directory);
+        final Path normalized = directory.toAbsolutePath().normalize();
+        for (CompletableFuture<Project> created : projects.values()) {
+            final Project project = created.getNow(null);
+            if (project instanceof AbstractProject && ((AbstractProject) project).mayDependOn(old, normalized)) {
+                ((AbstractProject) project).clearProjectDependencies();
+            }
+        }
+        try {
+            return get(directory);
+        } catch (IllegalArgumentException e) {
+            return null; // deleted or not a project folder anymore
+        }
+    }
+
+    /**
+     * Returns the Bazel workspaces shared by the {@link BazelProject}s of this registry.
+     */
+    BazelWorkspace getBazelWorkspace() {
+        return bazelWorkspace;
+    }
+
+    /**
+     * Returns the {@link Dependency} instances shared by the projects of this registry.
+     */
+    DependencyPool getDependencyPool() {
+        return dependencyPool;
+    }
+
+    /**
+     * Returns the IntelliJ IDEA workspaces shared by the {@link IdeaProject}s of this registry.
+     */
+    IdeaWorkspace getIdeaWorkspace() {
+        return ideaWorkspace;
+    }
+
+    /**
+     * Returns the Gradle settings shared by the {@link GradleProject}s of this registry.
+     */
+    GradleWorkspace getGradleWorkspace() {
+        return gradleWorkspace;
+    }
+
+    /**
+     * Returns the Maven model shared by the {@link MavenProject}s of this registry.
+     */
+    MavenReactor getMavenReactor() {
+        return mavenReactor;
+    }
+
+    /**
+     * Gets the {@link Project} instance for the specified directory, creating it on the first call, like {@link #get(Path)} but without exceptions for
+     * the directories that are not project folders.
+     *
+     * @param directory The projects's directory.
+     * @return A {@link Project} instance or <tt>null</tt> if the directory doesn't exist or is not a project folder.
+     * @throws IOException if some IO exception occurs.
+     */
+    Project find(Path directory) throws IOException {
+        final Path path = keyOf(directory);
+        final CompletableFuture<Project> created = projects.get(path);
+        if (created != null) {
+            return join(created);
+        }
+        DirectoryListing listing = null;
+        try {
+            listing = DirectoryListing.read(path);
+        } catch (NoSuchFileException | NotDirectoryException e) {
+            // not a directory, handled below
+        }
+        ProjectKind kind = listing == null ? null : listing.getProjectKind();
+        if (kind == null && listing != null && ideaWorkspace.getLayout(path) != null && ideaWorkspace.isModuleFolder(path)) {
+            kind = ProjectKind.IDEA; // a module whose .iml is kept in another folder
+        }
+        return kind == null ? null : get(path, directory, kind, null);
+    }
+
+    /**
+     * Gets a {@link Project} instance for a directory whose {@link ProjectKind} is already known.
+     */
+    Project get(Path directory, ProjectKind kind) throws IOException {
+        return get(keyOf(directory), directory, kind, null);
+    }
+
+    /**
+     * Gets a {@link Project} instance for a directory whose {@link ProjectKind} is already known, a new instance is created by the specified
+     * {@link ScanIndex}, that reuses the descriptors read by a previous scan.
+     *
+     * @param index The scan index, <tt>null</tt> means the descriptors are always read.
+     */
+    Project get(Path directory, ProjectKind kind, ScanIndex index) throws IOException {
+        return get(keyOf(directory), directory, kind, index);
+    }
+
+    private Project get(Path key, Path directory, ProjectKind kind, ScanIndex index) throws IOException {
+        // the placeholder is published first and the project is created outside of the map's locks, so reading the descriptors of a project never
+        // blocks the other directories and can look up other projects of the registry
+        CompletableFuture<Project> created = projects.get(key);
+        if (created == null) {
+            final CompletableFuture<Project> placeholder = new CompletableFuture<>();
+            created = projects.putIfAbsent(key, placeholder);
+            if (created == null) {
+                try {
+                    placeholder.complete(index == null ? kind.newProject(directory, this) : index.newProject(directory, kind, this));
+                } catch (IOException | RuntimeException | Error e) {
+                    // the next call tries again
+                    projects.remove(key, placeholder);
+                    placeholder.completeExceptionally(e);
+                    throw e;
+                }
+                created = placeholder;
+            }
+        }
+        return join(created);
+    }
+
+    // waits for a project being created by another thread, rethrowing its failure
+    private static Project join(CompletableFuture<Project> created) {
+        try {
+            return created.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw e;
+        }
+    }
+}
@@ -17,5 +17,10 @@ public interface ProjectScanListener {
 
     public void onDirectoryExit(File directory);
 
+    /**
+     * Called for each directory pruned by the {@link ScanPolicy}, its subtree is never listed.
+     */
+    public void onDirectoryPruned(File directory);
+
     public void onProjectScanFinished(File directory);
 }
@@ -0,0 +1,399 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import br.com.staroski.tools.analysis.DirectoryListing.Subdirectory;
+
+/**
+ * Recursively scans a directory tree for {@link Project}s.<br>
+ * Each directory is listed only once through a {@link DirectoryListing}, symbolic links are followed but never scanned twice.<br>
+ * The directories ignored by the {@link ScanPolicy} are pruned before being listed, by default {@link ScanPolicy#defaults()} is used.<br>
+ * By default the scan runs on the calling thread, use {@link #withParallelism(int)} to scan the subdirectories in parallel with a {@link ForkJoinPool}.<br>
+ * <br>
+ * When scanning in parallel the {@link ProjectScanListener} is never called concurrently and its callbacks keep the following order:
+ * <ul>
+ * <li><tt>onProjectScanStarted</tt> is the first callback and <tt>onProjectScanFinished</tt> is the last one;</li>
+ * <li><tt>onDirectoryEnter</tt> of a directory happens before any callback of its subdirectories, pruned subdirectories and projects;</li>
+ * <li><tt>onDirectoryExit</tt> of a directory happens after all callbacks of its subdirectories and projects.</li>
+ * </ul>
+ * The order between sibling directories is not defined.<br>
+ * <br>
+ * Use {@link #stream(File)} to process each project as soon as it is found, while the rest of the tree is still being scanned.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ProjectScanner {
+
+    // serializes the callbacks fired by the worker threads of a parallel scan
+    private static final class SynchronizedScanListener implements ProjectScanListener {
+
+        private final ProjectScanListener listener;
+
+        SynchronizedScanListener(ProjectScanListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void onDirectoryEnter(File directory) {
+            listener.onDirectoryEnter(directory);
+        }
+
+        @Override
+        public synchronized void onDirectoryExit(File directory) {
+            listener.onDirectoryExit(directory);
+        }
+
+        @Override
+        public synchronized void onDirectoryPruned(File directory) {
+            listener.onDirectoryPruned(directory);
+        }
+
+        @Override
+        public synchronized void onProjectFound(Project project) {
+            listener.onProjectFound(project);
+        }
+
+        @Override
+        public synchronized void onProjectScanFinished(File directory) {
+            listener.onProjectScanFinished(directory);
+        }
+
+        @Override
+        public synchronized void onProjectScanStarted(File directory) {
+            listener.onProjectScanStarted(directory);
+        }
+    }
+
+    private final class ScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final boolean root;
+        private final ScanPolicy policy;
+        private final ProjectRegistry registry;
+        private final Queue<Project> projects;
+        private final Set<Object> visited;
+        private final ProjectScanListener listener;
+
+        ScanTask(Path directory, boolean root, ScanPolicy policy, ProjectRegistry registry, Queue<Project> projects, Set<Object> visited,
+                ProjectScanListener listener) {
+            this.directory = directory;
+            this.root = root;
+            this.policy = policy;
+            this.registry = registry;
+            this.projects = projects;
+            this.visited = visited;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            final ScanIndex.Entry entry;
+            final ScanPolicy innerPolicy;
+            try {
+                entry = describe(directory);
+                final ProjectKind kind = kindOf(entry, directory, registry);
+                if (!root && kind != null) {
+                    Project project = registry.get(directory, kind, index);
+                    if (!addProject(project, projects, listener)) {
+                        return;
+                    }
+                }
+                innerPolicy = policy.enter(directory, entry.hasIgnoreFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final File folder = Projects.toFile(directory);
+            listener.onDirectoryEnter(folder);
+            List<ScanTask> subtasks = new ArrayList<>();
+            for (Subdirectory subdirectory : entry.getSubdirectories()) {
+                if (innerPolicy.isIgnored(subdirectory.getPath(), true)) {
+                    listener.onDirectoryPruned(Projects.toFile(subdirectory.getPath()));
+                } else if (visited.add(subdirectory.getKey())) {
+                    subtasks.add(new ScanTask(subdirectory.getPath(), false, innerPolicy, registry, projects, visited, listener));
+                }
+            }
+            invokeAll(subtasks);
+            listener.onDirectoryExit(folder);
+        }
+    }
+
+    static final ProjectScanListener EMPTY_LISTENER = new ProjectScanListener() {
+
+        @Override
+        public void onDirectoryEnter(File directory) {}
+
+        @Override
+        public void onDirectoryExit(File directory) {}
+
+        @Override
+        public void onDirectoryPruned(File directory) {}
+
+        @Override
+        public void onProjectFound(Project project) {}
+
+        @Override
+        public void onProjectScanFinished(File directory) {}
+
+        @Override
+        public void onProjectScanStarted(File directory) {}
+    };
+
+    // how many projects and callbacks a streaming scan runs ahead of its consumer
+    private static final int STREAM_CAPACITY = 256;
+
+    private ProjectScanListener listener = EMPTY_LISTENER;
+    private int parallelism = 1;
+    private ScanIndex index;
+    private ScanPolicy policy = ScanPolicy.defaults();
+    private ProjectRegistry registry;
+
+    /**
+     * Recursively scans the specified directory tree for projects.
+     *
+     * @param directory The directory tree.
+     * @return A {@link Set} of {@link Project}
+     * @throws IOException If some IO error occurs.
+     */
+    public Set<Project> scan(File directory) throws IOException {
+        return scan(directory.toPath());
+    }
+
+    /**
+     * Recursively scans the specified directory tree for projects.<br>
+     * The tree can be on any file system, for instance, inside a zip archive opened with
+     * {@link java.nio.file.FileSystems#newFileSystem(Path) FileSystems.newFileSystem(Path)}, the files are read without being extracted.
+     *
+     * @param directory The directory tree.
+     * @return A {@link Set} of {@link Project}
+     * @throws IOException If some IO error occurs.
+     */
+    public Set<Project> scan(Path directory) throws IOException {
+        final Path root = checkDirectory(directory);
+        final File folder = Projects.toFile(directory);
+
+        final ProjectRegistry session = registry == null ? new ProjectRegistry() : registry;
+        if (index != null) {
+            index.reset();
+        }
+        // the modules of an IDEA workspace may have no project file in their folders, they are known once the workspace is read
+        session.getIdeaWorkspace().getLayout(root);
+
+        System.out.print("Scanning projects in \"" + root + "\"...");
+        listener.onProjectScanStarted(folder);
+
+        // keys of the directories already scanned, protects against symbolic link loops
+        final Set<Object> visited = ConcurrentHashMap.newKeySet();
+        visited.add(DirectoryListing.keyOf(root, Files.readAttributes(root, BasicFileAttributes.class)));
+
+        Set<Project> projects = new TreeSet<>();
+        if (parallelism > 1) {
+            projects.addAll(scanInParallel(root, session, visited));
+        } else {
+            scanSequentially(root, true, policy, session, projects, visited);
+        }
+
+        System.out.println("    Done!");
+        listener.onProjectScanFinished(folder);
+        return projects;
+    }
+
+    /**
+     * Scans the specified directory tree on a background thread, publishing each project as soon as it is found.<br>
+     * The scan runs ahead of the consumer by a bounded number of projects, then it waits for the consumer to catch up.<br>
+     * The {@link ProjectScanListener} callbacks are called by the thread consuming the stream, just before the project they refer to is returned.<br>
+     * <br>
+     * The stream must be closed, like in a <tt>try-with-resources</tt>, closing it before its end stops the scan.<br>
+     * An {@link IOException} of the scan is thrown by the consuming operation wrapped in an {@link java.io.UncheckedIOException UncheckedIOException}.
+     *
+     * @param directory The directory tree.
+     * @return A sequential {@link Stream} of the {@link Project}s found, in the order they are found.
+     * @throws IOException If the directory cannot be read.
+     */
+    public Stream<Project> stream(File directory) throws IOException {
+        return stream(directory.toPath());
+    }
+
+    /**
+     * Scans the specified directory tree on a background thread, publishing each project as soon as it is found.<br>
+     * The tree can be on any file system, see {@link #scan(Path)} and {@link #stream(File)}.
+     *
+     * @param directory The directory tree.
+     * @return A sequential {@link Stream} of the {@link Project}s found, in the order they are found.
+     * @throws IOException If the directory cannot be read.
+     */
+    public Stream<Project> stream(Path directory) throws IOException {
+        checkDirectory(directory);
+        final ScanPublisher publisher = new ScanPublisher(listener, STREAM_CAPACITY);
+        final ProjectScanner producer = new ProjectScanner()
+                .withListener(publisher)
+                .withParallelism(parallelism)
+                .withIndex(index)
+                .withPolicy(policy)
+                .withRegistry(registry);
+        final Runnable process = () -> {
+            try {
+                producer.scan(directory);
+                publisher.finish();
+            } catch (CancellationException e) {
+                // the stream was closed before the end of the scan
+            } catch (IOException | RuntimeException | Error e) {
+                publisher.fail(e);
+            }
+        };
+        final Thread thread = new Thread(process, "ProjectScannerThread");
+        thread.setDaemon(true);
+        thread.start();
+        return StreamSupport.stream(publisher, false).onClose(() -> {
+            publisher.cancel();
+            thread.interrupt();
+        });
+    }
+
+    /**
+     * Sets the {@link ScanIndex} used to skip the listing of directories and the reading of project descriptors that didn't change since the previous
+     * scan.<br>
+     * The index is updated by the scan but it's up to the caller to {@link ScanIndex#save() save} it.
+     *
+     * @param index The scan index, <tt>null</tt> means every directory is listed and every project is read.
+     * @return This {@link ProjectScanner}.
+     */
+    public ProjectScanner withIndex(ScanIndex index) {
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ProjectScanListener} to be notified during the scan.
+     *
+     * @param listener The scan listener, <tt>null</tt> means no listener.
+     * @return This {@link ProjectScanner}.
+     */
+    public ProjectScanner withListener(ProjectScanListener listener) {
+        this.listener = listener == null ? EMPTY_LISTENER : listener;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ProjectRegistry} where the projects found are created.
+     *
+     * @param registry The project registry, <tt>null</tt> means each scan creates its projects in a new registry.
+     * @return This {@link ProjectScanner}.
+     */
+    public ProjectScanner withRegistry(ProjectRegistry registry) {
+        this.registry = registry;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ScanPolicy} that decides which directories are pruned.<br>
+     * The {@value ScanPolicy#IGNORE_FILE} files found in the tree are applied on top of it.
+     *
+     * @param policy The scan policy, <tt>null</tt> means {@link ScanPolicy#none()}.
+     * @return This {@link ProjectScanner}.
+     */
+    public ProjectScanner withPolicy(ScanPolicy policy) {
+        this.policy = policy == null ? ScanPolicy.none() : policy;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to scan the directory tree.
+     *
+     * @param parallelism The number of threads, <tt>1</tt> scans on the calling thread, zero or less uses one thread per available processor.
+     * @return This {@link ProjectScanner}.
+     */
+    public ProjectScanner withParallelism(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return this;
+    }
+
+    // adds a component to the projects found, returns true if the scan goes on into the project's directory
+    private static boolean addProject(Project project, Collection<Project> projects, ProjectScanListener listener) {
+        if (project.isComponent()) {
+            projects.add(project);
+            listener.onProjectFound(project);
+        }
+        return project.hasNestedProjects();
+    }
+
+    private static Path checkDirectory(Path directory) throws IOException {
+        directory = Objects.requireNonNull(directory, "Directory cannot be null!");
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("\"" + directory.toAbsolutePath().normalize() + "\" is not a directory!");
+        }
+        return directory.toRealPath();
+    }
+
+    private static ProjectKind kindOf(ScanIndex.Entry entry, Path directory, ProjectRegistry registry) {
+        final ProjectKind kind = entry.getProjectKind();
+        if (kind == null && registry.getIdeaWorkspace().isModuleFolder(directory)) {
+            return ProjectKind.IDEA;
+        }
+        return kind;
+    }
+
+    private ScanIndex.Entry describe(Path directory) throws IOException {
+        if (index != null) {
+            return index.describe(directory);
+        }
+        return ScanIndex.Entry.of(DirectoryListing.read(directory), 0, -1, 0);
+    }
+
+    private Collection<Project> scanInParallel(Path root, ProjectRegistry registry, Set<Object> visited) throws IOException {
+        final Queue<Project> projects = new ConcurrentLinkedQueue<>();
+        final ProjectScanListener synchronizedListener = new SynchronizedScanListener(listener);
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ScanTask(root, true, policy, registry, projects, visited, synchronizedListener));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        return projects;
+    }
+
+    private void scanSequentially(Path directory, boolean root, ScanPolicy policy, ProjectRegistry registry, Collection<Project> projects,
+            Set<Object> visited) throws IOException {
+        final ScanIndex.Entry entry = describe(directory);
+        final ProjectKind kind = kindOf(entry, directory, registry);
+        if (!root && kind != null) {
+            Project project = registry.get(directory, kind, index);
+            if (!addProject(project, projects, listener)) {
+                return;
+            }
+        }
+        final ScanPolicy innerPolicy = policy.enter(directory, entry.hasIgnoreFile());
+        final File folder = Projects.toFile(directory);
+        listener.onDirectoryEnter(folder);
+        for (Subdirectory subdirectory : entry.getSubdirectories()) {
+            if (innerPolicy.isIgnored(subdirectory.getPath(), true)) {
+                listener.onDirectoryPruned(Projects.toFile(subdirectory.getPath()));
+            } else if (visited.add(subdirectory.getKey())) {
+                scanSequentially(subdirectory.getPath(), false, innerPolicy, registry, projects, visited);
+            }
+        }
+        listener.onDirectoryExit(folder);
+    }
+}
@@ -2,12 +2,11 @@ package br.com.staroski.tools.analysis;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Utility class to obtain {@link Project} instances.
@@ -16,29 +15,12 @@ import java.util.TreeSet;
  */
 public final class Projects {
 
-    private static final ProjectScanListener EMPTY_LISTENER = new ProjectScanListener() {
-
-        @Override
-        public void onDirectoryEnter(File directory) {}
-
-        @Override
-        public void onDirectoryExit(File directory) {}
-
-        @Override
-        public void onProjectFound(Project project) {}
-
-        @Override
-        public void onProjectScanFinished(File directory) {}
-
-        @Override
-        public void onProjectScanStarted(File directory) {}
-    };
-
-    // cache to store projects by its directory
-    private static final Map<String, Project> directoryCache = new HashMap<>();
+    // the registry of the projects obtained through the static methods of this class
+    private static final ProjectRegistry DEFAULT_REGISTRY = new ProjectRegistry();
 
     /**
-     * Gets a {@link Project} instance for the specified directory.
+     * Gets a {@link Project} instance for the specified directory.<br>
+     * The instances returned by this method are shared by the whole JVM, use a {@link ProjectRegistry} to isolate an analysis.
      *
      * @param directory The projects's directory.
      * @return A {@link Project} instance.
@@ -46,25 +28,48 @@ public final class Projects {
      * @throws IllegalArgumentException If the specified directory is not a project folder.
      */
     public static Project get(File directory) throws IOException {
-        if (!Projects.isProjectFolder(directory)) {
-            throw new IllegalArgumentException("\"" + directory + "\" is not a valid project folder");
-        }
-        final String path = directory.getCanonicalPath();
-        // you are not crazy the following two 'if' are equal
-        // one 'if' before the synchronized block
-        // another 'if' after the synchronized block
-        // this is called double-checked locking
-        Project project = directoryCache.get(path);
-        if (project == null) {
-            synchronized (Projects.class) {
-                project = directoryCache.get(path);
-                if (project == null) {
-                    project = createProjectInstance(directory);
-                    directoryCache.put(path, project);
-                }
-            }
+        return DEFAULT_REGISTRY.get(directory);
+    }
+
+    /**
+     * Tells if the specified file describes a project, so a change on it requires the project to be {@link ProjectRegistry#reload(File) reloaded}.
+     *
+     * @param file The file.
+     * @return <tt>true</tt> if the file is a project descriptor, like an Eclipse <tt>.classpath</tt> or a Maven <tt>pom.xml</tt>.
+     */
+    public static boolean isDescriptor(Path file) {
+        final Path name = file.getFileName();
+        return name != null && ProjectKind.isDescriptor(name.toString());
+    }
+
+    /**
+     * Converts a {@link Path} to a {@link File}.<br>
+     * Paths of other file systems, like the ones of a zip archive, are converted to a {@link File} with the same path string, it can be displayed but not
+     * read, use the {@link Path} to read its content.
+     *
+     * @param path The path.
+     * @return The {@link File}.
+     */
+    public static File toFile(Path path) {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return path.toFile();
         }
-        return project;
+        return new File(path.toString());
+    }
+
+    /**
+     * Tells if the specified directory is a project folder.
+     *
+     * @param directory The directory.
+     * @return <tt>true</tt> if the directory is a project folder of any {@link Project} kind.
+     * @throws IOException If the directory cannot be read.
+     */
+    public static boolean isProjectFolder(Path directory) throws IOException {
+        return DirectoryListing.read(directory).getProjectKind() != null;
+    }
+
+    static ProjectRegistry getDefaultRegistry() {
+        return DEFAULT_REGISTRY;
     }
 
     /**
@@ -74,7 +79,7 @@ public final class Projects {
      * @return A CSV text containing the metrics of the projects.
      */
     public static String getMetricsCsv(Set<Project> projects) {
-        StringBuilder csv = new StringBuilder("Name,D,I,A,Na,Nc,Ce,Ca,Cycles");
+        StringBuilder csv = new StringBuilder("Name,D,I,A,Na,Nc,Ce,Ca,Cycles,Layer,Depth,TCe,TCa");
         final Locale en_US = new Locale.Builder().setLanguage("en").setRegion("US").build(); // default locale for double parsing
         for (Project project : projects) {
             Metrics m = project.getMetrics();
@@ -87,20 +92,25 @@ public final class Projects {
             int ce = m.getOutputDependencies();
             int ca = m.getInputDependencies();
             int cycles = m.getCycles().size();
-            csv.append(String.format(en_US, "%n%s,%s,%s,%s,%d,%d,%d,%d,%d", name, d, i, a, na, nc, ce, ca, cycles));
+            int layer = m.getLayer();
+            int depth = m.getDepth();
+            int tce = m.getTransitiveOutputDependencies();
+            int tca = m.getTransitiveInputDependencies();
+            csv.append(String.format(en_US, "%n%s,%s,%s,%s,%d,%d,%d,%d,%d,%d,%d,%d,%d", name, d, i, a, na, nc, ce, ca, cycles, layer, depth, tce, tca));
         }
         return csv.toString();
     }
 
     /**
-     * Recursively scans the specified directory tree for projects.
+     * Recursively scans the specified directory tree for projects.<br>
+     * Each scan creates its projects in a new {@link ProjectRegistry}.
      *
      * @param directory THe directory tree.
      * @return A {@link Set} of {@link Project}
      * @throws IOException If some IO error occurs.
      */
     public static Set<Project> scan(File directory) throws IOException {
-        return scan(directory, EMPTY_LISTENER);
+        return scan(directory, null);
     }
 
     /**
@@ -112,87 +122,46 @@ public final class Projects {
      * @throws IOException If some IO error occurs.
      */
     public static Set<Project> scan(File directory, ProjectScanListener listener) throws IOException {
-        directory = Objects.requireNonNull(directory, "Directory cannot be null!");
-        final String canonicalPath = directory.getCanonicalPath();
-        if (!directory.isDirectory()) {
-            throw new IllegalArgumentException("\"" + canonicalPath + "\" is not a directory!");
-        }
-        if (listener == null) {
-            listener = EMPTY_LISTENER;
-        }
-
-        directoryCache.clear();
-
-        System.out.print("Scanning projects in \"" + canonicalPath + "\"...");
-        listener.onProjectScanStarted(directory);
-
-        Set<Project> projects = scanRecursively(directory, listener);
-
-        System.out.println("    Done!");
-        listener.onProjectScanFinished(directory);
-        return projects;
-    }
-
-    private static Project createProjectInstance(File directory) throws IOException {
-        if (isEclipseProject(directory)) {
-            return new EclipseProject(directory);
-        }
-        if (isNetBeansProject(directory)) {
-            return new NetBeansProject(directory);
-        }
-        if (isMavenProject(directory)) {
-            return new MavenProject(directory);
-        }
-        throw new UnsupportedOperationException("Could not determine project kind for directory \"" + directory.getCanonicalPath() + "\"");
-    }
-
-    private static boolean isEclipseProject(File directory) {
-        File projectFile = new File(directory, EclipseProject.PROJECT_FILE);
-        File classpathFile = new File(directory, EclipseProject.CLASSPATH_FILE);
-        return projectFile.exists() && projectFile.isFile()
-                && classpathFile.exists() && classpathFile.isFile();
+        return scan(directory, listener, 1);
     }
 
-    private static boolean isMavenProject(File directory) {
-        File pomFile = new File(directory, MavenProject.POM_FILE);
-        return pomFile.exists() && pomFile.isFile();
-    }
-
-    private static boolean isNetBeansProject(File directory) {
-        File nbProjectDir = new File(directory, NetBeansProject.NBPROJECT_FOLDER);
-        return nbProjectDir.exists() && nbProjectDir.isDirectory();
+    /**
+     * Recursively scans the specified directory tree for projects.
+     *
+     * @param directory   The directory tree.
+     * @param listener    The scan listener.
+     * @param parallelism The number of threads used to scan the tree, see {@link ProjectScanner#withParallelism(int)}.
+     * @return A {@link Set} of {@link Project}
+     * @throws IOException If some IO error occurs.
+     */
+    public static Set<Project> scan(File directory, ProjectScanListener listener, int parallelism) throws IOException {
+        return new ProjectScanner()
+                .withListener(listener)
+                .withParallelism(parallelism)
+                .scan(directory);
     }
 
-    private static boolean isProjectFolder(File directory) {
-        if (!directory.isDirectory()) {
-            return false;
-        }
-        return isEclipseProject(directory)
-                || isNetBeansProject(directory)
-                || isMavenProject(directory);
+    /**
+     * Recursively scans the specified directory tree for projects, publishing each one as soon as it is found.
+     *
+     * @param directory The directory tree.
+     * @return A {@link Stream} of {@link Project}, it must be closed, see {@link ProjectScanner#stream(File)}.
+     * @throws IOException If the directory cannot be read.
+     */
+    public static Stream<Project> stream(File directory) throws IOException {
+        return new ProjectScanner().stream(directory);
     }
 
-    private static Set<Project> scanRecursively(File directory, ProjectScanListener listener) throws IOException {
-        assert listener != null;
-        listener.onDirectoryEnter(directory);
-        Set<Project> projects = new TreeSet<>();
-
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    if (isProjectFolder(file)) {
-                        Project project = Projects.get(file);
-                        projects.add(project);
-                        listener.onProjectFound(project);
-                    } else {
-                        projects.addAll(scanRecursively(file, listener));
-                    }
-                }
-            }
-        }
-        listener.onDirectoryExit(directory);
-        return projects;
+    /**
+     * Recursively scans the specified directory tree for projects, the tree may be inside an archive opened as a
+     * {@link java.nio.file.FileSystem FileSystem}.
+     *
+     * @param directory The directory tree.
+     * @return A {@link Set} of {@link Project}
+     * @throws IOException If some IO error occurs.
+     */
+    public static Set<Project> scan(Path directory) throws IOException {
+        return new ProjectScanner().scan(directory);
     }
 
     // non instantiable
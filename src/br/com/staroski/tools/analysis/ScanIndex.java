@@ -0,0 +1,528 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.staroski.tools.analysis.DirectoryListing.Subdirectory;
+
+/**
+ * An on-disk index of a previous {@link ProjectScanner} run.<br>
+ * For every directory scanned the index stores its modification time, a hash of its listing, the {@link ProjectKind} found in it, if it has a
+ * {@value ScanPolicy#IGNORE_FILE} file and its subdirectories.<br>
+ * When a directory still has the indexed modification time the next scan reuses the stored content instead of listing the directory again, so a re-scan of a
+ * mostly unchanged tree costs one <tt>stat</tt> per directory.<br>
+ * For every project found the index also stores the modification time and size of its descriptor files, like its build file and its parent POMs, with
+ * its name and dependencies, that are reused instead of parsing the descriptors again while none of them changed and no descriptor was added or removed
+ * in the directories above it, like a new settings file.<br>
+ * <br>
+ * The modification time of a directory only changes when its own entries change, that is why all directories are still visited. The kind of an IntelliJ
+ * IDEA workspace depends on the content of its <tt>.idea</tt> folder, so the modification time of the folder is checked too.<br>
+ * The directories are indexed by their path on the default file system and by their URI on the others, like a zip archive, so the directories of
+ * different file systems never share an entry.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ScanIndex {
+
+    /**
+     * The content of a scanned directory.
+     */
+    static final class Entry {
+
+        static Entry of(DirectoryListing listing, long modified, long ideaModified, long listed) {
+            final List<Subdirectory> subdirectories = listing.getSubdirectories();
+            final String[] names = new String[subdirectories.size()];
+            final String[] keys = new String[subdirectories.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = subdirectories.get(i).getPath().getFileName().toString();
+                keys[i] = subdirectories.get(i).getKey();
+            }
+            return new Entry(listing.getProjectKind(), listing.hasFile(ScanPolicy.IGNORE_FILE), subdirectories, names, keys, modified, ideaModified,
+                    listed, listing.getListingHash(), listing.getDescriptorHash());
+        }
+
+        private final ProjectKind projectKind;
+        private final boolean hasIgnoreFile;
+        // null for an entry read from the index file until it is resolved in the directory, the names are resolved on its file system
+        private final List<Subdirectory> subdirectories;
+        private final String[] subdirectoryNames;
+        private final String[] subdirectoryKeys;
+        private final long modified;
+        private final long ideaModified;
+        private final long listed;
+        private final long listingHash;
+        private final long descriptorHash;
+
+        private Entry(ProjectKind projectKind, boolean hasIgnoreFile, List<Subdirectory> subdirectories, String[] subdirectoryNames,
+                String[] subdirectoryKeys, long modified, long ideaModified, long listed, long listingHash, long descriptorHash) {
+            this.projectKind = projectKind;
+            this.hasIgnoreFile = hasIgnoreFile;
+            this.subdirectories = subdirectories;
+            this.subdirectoryNames = subdirectoryNames;
+            this.subdirectoryKeys = subdirectoryKeys;
+            this.modified = modified;
+            this.ideaModified = ideaModified;
+            this.listed = listed;
+            this.listingHash = listingHash;
+            this.descriptorHash = descriptorHash;
+        }
+
+        /**
+         * Returns the {@link ProjectKind} of the directory or <tt>null</tt> if it is not a project folder.
+         */
+        ProjectKind getProjectKind() {
+            return projectKind;
+        }
+
+        List<Subdirectory> getSubdirectories() {
+            return subdirectories;
+        }
+
+        /**
+         * Tells if the directory has a {@value ScanPolicy#IGNORE_FILE} file.
+         */
+        boolean hasIgnoreFile() {
+            return hasIgnoreFile;
+        }
+
+        // this entry with its subdirectories resolved in the specified directory
+        private Entry resolve(Path directory) {
+            if (subdirectories != null) {
+                return this;
+            }
+            final List<Subdirectory> resolved = new ArrayList<>(subdirectoryNames.length);
+            for (int i = 0; i < subdirectoryNames.length; i++) {
+                resolved.add(new Subdirectory(directory.resolve(subdirectoryNames[i]), subdirectoryKeys[i]));
+            }
+            return new Entry(projectKind, hasIgnoreFile, Collections.unmodifiableList(resolved), subdirectoryNames, subdirectoryKeys, modified,
+                    ideaModified, listed, listingHash, descriptorHash);
+        }
+    }
+
+    /**
+     * The descriptor files of a project found by a scan, with the name and the dependencies read from them.
+     */
+    private static final class Descriptor {
+
+        static Descriptor of(Path folder, ProjectKind kind, AbstractProject project, long read) throws IOException {
+            final List<Path> files = project.getDescriptorFiles();
+            final String[] paths = new String[files.size()];
+            final long[] modified = new long[paths.length];
+            final long[] sizes = new long[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                final long[] fingerprint = fingerprintOf(files.get(i));
+                paths[i] = encode(folder, files.get(i));
+                modified[i] = fingerprint[0];
+                sizes[i] = fingerprint[1];
+            }
+            final Set<Dependency> dependencies = project.getAllDependencies();
+            final String[] kinds = new String[dependencies.size()];
+            final String[] names = new String[kinds.length];
+            final String[] artifacts = new String[kinds.length];
+            int i = 0;
+            for (Dependency dependency : dependencies) {
+                kinds[i] = dependency.getKind();
+                names[i] = dependency.getName();
+                artifacts[i] = encode(folder, dependency.getPath());
+                i++;
+            }
+            return new Descriptor(kind, project.getName(), project.isComponent(), project.hasNestedProjects(), read, paths, modified, sizes, kinds, names,
+                    artifacts);
+        }
+
+        private final ProjectKind kind;
+        private final String name;
+        private final boolean component;
+        private final boolean nestedProjects;
+        private final long read;
+        private final String[] files;
+        private final long[] modified;
+        private final long[] sizes;
+        private final String[] dependencyKinds;
+        private final String[] dependencyNames;
+        private final String[] dependencyPaths;
+
+        private Descriptor(ProjectKind kind, String name, boolean component, boolean nestedProjects, long read, String[] files, long[] modified,
+                long[] sizes, String[] dependencyKinds, String[] dependencyNames, String[] dependencyPaths) {
+            this.kind = kind;
+            this.name = name;
+            this.component = component;
+            this.nestedProjects = nestedProjects;
+            this.read = read;
+            this.files = files;
+            this.modified = modified;
+            this.sizes = sizes;
+            this.dependencyKinds = dependencyKinds;
+            this.dependencyNames = dependencyNames;
+            this.dependencyPaths = dependencyPaths;
+        }
+
+        // the project rebuilt from this descriptor, null if a descriptor file changed or a path cannot be resolved anymore
+        Project newProject(Path folder, ProjectRegistry registry) throws IOException {
+            final Path[] descriptorFiles = new Path[files.length];
+            for (int i = 0; i < files.length; i++) {
+                descriptorFiles[i] = decode(folder, files[i]);
+                if (descriptorFiles[i] == null || read - modified[i] < RACY_INTERVAL_MILLIS && modified[i] >= 0) {
+                    return null;
+                }
+                final long[] fingerprint = fingerprintOf(descriptorFiles[i]);
+                if (fingerprint[0] != modified[i] || fingerprint[1] != sizes[i]) {
+                    return null;
+                }
+            }
+            final Path[] artifacts = new Path[dependencyPaths.length];
+            for (int i = 0; i < artifacts.length; i++) {
+                artifacts[i] = decode(folder, dependencyPaths[i]);
+                if (artifacts[i] == null) {
+                    return null;
+                }
+            }
+            final IndexedProject project = new IndexedProject(folder, kind, name, component, nestedProjects, registry);
+            for (Path file : descriptorFiles) {
+                project.addDescriptorFile(file);
+            }
+            final DependencyPool pool = registry.getDependencyPool();
+            for (int i = 0; i < artifacts.length; i++) {
+                project.addDependency(pool.intern(dependencyKinds[i], artifacts[i], dependencyNames[i]));
+            }
+            return project;
+        }
+    }
+
+    private static final String HEADER = "# staroski-architecture-tools scan index v3";
+    private static final String DIRECTORY_RECORD = "D";
+    private static final String PROJECT_RECORD = "P";
+    private static final String NO_KIND = "-";
+
+    // the prefixes of the paths stored by a project, a path of the project's file system or the URI of a path of another one
+    private static final char PATH_PREFIX = 'p';
+    private static final char URI_PREFIX = 'u';
+
+    // a directory modified this close to its listing may have changed again without changing its modification time
+    private static final long RACY_INTERVAL_MILLIS = 2000;
+
+    /**
+     * Loads the index stored in the specified file.<br>
+     * If the file doesn't exist or is not a valid index, an empty index is returned and the file will be created by {@link #save()}.
+     *
+     * @param file The index file.
+     * @return The {@link ScanIndex}.
+     */
+    public static ScanIndex load(File file) {
+        ScanIndex index = new ScanIndex(file);
+        if (file.isFile()) {
+            try {
+                index.read();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring invalid scan index \"" + file.getAbsolutePath() + "\": " + e.getMessage());
+                index.previous.clear();
+                index.previousProjects.clear();
+            }
+        }
+        return index;
+    }
+
+    // the path of a directory of the default file system, the URI of the others
+    private static String keyOf(Path directory) {
+        return directory.getFileSystem() == FileSystems.getDefault() ? directory.toString() : directory.toUri().toString();
+    }
+
+    // a path of the file system of the project folder is stored relative to it, so a moved tree keeps its index, the others by their URI, like the
+    // jars of the local repository of a project inside a zip archive
+    private static String encode(Path folder, Path path) {
+        if (path.getFileSystem() == folder.getFileSystem()) {
+            try {
+                return PATH_PREFIX + folder.toAbsolutePath().normalize().relativize(path.toAbsolutePath().normalize()).toString();
+            } catch (IllegalArgumentException e) {
+                return PATH_PREFIX + path.toAbsolutePath().normalize().toString(); // another root, like another drive
+            }
+        }
+        return URI_PREFIX + path.toUri().toString();
+    }
+
+    // the path stored by encode(), null if its file system is not available, like a zip archive that is not open
+    private static Path decode(Path folder, String text) {
+        final String value = text.substring(1);
+        if (text.charAt(0) == PATH_PREFIX) {
+            return folder.toAbsolutePath().resolve(value).normalize();
+        }
+        try {
+            return Paths.get(URI.create(value));
+        } catch (FileSystemNotFoundException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // the modification time and the size of a file, -1 for both if it doesn't exist
+    private static long[] fingerprintOf(Path file) throws IOException {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new long[] { attributes.lastModifiedTime().toMillis(), attributes.size() };
+        } catch (NoSuchFileException e) {
+            return new long[] { -1, -1 };
+        }
+    }
+
+    // the modification time of the .idea folder of a directory that has one, -1 otherwise
+    private static long ideaModifiedOf(Path directory, boolean hasIdeaFolder) throws IOException {
+        if (!hasIdeaFolder) {
+            return -1;
+        }
+        try {
+            return Files.getLastModifiedTime(directory.resolve(IdeaWorkspace.IDEA_FOLDER)).toMillis();
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    private final File file;
+    private final Map<String, Entry> previous = new ConcurrentHashMap<>();
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final Map<String, Descriptor> previousProjects = new ConcurrentHashMap<>();
+    private final Map<String, Descriptor> currentProjects = new ConcurrentHashMap<>();
+    // the directories of this scan whose descriptors, or .idea folder, were added, removed or changed
+    private final Set<String> descriptorChanges = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger changedDirectories = new AtomicInteger();
+    private final AtomicInteger reusedProjects = new AtomicInteger();
+
+    private ScanIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns how many directories were added or had their entries changed since the previous scan.
+     */
+    public int getChangedDirectories() {
+        return changedDirectories.get();
+    }
+
+    /**
+     * Returns how many projects of the last scan were rebuilt from the index, without reading their descriptor files.
+     */
+    public int getReusedProjects() {
+        return reusedProjects.get();
+    }
+
+    /**
+     * Writes to the index file the directories and the projects found by the last scan.
+     *
+     * @throws IOException If some IO error occurs.
+     */
+    public void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Entry> item : current.entrySet()) {
+                Entry entry = item.getValue();
+                StringBuilder line = new StringBuilder(DIRECTORY_RECORD);
+                line.append('\t').append(item.getKey());
+                line.append('\t').append(entry.modified);
+                line.append('\t').append(entry.ideaModified);
+                line.append('\t').append(entry.listed);
+                line.append('\t').append(entry.listingHash);
+                line.append('\t').append(entry.descriptorHash);
+                line.append('\t').append(entry.projectKind == null ? NO_KIND : entry.projectKind.name());
+                line.append('\t').append(entry.hasIgnoreFile);
+                for (int i = 0; i < entry.subdirectoryNames.length; i++) {
+                    line.append('\t').append(entry.subdirectoryKeys[i]).append('|').append(entry.subdirectoryNames[i]);
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+            for (Map.Entry<String, Descriptor> item : currentProjects.entrySet()) {
+                Descriptor descriptor = item.getValue();
+                StringBuilder line = new StringBuilder(PROJECT_RECORD);
+                line.append('\t').append(item.getKey());
+                line.append('\t').append(descriptor.kind.name());
+                line.append('\t').append(descriptor.name);
+                line.append('\t').append(descriptor.component);
+                line.append('\t').append(descriptor.nestedProjects);
+                line.append('\t').append(descriptor.read);
+                line.append('\t').append(descriptor.files.length);
+                for (int i = 0; i < descriptor.files.length; i++) {
+                    line.append('\t').append(descriptor.modified[i]).append('|').append(descriptor.sizes[i]).append('|').append(descriptor.files[i]);
+                }
+                for (int i = 0; i < descriptor.dependencyPaths.length; i++) {
+                    line.append('\t').append(descriptor.dependencyKinds[i]).append('|').append(descriptor.dependencyNames[i]).append('|')
+                            .append(descriptor.dependencyPaths[i]);
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the specified directory, from the index if the directory didn't change, otherwise by listing it.
+     */
+    Entry describe(Path directory) throws IOException {
+        final String key = keyOf(directory);
+        final long modified = Files.getLastModifiedTime(directory).toMillis();
+        Entry entry = previous.get(key);
+        if (entry == null || entry.modified != modified || entry.listed - modified < RACY_INTERVAL_MILLIS || !isIdeaFolderUnchanged(entry, directory)) {
+            final DirectoryListing listing = DirectoryListing.read(directory);
+            if (entry == null || entry.listingHash != listing.getListingHash()) {
+                changedDirectories.incrementAndGet();
+            }
+            final long ideaModified = ideaModifiedOf(directory, listing.hasDirectory(IdeaWorkspace.IDEA_FOLDER));
+            if (entry == null ? listing.getDescriptorHash() != 0 || ideaModified >= 0
+                    : entry.descriptorHash != listing.getDescriptorHash() || entry.ideaModified != ideaModified) {
+                descriptorChanges.add(key);
+            }
+            entry = Entry.of(listing, modified, ideaModified, System.currentTimeMillis());
+        } else {
+            entry = entry.resolve(directory);
+        }
+        current.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Creates the project of the specified directory, from the index if none of its descriptor files changed, otherwise by reading them.
+     */
+    Project newProject(Path directory, ProjectKind kind, ProjectRegistry registry) throws IOException {
+        final String key = keyOf(directory);
+        Descriptor descriptor = previousProjects.get(key);
+        Project project = descriptor == null || descriptor.kind != kind || isBelowDescriptorChange(directory) ? null
+                : descriptor.newProject(directory, registry);
+        if (project == null) {
+            final long read = System.currentTimeMillis();
+            project = kind.newProject(directory, registry);
+            descriptor = Descriptor.of(directory, kind, (AbstractProject) project, read);
+        } else {
+            reusedProjects.incrementAndGet();
+        }
+        currentProjects.put(key, descriptor);
+        return project;
+    }
+
+    /**
+     * Starts a new scan, the directories and projects not visited by it will not be saved.
+     */
+    void reset() {
+        if (!current.isEmpty()) {
+            previous.clear();
+            previous.putAll(current);
+            current.clear();
+        }
+        if (!currentProjects.isEmpty()) {
+            previousProjects.clear();
+            previousProjects.putAll(currentProjects);
+            currentProjects.clear();
+        }
+        descriptorChanges.clear();
+        changedDirectories.set(0);
+        reusedProjects.set(0);
+    }
+
+    // a new settings file, workspace or parent POM above a project may change how it is read, like a new .idea/modules.xml does for its modules
+    private boolean isBelowDescriptorChange(Path directory) {
+        if (descriptorChanges.isEmpty()) {
+            return false;
+        }
+        for (Path current = directory; current != null; current = current.getParent()) {
+            if (descriptorChanges.contains(keyOf(current))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // an entry of a directory with an .idea folder is only reused while the folder didn't change, its modules.xml decides the kind
+    private boolean isIdeaFolderUnchanged(Entry entry, Path directory) throws IOException {
+        if (entry.ideaModified < 0) {
+            return true;
+        }
+        final long ideaModified = ideaModifiedOf(directory, true);
+        return ideaModified == entry.ideaModified && entry.listed - ideaModified >= RACY_INTERVAL_MILLIS;
+    }
+
+    private void read() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("unknown header");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (DIRECTORY_RECORD.equals(fields[0])) {
+                    readDirectory(fields);
+                } else if (PROJECT_RECORD.equals(fields[0])) {
+                    readProject(fields);
+                } else {
+                    throw new IOException("unknown record \"" + fields[0] + "\"");
+                }
+            }
+        }
+    }
+
+    private void readDirectory(String[] fields) {
+        long modified = Long.parseLong(fields[2]);
+        long ideaModified = Long.parseLong(fields[3]);
+        long listed = Long.parseLong(fields[4]);
+        long listingHash = Long.parseLong(fields[5]);
+        long descriptorHash = Long.parseLong(fields[6]);
+        ProjectKind kind = NO_KIND.equals(fields[7]) ? null : ProjectKind.valueOf(fields[7]);
+        boolean hasIgnoreFile = Boolean.parseBoolean(fields[8]);
+        String[] names = new String[fields.length - 9];
+        String[] keys = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            String field = fields[i + 9];
+            int separator = field.indexOf('|');
+            keys[i] = field.substring(0, separator);
+            names[i] = field.substring(separator + 1);
+        }
+        previous.put(fields[1], new Entry(kind, hasIgnoreFile, null, names, keys, modified, ideaModified, listed, listingHash, descriptorHash));
+    }
+
+    private void readProject(String[] fields) {
+        ProjectKind kind = ProjectKind.valueOf(fields[2]);
+        String name = fields[3];
+        boolean component = Boolean.parseBoolean(fields[4]);
+        boolean nestedProjects = Boolean.parseBoolean(fields[5]);
+        long read = Long.parseLong(fields[6]);
+        int fileCount = Integer.parseInt(fields[7]);
+        String[] files = new String[fileCount];
+        long[] modified = new long[fileCount];
+        long[] sizes = new long[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            String[] parts = fields[i + 8].split("\\|", 3);
+            modified[i] = Long.parseLong(parts[0]);
+            sizes[i] = Long.parseLong(parts[1]);
+            files[i] = parts[2];
+        }
+        int dependencyCount = fields.length - 8 - fileCount;
+        String[] kinds = new String[dependencyCount];
+        String[] names = new String[dependencyCount];
+        String[] paths = new String[dependencyCount];
+        for (int i = 0; i < dependencyCount; i++) {
+            String[] parts = fields[i + 8 + fileCount].split("\\|", 3);
+            kinds[i] = parts[0];
+            names[i] = parts[1];
+            paths[i] = parts[2];
+        }
+        previousProjects.put(fields[1], new Descriptor(kind, name, component, nestedProjects, read, files, modified, sizes, kinds, names, paths));
+    }
+}
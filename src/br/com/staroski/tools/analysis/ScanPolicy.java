@@ -0,0 +1,303 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which directories and files are pruned while scanning a directory tree.<br>
+ * The rules follow the <tt>.gitignore</tt> syntax and are read from {@value #IGNORE_FILE} files found at any level of the tree, the rules of a deeper file
+ * take precedence over the ones of its parent directories and, inside a file, the last matching rule wins.<br>
+ * The {@link #defaults() default} policy already prunes version control, build output and generated source folders, a {@value #IGNORE_FILE} file can
+ * re-include them with a negated rule like <tt>!build/</tt>.<br>
+ * <br>
+ * The rules of each file are compiled only once: rules that are plain names are looked up in a hash table and only the wildcard rules are matched with
+ * regular expressions.<br>
+ * Instances of this class are immutable and can be shared between threads.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ScanPolicy {
+
+    private static final class Rule {
+
+        final int index;
+        final boolean negated;
+        final boolean directoryOnly;
+        final boolean anchored;
+        final String literal;
+        final Pattern pattern;
+
+        Rule(int index, String line) {
+            this.index = index;
+            this.negated = line.startsWith("!");
+            if (negated) {
+                line = line.substring(1);
+            } else if (line.startsWith("\\!") || line.startsWith("\\#")) {
+                line = line.substring(1);
+            }
+            this.directoryOnly = line.endsWith("/");
+            if (directoryOnly) {
+                line = line.substring(0, line.length() - 1);
+            }
+            // a slash at the beginning or in the middle anchors the rule to the directory of the ignore file
+            this.anchored = line.indexOf('/') >= 0;
+            if (line.startsWith("/")) {
+                line = line.substring(1);
+            }
+            if (!anchored && !hasWildcards(line)) {
+                this.literal = line;
+                this.pattern = null;
+            } else {
+                this.literal = null;
+                this.pattern = Pattern.compile(toRegex(line));
+            }
+        }
+
+        boolean matches(String relativePath, String name, boolean directory) {
+            if (directoryOnly && !directory) {
+                return false;
+            }
+            return pattern.matcher(anchored ? relativePath : name).matches();
+        }
+    }
+
+    // the compiled rules of a single ignore file
+    private static final class RuleSet {
+
+        final Path base;
+        // the last literal rule of each name, for any path and for directories only
+        final Map<String, Rule> literals = new HashMap<>();
+        final Map<String, Rule> directoryLiterals = new HashMap<>();
+        final List<Rule> wildcards = new ArrayList<>();
+
+        RuleSet(Path base, List<String> lines) {
+            this.base = base;
+            int index = 0;
+            for (String line : lines) {
+                line = stripTrailingSpaces(line);
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Rule rule = new Rule(index++, line);
+                if (rule.literal != null) {
+                    // only the last rule of a name and kind matters, because the last matching rule wins
+                    (rule.directoryOnly ? directoryLiterals : literals).put(rule.literal, rule);
+                } else {
+                    wildcards.add(rule);
+                }
+            }
+        }
+
+        // returns the last rule matching the path or null
+        Rule match(Path path, String name, boolean directory) {
+            Rule found = literals.get(name);
+            if (directory) {
+                Rule directoryOnly = directoryLiterals.get(name);
+                if (directoryOnly != null && (found == null || directoryOnly.index > found.index)) {
+                    found = directoryOnly;
+                }
+            }
+            String relativePath = null;
+            for (int i = wildcards.size() - 1; i >= 0; i--) {
+                Rule rule = wildcards.get(i);
+                if (found != null && rule.index < found.index) {
+                    break;
+                }
+                if (rule.anchored && relativePath == null) {
+                    relativePath = relativize(path);
+                    if (relativePath == null) {
+                        return found; // not below the ignore file, anchored rules never match
+                    }
+                }
+                if (rule.matches(relativePath, name, directory)) {
+                    return rule;
+                }
+            }
+            return found;
+        }
+
+        private String relativize(Path path) {
+            if (base == null || !path.startsWith(base)) {
+                return null;
+            }
+            StringBuilder relative = new StringBuilder();
+            for (Path element : base.relativize(path)) {
+                if (relative.length() > 0) {
+                    relative.append('/');
+                }
+                relative.append(element.toString());
+            }
+            return relative.toString();
+        }
+    }
+
+    /**
+     * The name of the files containing ignore rules.
+     */
+    public static final String IGNORE_FILE = ".archignore";
+
+    private static final List<String> DEFAULT_RULES = Arrays.asList(
+            ".git/", ".svn/", ".hg/", ".gradle/",
+            "target/", "bin/", "build/", "out/", "node_modules/",
+            "generated-sources/", "generated-test-sources/", ".apt_generated/", ".apt_generated_tests/");
+
+    private static final ScanPolicy NONE = new ScanPolicy(null, null);
+    private static final ScanPolicy DEFAULTS = new ScanPolicy(null, new RuleSet(null, DEFAULT_RULES));
+
+    /**
+     * Returns the default {@link ScanPolicy}, it prunes version control, build output and generated source folders.
+     */
+    public static ScanPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a {@link ScanPolicy} that only applies the rules of the {@value #IGNORE_FILE} files found in the tree.
+     */
+    public static ScanPolicy none() {
+        return NONE;
+    }
+
+    private static boolean hasWildcards(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            switch (text.charAt(i)) {
+                case '*':
+                case '?':
+                case '[':
+                case '\\':
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripTrailingSpaces(String line) {
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ' && !(end > 1 && line.charAt(end - 2) == '\\')) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+
+    // converts a .gitignore glob to a regular expression
+    private static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int length = glob.length();
+        for (int i = 0; i < length; i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    if (i + 1 < length && glob.charAt(i + 1) == '*') {
+                        boolean slashBefore = i == 0 || glob.charAt(i - 1) == '/';
+                        boolean slashAfter = i + 2 < length && glob.charAt(i + 2) == '/';
+                        if (slashBefore && slashAfter) {
+                            regex.append("(?:.*/)?"); // "**/" matches zero or more directories
+                            i += 2;
+                        } else {
+                            regex.append(".*");
+                            i++;
+                        }
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                case '[':
+                    int close = glob.indexOf(']', i + 1);
+                    if (close < 0) {
+                        regex.append("\\[");
+                    } else {
+                        String set = glob.substring(i + 1, close);
+                        if (set.startsWith("!")) {
+                            set = "^" + set.substring(1);
+                        }
+                        regex.append('[').append(set.replace("\\", "\\\\")).append(']');
+                        i = close;
+                    }
+                    break;
+                case '\\':
+                    if (i + 1 < length) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                    break;
+                default:
+                    if ("().+^$|{}".indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    private final ScanPolicy parent;
+    private final RuleSet rules;
+
+    private ScanPolicy(ScanPolicy parent, RuleSet rules) {
+        this.parent = parent;
+        this.rules = rules;
+    }
+
+    /**
+     * Returns the {@link ScanPolicy} to be applied inside the specified directory, reading its {@value #IGNORE_FILE} file if there is one.
+     *
+     * @param directory A directory not ignored by this policy.
+     * @return The policy for the directory's content.
+     * @throws IOException If the ignore file cannot be read.
+     */
+    public ScanPolicy enter(Path directory) throws IOException {
+        return enter(directory, Files.isRegularFile(directory.resolve(IGNORE_FILE)));
+    }
+
+    /**
+     * Tells if the specified directory or file must be pruned.
+     *
+     * @param path      The path of the directory or file.
+     * @param directory <tt>true</tt> if the path is a directory.
+     * @return <tt>true</tt> if the path is ignored.
+     */
+    public boolean isIgnored(Path path, boolean directory) {
+        final Path fileName = path.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        final String name = fileName.toString();
+        for (ScanPolicy policy = this; policy != null; policy = policy.parent) {
+            if (policy.rules != null) {
+                Rule rule = policy.rules.match(path, name, directory);
+                if (rule != null) {
+                    return !rule.negated;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #enter(Path)} when the caller already knows if the directory has an ignore file.
+     */
+    ScanPolicy enter(Path directory, boolean hasIgnoreFile) throws IOException {
+        if (!hasIgnoreFile) {
+            return this;
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(IGNORE_FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return new ScanPolicy(this, new RuleSet(directory, lines));
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands the projects found by a scan running on a producer thread to the thread consuming a {@link java.util.stream.Stream Stream}.<br>
+ * The projects and the {@link ProjectScanListener} callbacks go through a bounded queue, so:
+ * <ul>
+ * <li>the scan blocks when the consumer falls behind, the back-pressure keeps the memory bounded;</li>
+ * <li>the callbacks are replayed, in the original order, on the consumer thread, so the listener is never called concurrently with the consumer.</li>
+ * </ul>
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class ScanPublisher extends Spliterators.AbstractSpliterator<Project> implements ProjectScanListener {
+
+    // marks the end of the scan
+    private static final Object END = new Object();
+
+    // how often a blocked producer checks if the stream was closed
+    private static final long CANCEL_CHECK_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private final ProjectScanListener listener;
+    private boolean finished;
+    private volatile boolean cancelled;
+
+    ScanPublisher(ProjectScanListener listener, int capacity) {
+        super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT);
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void onDirectoryEnter(File directory) {
+        publish((Runnable) () -> listener.onDirectoryEnter(directory));
+    }
+
+    @Override
+    public void onDirectoryExit(File directory) {
+        publish((Runnable) () -> listener.onDirectoryExit(directory));
+    }
+
+    @Override
+    public void onDirectoryPruned(File directory) {
+        publish((Runnable) () -> listener.onDirectoryPruned(directory));
+    }
+
+    @Override
+    public void onProjectFound(Project project) {
+        publish((Runnable) () -> listener.onProjectFound(project));
+        publish(project);
+    }
+
+    @Override
+    public void onProjectScanFinished(File directory) {
+        publish((Runnable) () -> listener.onProjectScanFinished(directory));
+    }
+
+    @Override
+    public void onProjectScanStarted(File directory) {
+        publish((Runnable) () -> listener.onProjectScanStarted(directory));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Project> action) {
+        while (!finished) {
+            final Object item = take();
+            if (item == END) {
+                finished = true;
+            } else if (item instanceof Runnable) {
+                ((Runnable) item).run();
+            } else if (item instanceof Throwable) {
+                finished = true;
+                throw rethrow((Throwable) item);
+            } else {
+                action.accept((Project) item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called when the stream is closed, the producer threads stop at their next callback.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Called by the producer thread when the scan failed.
+     */
+    void fail(Throwable error) {
+        close(error);
+    }
+
+    /**
+     * Called by the producer thread when the scan finished.
+     */
+    void finish() {
+        close(END);
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof IOException) {
+            return new UncheckedIOException((IOException) error);
+        }
+        if (error instanceof RuntimeException) {
+            return (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IllegalStateException(error);
+    }
+
+    // the last item is dropped when the stream was closed, there is nobody waiting for it
+    private void close(Object item) {
+        try {
+            offer(item);
+        } catch (InterruptedException | CancellationException e) {
+            // the stream was closed
+        }
+    }
+
+    // blocks while the queue is full, the worker threads of a parallel scan are not interrupted so they poll the cancellation
+    private void offer(Object item) throws InterruptedException {
+        while (!queue.offer(item, CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (cancelled) {
+                throw new CancellationException("The stream of projects was closed");
+            }
+        }
+    }
+
+    private void publish(Object item) {
+        if (cancelled) {
+            throw new CancellationException("The stream of projects was closed");
+        }
+        try {
+            offer(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The stream of projects was closed");
+        }
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for projects");
+        }
+    }
+}
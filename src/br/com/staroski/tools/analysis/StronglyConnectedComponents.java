@@ -0,0 +1,257 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The strongly connected components of a {@link ProjectGraph}, found by a single run of an iterative version of Tarjan's algorithm, in
+ * <tt>O(V + E)</tt> and without recursion, so deep dependency chains never overflow the stack.<br>
+ * Two projects are in the same component when each one depends on the other, directly or indirectly, so a project is part of a cycle exactly when its
+ * component has more than one project or when it depends on itself.<br>
+ * The components are numbered in reverse topological order: a project only depends on projects of its own component or of components with smaller
+ * ids.<br>
+ * Instances of this class are immutable.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class StronglyConnectedComponents {
+
+    private static final int UNVISITED = -1;
+
+    /**
+     * Finds the strongly connected components of the specified graph.
+     *
+     * @param graph The {@link ProjectGraph}.
+     * @return The {@link StronglyConnectedComponents}.
+     */
+    public static StronglyConnectedComponents of(ProjectGraph graph) {
+        final int size = graph.size();
+        final int[] index = new int[size];
+        final int[] low = new int[size];
+        final boolean[] onStack = new boolean[size];
+        final int[] component = new int[size];
+        Arrays.fill(index, UNVISITED);
+
+        // the stack of Tarjan's algorithm and the explicit call stack, with the next edge to visit of each frame
+        final int[] stack = new int[size];
+        final int[] callStack = new int[size];
+        final int[] nextEdge = new int[size];
+        int stackTop = 0;
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] != UNVISITED) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth] = root;
+            nextEdge[depth] = 0;
+            index[root] = low[root] = counter++;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                final int v = callStack[depth];
+                if (nextEdge[depth] < graph.getOutDegree(v)) {
+                    final int w = graph.getSuccessor(v, nextEdge[depth]++);
+                    if (index[w] == UNVISITED) {
+                        // "recursive call" on w
+                        depth++;
+                        callStack[depth] = w;
+                        nextEdge[depth] = 0;
+                        index[w] = low[w] = counter++;
+                        stack[stackTop++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                // all edges of v visited, v is the root of a component when nothing below it reaches an older project of the stack
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackTop];
+                        onStack[w] = false;
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+                // "return" to the caller
+                depth--;
+                if (depth >= 0) {
+                    final int caller = callStack[depth];
+                    low[caller] = Math.min(low[caller], low[v]);
+                }
+            }
+        }
+        return new StronglyConnectedComponents(graph, component, components);
+    }
+
+    /**
+     * Wraps components already known, for instance the ones kept by a {@link DynamicProjectGraph}, without searching the graph again.
+     *
+     * @param graph      The {@link ProjectGraph}.
+     * @param component  The component of each project, numbered in reverse topological order.
+     * @param components The number of components.
+     * @return The {@link StronglyConnectedComponents}.
+     */
+    static StronglyConnectedComponents of(ProjectGraph graph, int[] component, int components) {
+        return new StronglyConnectedComponents(graph, component, components);
+    }
+
+    private final ProjectGraph graph;
+    private final int[] component;
+    private final int[] memberStart;
+    private final int[] members;
+    // the position of each project among the members of its component
+    private final int[] position;
+    private final boolean[] cyclic;
+
+    private StronglyConnectedComponents(ProjectGraph graph, int[] component, int components) {
+        this.graph = graph;
+        this.component = component;
+        final int size = graph.size();
+
+        // the members of each component, grouped by counting sort
+        memberStart = new int[components + 1];
+        for (int id = 0; id < size; id++) {
+            memberStart[component[id] + 1]++;
+        }
+        for (int c = 0; c < components; c++) {
+            memberStart[c + 1] += memberStart[c];
+        }
+        members = new int[size];
+        position = new int[size];
+        final int[] next = Arrays.copyOf(memberStart, components);
+        for (int id = 0; id < size; id++) {
+            position[id] = next[component[id]] - memberStart[component[id]];
+            members[next[component[id]]++] = id;
+        }
+
+        cyclic = new boolean[size];
+        for (int id = 0; id < size; id++) {
+            if (getComponentSize(component[id]) > 1) {
+                cyclic[id] = true;
+                continue;
+            }
+            for (int i = 0; i < graph.getOutDegree(id) && !cyclic[id]; i++) {
+                cyclic[id] = graph.getSuccessor(id, i) == id;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the component of the specified project.
+     */
+    public int getComponent(int id) {
+        return component[id];
+    }
+
+    /**
+     * Returns the number of components, including the ones with a single project.
+     */
+    public int getComponentCount() {
+        return memberStart.length - 1;
+    }
+
+    /**
+     * Returns the number of projects of the specified component.
+     */
+    public int getComponentSize(int component) {
+        return memberStart[component + 1] - memberStart[component];
+    }
+
+    /**
+     * Returns the shortest cycles through the specified project, one for each of its dependencies that depends back on it, directly or indirectly.<br>
+     * Each cycle starts with the project itself, a project that depends on itself has a cycle with only itself.<br>
+     * The size of the list is known in <tt>O(out degree)</tt>, the component is only searched for the cycles when the first of them is read.
+     *
+     * @param id The id of the project.
+     * @return The {@link Cycle}s or an empty {@link List} if the project is not part of a cycle.
+     */
+    public List<Cycle> getCycles(int id) {
+        if (!cyclic[id]) {
+            return Collections.emptyList();
+        }
+        int size = 0;
+        for (int i = 0; i < graph.getOutDegree(id); i++) {
+            if (component[graph.getSuccessor(id, i)] == component[id]) {
+                size++;
+            }
+        }
+        return new CycleList(this, id, size);
+    }
+
+    /**
+     * Returns the {@link ProjectGraph} of these components.
+     */
+    public ProjectGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the <tt>index</tt>-th project, from <tt>0</tt> to <tt>getComponentSize(component) - 1</tt>, of the specified component.
+     */
+    public int getMember(int component, int index) {
+        return members[memberStart[component] + index];
+    }
+
+    /**
+     * Finds the cycles of {@link #getCycles(int)} with a backward breadth-first search from the project inside its component.
+     */
+    List<Cycle> findCycles(int id) {
+        final int c = component[id];
+        final int size = getComponentSize(c);
+
+        // backward breadth-first search from the project, inside its component: toward[u] is the next project on a shortest path from u back to it
+        final int[] toward = new int[size];
+        Arrays.fill(toward, UNVISITED);
+        final int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = id;
+        toward[position[id]] = id;
+        while (head < tail) {
+            final int x = queue[head++];
+            for (int i = 0; i < graph.getInDegree(x); i++) {
+                final int p = graph.getPredecessor(x, i);
+                if (component[p] == c && toward[position[p]] == UNVISITED) {
+                    toward[position[p]] = x;
+                    queue[tail++] = p;
+                }
+            }
+        }
+
+        final List<Cycle> cycles = new ArrayList<>();
+        for (int i = 0; i < graph.getOutDegree(id); i++) {
+            final int w = graph.getSuccessor(id, i);
+            if (component[w] != c) {
+                continue;
+            }
+            final Cycle cycle = new Cycle();
+            cycle.addProject(graph.getProject(id));
+            for (int u = w; u != id; u = toward[position[u]]) {
+                cycle.addProject(graph.getProject(u));
+            }
+            cycles.add(cycle);
+        }
+        return cycles;
+    }
+
+    /**
+     * Returns the position of the specified project among the members of its component, see {@link #getMember(int, int)}.
+     */
+    int getPosition(int id) {
+        return position[id];
+    }
+
+    /**
+     * Tells if the specified project is part of a cycle, that is, if its component has other projects or if it depends on itself.
+     */
+    public boolean isCyclic(int id) {
+        return cyclic[id];
+    }
+}
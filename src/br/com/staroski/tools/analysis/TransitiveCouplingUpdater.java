@@ -0,0 +1,22 @@
+package br.com.staroski.tools.analysis;
+
+/**
+ * {@link MetricsVisitor} implementation that sets the transitive coupling of a {@link Project}'s {@link Metrics}.
+ * 
+ * @author Staroski, Ricardo Artur
+ */
+final class TransitiveCouplingUpdater implements MetricsVisitor {
+
+    private final int inputDependencies;
+    private final int outputDependencies;
+
+    TransitiveCouplingUpdater(int inputDependencies, int outputDependencies) {
+        this.inputDependencies = inputDependencies;
+        this.outputDependencies = outputDependencies;
+    }
+
+    @Override
+    public void visit(Metrics metrics) {
+        metrics.setTransitiveCoupling(inputDependencies, outputDependencies);
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.staroski.tools.analysis;
+
+/**
+ * {@link MetricsVisitor} implementation that resets the number of abstract and concrete types of a {@link Project}'s {@link Metrics}.
+ * 
+ * @author Staroski, Ricardo Artur
+ */
+final class TypesResetter implements MetricsVisitor {
+
+    @Override
+    public void visit(Metrics metrics) {
+        metrics.resetTypes();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Utility class for reading the XML project descriptors with a streaming StAX parser.<br>
+ * The descriptors are read in a single forward pass, without building a DOM, and DTDs and external entities are never resolved.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class XmlFiles {
+
+    /**
+     * Receives the events of a {@link XMLStreamReader} positioned on the root element.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        void read(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    // the factories are not guaranteed to be thread-safe and the projects are created by many threads
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    });
+
+    /**
+     * Reads the specified XML file.
+     *
+     * @param file    The XML file.
+     * @param handler The handler of the parser events.
+     * @throws IOException If the file cannot be read or is not a well formed XML.
+     */
+    static void read(Path file, Handler handler) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            final XMLStreamReader reader = FACTORY.get().createXMLStreamReader(input);
+            try {
+                reader.nextTag();
+                handler.read(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot parse \"" + file + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the text of the current element, consuming its end tag.<br>
+     * The text of nested elements is ignored.
+     *
+     * @return The trimmed text.
+     */
+    static String readText(XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && (event == XMLStreamReader.CHARACTERS || event == XMLStreamReader.CDATA)) {
+                text.append(reader.getText());
+            }
+        }
+        return text.toString().trim();
+    }
+
+    /**
+     * Skips the current element and all of its content, consuming its end tag.
+     */
+    static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private XmlFiles() {}
+}
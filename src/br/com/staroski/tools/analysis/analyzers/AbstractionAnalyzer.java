@@ -3,6 +3,7 @@ package br.com.staroski.tools.analysis.analyzers;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
@@ -18,9 +19,12 @@ import br.com.staroski.tools.analysis.Metrics;
 import br.com.staroski.tools.analysis.MetricsVisitor;
 import br.com.staroski.tools.analysis.MetricsVisitors;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.Projects;
+import br.com.staroski.tools.analysis.ScanPolicy;
 
 /**
- * This class iterates over a {@link Set} of {@link Project} and computes its number of <b>abstract types</b> ("Na") and <b>concrete types</b> ("Nc").
+ * This class iterates over a {@link Set} of {@link Project} and computes its number of <b>abstract types</b> ("Na") and <b>concrete types</b> ("Nc").<br>
+ * The source files and directories ignored by the {@link ScanPolicy} are not counted.
  *
  * @author Staroski, Ricardo Artur
  */
@@ -28,6 +32,8 @@ public final class AbstractionAnalyzer {
 
     private AbstractionAnalyzerListener listener = new DefaultAbstractionAnalyzerListener();
 
+    private ScanPolicy policy = ScanPolicy.defaults();
+
     private final JavaParser javaParser;
 
     public AbstractionAnalyzer() {
@@ -46,36 +52,59 @@ public final class AbstractionAnalyzer {
         this.listener = Listeners.removeAbstractionAnalyzerListener(this.listener, listener);
     }
 
+    /**
+     * Sets the {@link ScanPolicy} that decides which source directories and files are ignored.
+     *
+     * @param policy The scan policy, <tt>null</tt> means {@link ScanPolicy#none()}.
+     */
+    public void setScanPolicy(ScanPolicy policy) {
+        this.policy = policy == null ? ScanPolicy.none() : policy;
+    }
+
     public void analyze(Set<Project> projects) {
         for (Project project : projects) {
-            listener.onAbstractionAnalysisStarted(new AbstractionAnalysisEvent(project));
+            analyze(project);
+        }
+    }
 
-            scanSourceFiles(project);
+    /**
+     * Computes the number of abstract and concrete types of a single {@link Project}, it doesn't depend on the other projects so it can run as soon as
+     * the project is found.
+     */
+    public void analyze(Project project) {
+        listener.onAbstractionAnalysisStarted(new AbstractionAnalysisEvent(project));
 
-            listener.onAbstractionAnalysisFinished(new AbstractionAnalysisEvent(project));
-        }
+        scanSourceFiles(project);
+
+        listener.onAbstractionAnalysisFinished(new AbstractionAnalysisEvent(project));
     }
 
-    private void scanDirectory(Project project, File directory) throws IOException {
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    scanDirectory(project, file); // Recurse into subdirectory
-                } else if (file.isFile() && file.getName().endsWith(".java")
-                        && !file.getName().equals("module-info.java")) {
+    private void scanDirectory(Project project, Path directory, ScanPolicy policy) throws IOException {
+        final ScanPolicy innerPolicy = policy.enter(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                final String name = String.valueOf(file.getFileName());
+                if (Files.isDirectory(file)) {
+                    // the sources of the nested projects are counted by them
+                    if (!innerPolicy.isIgnored(file, true) && !(project.hasNestedProjects() && Projects.isProjectFolder(file))) {
+                        scanDirectory(project, file, innerPolicy); // Recurse into subdirectory
+                    }
+                } else if (name.endsWith(".java")
+                        && !name.equals("module-info.java")
+                        && Files.isRegularFile(file)
+                        && !innerPolicy.isIgnored(file, false)) {
                     // Process .java files
-                    updateStats(project, file.toPath());
+                    updateStats(project, file);
                 }
             }
         }
     }
 
     private void scanSourceFiles(Project project) {
-        File directory = project.getDirectory();
+        Path directory = project.getPath();
         try {
             // Start the recursive scan
-            scanDirectory(project, directory);
+            scanDirectory(project, directory, policy);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -83,7 +112,7 @@ public final class AbstractionAnalyzer {
 
     private void updateStats(Project project, Path sourcePath) {
         try {
-            final File file = sourcePath.toFile();
+            final File file = Projects.toFile(sourcePath);
 
             listener.onFileParsingStarted(new AbstractionAnalysisEvent(project, file));
 
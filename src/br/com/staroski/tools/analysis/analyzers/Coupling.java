@@ -0,0 +1,55 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import br.com.staroski.tools.analysis.ProjectGraph;
+
+/**
+ * The <b>efferent coupling</b> ("Ce") and <b>afferent coupling</b> ("Ca") of all projects of a {@link ProjectGraph}, computed in a single pass over its
+ * edges.<br>
+ * A project that depends on itself doesn't count as one of its own input dependencies.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class Coupling {
+
+    /**
+     * Computes the coupling of all projects of the specified graph, in <tt>O(V + E)</tt>.
+     */
+    static Coupling of(ProjectGraph graph) {
+        final int size = graph.size();
+        final int[] input = new int[size];
+        final int[] output = new int[size];
+        for (int source = 0; source < size; source++) {
+            final int degree = graph.getOutDegree(source);
+            output[source] = degree + graph.getExternalDependencies(source);
+            for (int i = 0; i < degree; i++) {
+                int target = graph.getSuccessor(source, i);
+                if (target != source) {
+                    input[target]++;
+                }
+            }
+        }
+        return new Coupling(input, output);
+    }
+
+    private final int[] input;
+    private final int[] output;
+
+    private Coupling(int[] input, int[] output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Returns the "Ca" of the project with the specified id.
+     */
+    int getInputDependencies(int id) {
+        return input[id];
+    }
+
+    /**
+     * Returns the "Ce" of the project with the specified id.
+     */
+    int getOutputDependencies(int id) {
+        return output[id];
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Set;
 import br.com.staroski.tools.analysis.Metrics;
 import br.com.staroski.tools.analysis.MetricsVisitors;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
 
 /**
  * This class iterates over a {@link Set} of {@link Project} and computes its <b>efferent coupling</b> ("Ce" - output dependencies) and <b>afferent coupling</b>
@@ -28,32 +29,27 @@ public final class CouplingAnalyzer {
     }
 
     public void analyze(Set<Project> projects) {
-        for (Project project : projects) {
-            updateStats(project, projects);
+        analyze(ProjectGraph.of(projects));
+    }
+
+    /**
+     * Computes the coupling of all projects of the specified {@link ProjectGraph}.
+     */
+    public void analyze(ProjectGraph graph) {
+        final Coupling coupling = Coupling.of(graph);
+        for (int id = 0; id < graph.size(); id++) {
+            updateStats(graph, coupling, id);
         }
     }
 
-    private void updateStats(Project project, Set<Project> allProjects) {
+    private void updateStats(ProjectGraph graph, Coupling coupling, int id) {
+        Project project = graph.getProject(id);
 
         listener.onCouplingAnalysisStarted(new CouplingAnalysisEvent(project));
 
+        // the counts are set, not incremented, so analyzing the same projects again gives the same result
         Metrics stats = project.getMetrics();
-
-        // compute efferent coupling
-        int outputDependencies = project.getProjectDependencies().size();
-        for (int i = 0; i < outputDependencies; i++) {
-            stats.accept(MetricsVisitors.incrementOutputDependencies());
-        }
-
-        // compute afferent coupling
-        for (Project otherProject : allProjects) {
-            if (project.equals(otherProject)) {
-                continue;
-            }
-            if (otherProject.getProjectDependencies().contains(project)) {
-                stats.accept(MetricsVisitors.incrementInputDependencies());
-            }
-        }
+        stats.accept(MetricsVisitors.setCoupling(coupling.getInputDependencies(id), coupling.getOutputDependencies(id)));
 
         listener.onCouplingAnalysisFinished(new CouplingAnalysisEvent(project));
     }
@@ -0,0 +1,364 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.staroski.tools.analysis.Cycle;
+import br.com.staroski.tools.analysis.CycleEnumerator;
+import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
+
+/**
+ * Recommends a small set of dependencies whose removal makes a {@link ProjectGraph} acyclic, that is, an approximation of its minimum feedback arc
+ * set.<br>
+ * Each component with more than one project is ordered by the Eades-Lin-Smyth heuristic, that places the sources first, the sinks last and otherwise
+ * the project with most outgoing minus incoming dependencies, then the order is refined by rounds of sifting, that move each project to the position
+ * with fewest backward dependencies.<br>
+ * The dependencies that point backward in the final order are the recommendations, together with the projects that depend on themselves.<br>
+ * The recommendations are ranked by the number of cycles they break, counted by a {@link CycleEnumerator} limited by
+ * {@link #withMaxCycles(long) number} and {@link #withTimeBudget(Duration) time}, so the counts are lower bounds when a limit is reached.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleBreaker {
+
+    /**
+     * A dependency recommended to be removed.
+     *
+     * @author Staroski, Ricardo Artur
+     */
+    public static final class Edge {
+
+        private final Project source;
+        private final Project target;
+        private final int component;
+        private long brokenCycles;
+
+        private Edge(Project source, Project target, int component) {
+            this.source = source;
+            this.target = target;
+            this.component = component;
+        }
+
+        /**
+         * Returns the number of enumerated cycles that contain this dependency.
+         */
+        public long getBrokenCycles() {
+            return brokenCycles;
+        }
+
+        /**
+         * Returns the id of the {@link StronglyConnectedComponents component} of both projects.
+         */
+        public int getComponent() {
+            return component;
+        }
+
+        /**
+         * Returns the project that depends on the {@link #getTarget() target}.
+         */
+        public Project getSource() {
+            return source;
+        }
+
+        /**
+         * Returns the project the {@link #getSource() source} depends on.
+         */
+        public Project getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return "\"" + source.getName() + "\" -> \"" + target.getName() + "\"";
+        }
+    }
+
+    private static final Comparator<Edge> RANKING = Comparator.comparingLong(Edge::getBrokenCycles).reversed()
+            .thenComparing(edge -> edge.getSource().getName())
+            .thenComparing(edge -> edge.getTarget().getName());
+
+    private long maxCycles = 100_000;
+    private Duration timeBudget = Duration.ofSeconds(2);
+    private int siftingRounds = 4;
+
+    /**
+     * Returns the recommended dependencies to remove from the specified graph, the ones that break most cycles first.
+     */
+    public List<Edge> analyze(ProjectGraph graph) {
+        return analyze(StronglyConnectedComponents.of(graph));
+    }
+
+    /**
+     * Returns the recommended dependencies to remove from the graph of the specified components, the ones that break most cycles first.
+     */
+    public List<Edge> analyze(StronglyConnectedComponents components) {
+        final ProjectGraph graph = components.getGraph();
+        final int[] position = new int[graph.size()];
+        final List<Edge> edges = new ArrayList<>();
+        for (int c = 0; c < components.getComponentCount(); c++) {
+            final int size = components.getComponentSize(c);
+            for (int i = 0; i < size; i++) {
+                position[components.getMember(c, i)] = i;
+            }
+            if (size > 1) {
+                addBackwardEdges(components, c, position, edges);
+            }
+            for (int i = 0; i < size; i++) {
+                final int v = components.getMember(c, i);
+                for (int j = 0; j < graph.getOutDegree(v); j++) {
+                    if (graph.getSuccessor(v, j) == v) {
+                        edges.add(new Edge(graph.getProject(v), graph.getProject(v), c));
+                    }
+                }
+            }
+        }
+        if (!edges.isEmpty()) {
+            countBrokenCycles(components, edges);
+            edges.sort(RANKING);
+        }
+        return edges;
+    }
+
+    /**
+     * Sets the maximum number of cycles enumerated to rank the recommendations.
+     *
+     * @param maxCycles The maximum number of cycles, zero or less ranks nothing.
+     * @return This {@link CycleBreaker}.
+     */
+    public CycleBreaker withMaxCycles(long maxCycles) {
+        this.maxCycles = maxCycles;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of sifting rounds that refine the order of each component.
+     *
+     * @param siftingRounds The number of rounds, zero or less keeps the Eades-Lin-Smyth order.
+     * @return This {@link CycleBreaker}.
+     */
+    public CycleBreaker withSiftingRounds(int siftingRounds) {
+        this.siftingRounds = Math.max(0, siftingRounds);
+        return this;
+    }
+
+    /**
+     * Sets the time spent enumerating cycles to rank the recommendations.
+     *
+     * @param timeBudget The time budget, <tt>null</tt> means no limit.
+     * @return This {@link CycleBreaker}.
+     */
+    public CycleBreaker withTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    // orders the component and adds the dependencies between its projects that point backward
+    private void addBackwardEdges(StronglyConnectedComponents components, int c, int[] position, List<Edge> edges) {
+        final ProjectGraph graph = components.getGraph();
+        final int[] order = order(components, c, position);
+        final int size = order.length;
+        final int[] rank = new int[size];
+        for (int i = 0; i < size; i++) {
+            rank[order[i]] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            final int v = components.getMember(c, i);
+            for (int j = 0; j < graph.getOutDegree(v); j++) {
+                final int w = graph.getSuccessor(v, j);
+                if (w != v && components.getComponent(w) == c && rank[position[w]] < rank[i]) {
+                    edges.add(new Edge(graph.getProject(v), graph.getProject(w), c));
+                }
+            }
+        }
+    }
+
+    // the Eades-Lin-Smyth order of the members of the component, refined by sifting, as positions of the members
+    private int[] order(StronglyConnectedComponents components, int c, int[] position) {
+        final ProjectGraph graph = components.getGraph();
+        final int size = components.getComponentSize(c);
+        final int[] out = new int[size];
+        final int[] in = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int v = components.getMember(c, i);
+            for (int j = 0; j < graph.getOutDegree(v); j++) {
+                final int w = graph.getSuccessor(v, j);
+                if (w != v && components.getComponent(w) == c) {
+                    out[i]++;
+                    in[position[w]]++;
+                }
+            }
+        }
+
+        // the sources are appended to the left part of the order and the sinks prepended to the right part
+        final int[] order = new int[size];
+        final boolean[] removed = new boolean[size];
+        // each project is pushed at most once at the start and once for each degree that drops to zero
+        final int[] pending = new int[size * 3];
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            if (out[i] == 0 || in[i] == 0) {
+                pending[top++] = i;
+            }
+        }
+        int left = 0;
+        int right = size;
+        for (int remaining = size; remaining > 0; remaining--) {
+            int v = -1;
+            while (top > 0 && v < 0) {
+                v = pending[--top];
+                if (removed[v]) {
+                    v = -1;
+                }
+            }
+            if (v >= 0) {
+                if (out[v] == 0) {
+                    order[--right] = v;
+                } else {
+                    order[left++] = v;
+                }
+            } else {
+                // neither sources nor sinks, the project with the largest out-degree minus in-degree goes left
+                for (int i = 0; i < size; i++) {
+                    if (!removed[i] && (v < 0 || out[i] - in[i] > out[v] - in[v])) {
+                        v = i;
+                    }
+                }
+                order[left++] = v;
+            }
+            removed[v] = true;
+            top = detach(components, c, v, position, removed, out, in, pending, top);
+        }
+
+        for (int round = 0; round < siftingRounds; round++) {
+            if (!sift(components, c, position, order)) {
+                break;
+            }
+        }
+        return order;
+    }
+
+    // removes the project from the degrees of its neighbours, pushing the ones that became sources or sinks
+    private static int detach(StronglyConnectedComponents components, int c, int v, int[] position, boolean[] removed, int[] out, int[] in,
+            int[] pending, int top) {
+        final ProjectGraph graph = components.getGraph();
+        final int project = components.getMember(c, v);
+        for (int j = 0; j < graph.getOutDegree(project); j++) {
+            final int w = graph.getSuccessor(project, j);
+            if (w != project && components.getComponent(w) == c && !removed[position[w]]) {
+                final int target = position[w];
+                if (--in[target] == 0) {
+                    pending[top++] = target;
+                }
+            }
+        }
+        for (int j = 0; j < graph.getInDegree(project); j++) {
+            final int w = graph.getPredecessor(project, j);
+            if (w != project && components.getComponent(w) == c && !removed[position[w]]) {
+                final int source = position[w];
+                if (--out[source] == 0) {
+                    pending[top++] = source;
+                }
+            }
+        }
+        return top;
+    }
+
+    // one round of sifting, each project moves to the position of the order with fewest backward dependencies; tells if any project moved
+    private static boolean sift(StronglyConnectedComponents components, int c, int[] position, int[] order) {
+        final ProjectGraph graph = components.getGraph();
+        final int size = order.length;
+        // the change of backward dependencies when the sifted project passes each other one: +1 per dependency on it, -1 per dependency from it
+        final int[] delta = new int[size];
+        final int[] members = order.clone();
+        boolean moved = false;
+        for (int v : members) {
+            final int project = components.getMember(c, v);
+            int from = 0;
+            while (order[from] != v) {
+                from++;
+            }
+            int cost = 0;
+            for (int j = 0; j < graph.getOutDegree(project); j++) {
+                final int w = graph.getSuccessor(project, j);
+                if (w != project && components.getComponent(w) == c) {
+                    delta[position[w]]++;
+                }
+            }
+            for (int j = 0; j < graph.getInDegree(project); j++) {
+                final int w = graph.getPredecessor(project, j);
+                if (w != project && components.getComponent(w) == c) {
+                    delta[position[w]]--;
+                    // at the first position every dependency on the project points backward
+                    cost++;
+                }
+            }
+
+            // sweeps the insertion point over the order without the project, keeping its current position on ties
+            int bestCost = cost;
+            int best = 0;
+            int current = from == 0 ? cost : Integer.MAX_VALUE;
+            for (int i = 0, index = 0; i < size; i++) {
+                if (i == from) {
+                    continue;
+                }
+                cost += delta[order[i]];
+                index++;
+                if (index == from) {
+                    current = cost;
+                }
+                if (cost < bestCost || (cost == bestCost && index == from)) {
+                    bestCost = cost;
+                    best = index;
+                }
+            }
+            if (bestCost < current) {
+                System.arraycopy(order, from + 1, order, from, size - from - 1);
+                System.arraycopy(order, best, order, best + 1, size - best - 1);
+                order[best] = v;
+                moved = true;
+            }
+
+            for (int j = 0; j < graph.getOutDegree(project); j++) {
+                final int w = graph.getSuccessor(project, j);
+                if (components.getComponent(w) == c) {
+                    delta[position[w]] = 0;
+                }
+            }
+            for (int j = 0; j < graph.getInDegree(project); j++) {
+                final int w = graph.getPredecessor(project, j);
+                if (components.getComponent(w) == c) {
+                    delta[position[w]] = 0;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private void countBrokenCycles(StronglyConnectedComponents components, List<Edge> edges) {
+        final ProjectGraph graph = components.getGraph();
+        final long size = graph.size();
+        final Map<Long, Edge> byKey = new HashMap<>(edges.size() * 2);
+        for (Edge edge : edges) {
+            byKey.put(graph.getId(edge.getSource()) * size + graph.getId(edge.getTarget()), edge);
+        }
+        final CycleEnumerator enumerator = new CycleEnumerator().withMaxCycles(maxCycles).withTimeBudget(timeBudget);
+        enumerator.enumerate(components, (Cycle cycle) -> {
+            final List<Project> projects = cycle.getProjects();
+            final int length = projects.size();
+            for (int i = 0; i < length; i++) {
+                final long source = graph.getId(projects.get(i));
+                final long target = graph.getId(projects.get((i + 1) % length));
+                final Edge edge = byKey.get(source * size + target);
+                if (edge != null) {
+                    edge.brokenCycles++;
+                }
+            }
+        });
+    }
+}
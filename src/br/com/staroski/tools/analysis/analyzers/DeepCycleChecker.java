@@ -2,39 +2,24 @@ package br.com.staroski.tools.analysis.analyzers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import br.com.staroski.tools.analysis.Cycle;
+import br.com.staroski.tools.analysis.CycleEnumerator;
+import br.com.staroski.tools.analysis.CycleOracle;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
 
 /**
  * This class implements a DFS (Depth First Search) algorithm to check for circular dependencies on a {@link Project}.<br/>
- * Its's a deep scan so it will also find inner cycles and not just the ones that point back to the starting point of the graph..
+ * Its's a deep scan so it will also find inner cycles and not just the ones that point back to the starting point of the graph..<br/>
+ * Each search stops at the first cycle found, use a {@link CycleEnumerator} to enumerate all of them.
+ * To check many projects of the same graph, query a {@link CycleOracle} instead of searching again for each one.
  *
  * @author Staroski, Ricardo Artur
  */
 public final class DeepCycleChecker {
 
-    // Class to keep track of colors
-    private static final class ColorTracker {
-        Map<Project, Integer> colors;
-
-        ColorTracker() {
-            this.colors = new HashMap<>();
-            
-        }
-
-        int getColor(Project v) {
-            return colors.getOrDefault(v, WHITE);
-        }
-
-        void setColor(Project v, int color) {
-            colors.put(v, color);
-        }
-    }
-
     // Defining the colors
     private static final int WHITE = 0;
     private static final int GRAY = 1;
@@ -42,85 +27,113 @@ public final class DeepCycleChecker {
 
     // Method to get the found cycles
     public List<Cycle> getCycles(List<Project> graph) {
-        // Mapping the projects to the visited state
-        Map<Project, Boolean> visited = new HashMap<>();
+        return findCycles(ProjectGraph.reachableFrom(graph), graph.size());
+    }
 
-        // Creating a ColorTracker object
-        ColorTracker tracker = new ColorTracker();
+    public List<Cycle> getCycles(Project project) {
+        return getCycles(Arrays.asList(project));
+    }
+
+    /**
+     * Returns the cycles found starting from each project of the specified {@link ProjectGraph}.
+     */
+    public List<Cycle> getCycles(ProjectGraph graph) {
+        return findCycles(graph, graph.size());
+    }
+
+    /**
+     * Returns the first cycle found starting from the project with the specified id, if any.
+     */
+    public List<Cycle> getCycles(ProjectGraph graph, int id) {
+        // Colors of the vertices, all WHITE at the beginning
+        int[] colors = new int[graph.size()];
+        List<Cycle> cycles = new ArrayList<>();
+        dfs(graph, id, colors, new ArrayList<>(), cycles);
+        return cycles;
+    }
+
+    // Function to check if the graph is a DAG (Directed Acyclic Graph)
+    public boolean isAcyclic(List<Project> graph) {
+        return checkAcyclic(ProjectGraph.reachableFrom(graph), graph.size());
+    }
+
+    public boolean isAcyclic(Project project) {
+        return isAcyclic(Arrays.asList(project));
+    }
+
+    /**
+     * Checks if there is no cycle reachable from the project with the specified id.
+     */
+    public boolean isAcyclic(ProjectGraph graph, int id) {
+        // Colors of the vertices, all WHITE at the beginning
+        int[] colors = new int[graph.size()];
+        return !dfs(graph, id, colors, new ArrayList<>(), new ArrayList<>());
+    }
+
+    // the roots are the first 'roots' ids of the graph
+    private List<Cycle> findCycles(ProjectGraph graph, int roots) {
+        // Colors of the vertices, all WHITE at the beginning
+        int[] colors = new int[graph.size()];
 
         // List to store the found cycles
         List<Cycle> cycles = new ArrayList<>();
 
-        // Iterating over all projects in the graph
-        for (Project u : graph) {
+        // Iterating over the root projects of the graph
+        for (int u = 0; u < roots; u++) {
             // If the vertex has not been visited, call dfs
-            if (!visited.containsKey(u)) {
-                List<Project> cycle = new ArrayList<>();
-                dfs(u, visited, tracker, cycle, cycles);
+            if (colors[u] == WHITE) {
+                List<Integer> cycle = new ArrayList<>();
+                dfs(graph, u, colors, cycle, cycles);
             }
         }
 
         return cycles;
     }
 
-    public List<Cycle> getCycles(Project project) {
-        return getCycles(Arrays.asList(project));
-    }
-
-    // Function to check if the graph is a DAG (Directed Acyclic Graph)
-    public boolean isAcyclic(List<Project> graph) {
-        // Mapping the projects to the visited state
-        Map<Project, Boolean> visited = new HashMap<>();
-
-        // Creating a ColorTracker object
-        ColorTracker tracker = new ColorTracker();
+    // the roots are the first 'roots' ids of the graph
+    private boolean checkAcyclic(ProjectGraph graph, int roots) {
+        // Colors of the vertices, all WHITE at the beginning
+        int[] colors = new int[graph.size()];
 
         // List to store the found cycles
         List<Cycle> cycles = new ArrayList<>();
 
-        // Iterating over all projects in the graph
-        for (Project u : graph) {
+        // Iterating over the root projects of the graph
+        for (int u = 0; u < roots; u++) {
             // If the vertex has not been visited, call dfs
-            if (!visited.containsKey(u)) {
-                List<Project> cycle = new ArrayList<>();
-                if (dfs(u, visited, tracker, cycle, cycles))
+            if (colors[u] == WHITE) {
+                List<Integer> cycle = new ArrayList<>();
+                if (dfs(graph, u, colors, cycle, cycles))
                     return false; // Returns false when a cycle is found
             }
         }
         return true; // Returns true only if no cycle is found
     }
 
-    public boolean isAcyclic(Project project) {
-        return isAcyclic(Arrays.asList(project));
-    }
-
     // Recursive DFS function
-    private boolean dfs(Project u, Map<Project, Boolean> visited, ColorTracker tracker, List<Project> cycle,
-            List<Cycle> cycles) {
-        // Marking the current vertex as visited
-        visited.put(u, true);
-
+    private boolean dfs(ProjectGraph graph, int u, int[] colors, List<Integer> cycle, List<Cycle> cycles) {
         // Updating the vertex color to GRAY to indicate it is being visited
-        tracker.setColor(u, GRAY);
+        colors[u] = GRAY;
 
         // Adding the vertex to the current path
         cycle.add(u);
 
         // Iterating over the neighbors of the current vertex
-        for (Project v : u.getProjectDependencies()) {
+        for (int i = 0; i < graph.getOutDegree(u); i++) {
+            int v = graph.getSuccessor(u, i);
             // If the neighbor has not been visited, recursively call dfs
-            if (!visited.containsKey(v)) {
-                if (dfs(v, visited, tracker, cycle, cycles))
+            if (colors[v] == WHITE) {
+                if (dfs(graph, v, colors, cycle, cycles))
                     return true; // Returns true when a cycle is found
             }
             // If we find a gray vertex, there is a cycle in the graph
-            else if (tracker.getColor(v) == GRAY) {
+            else if (colors[v] == GRAY) {
                 // Adding the found cycle to the list of cycles
                 int start = cycle.indexOf(v);
                 if (start >= 0) { // Checks if the index is valid
                     Cycle foundCycle = new Cycle();
-                    for (int i = start; i < cycle.size(); i++) {
-                        foundCycle.addProject(cycle.get(i));
+                    for (int j = start; j < cycle.size(); j++) {
+                        foundCycle.addProject(graph.getProject(cycle.get(j)));
                     }
                     cycles.add(foundCycle);
                 }
@@ -128,9 +141,9 @@ public final class DeepCycleChecker {
             }
         }
         // Updating the vertex color to BLACK to indicate it has been completely visited
-        tracker.setColor(u, BLACK);
+        colors[u] = BLACK;
         // Removing the vertex from the current path
-        cycle.remove(u);
+        cycle.remove(cycle.size() - 1);
         return false; // Returns false when no cycle is found
     }
 }
@@ -26,6 +26,9 @@ public class DefaultMetricsAnalyzerListener implements MetricsAnalyzerListener {
     @Override
     public void onDirectoryExit(File directory) {}
 
+    @Override
+    public void onDirectoryPruned(File directory) {}
+
     @Override
     public void onProjectScanFinished(File directory) {}
 
@@ -59,6 +62,9 @@ public class DefaultMetricsAnalyzerListener implements MetricsAnalyzerListener {
     @Override
     public void onMetricsCollected(Set<Project> projects) {}
 
+    @Override
+    public void onMetricsUpdated(Set<Project> projects) {}
+
     @Override
     public void onMetricsAnalysisFinished(Instant end, Duration elapsed) {}
 
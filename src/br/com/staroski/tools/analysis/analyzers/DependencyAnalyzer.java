@@ -1,13 +1,17 @@
 package br.com.staroski.tools.analysis.analyzers;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import br.com.staroski.tools.analysis.Cycle;
+import br.com.staroski.tools.analysis.Condensation;
+import br.com.staroski.tools.analysis.DynamicProjectGraph;
+import br.com.staroski.tools.analysis.Layering;
 import br.com.staroski.tools.analysis.Metrics;
 import br.com.staroski.tools.analysis.MetricsVisitors;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
 
 /**
  * This class iterates over a {@link Set} of {@link Project} and computes some dependency metrics on it like: number of <b>abstract types</b> ("Na"), number of
@@ -31,58 +35,94 @@ public final class DependencyAnalyzer {
     }
 
     public void analyze(Set<Project> projects) {
-        for (Project project : projects) {
-            updateCouplingStats(project, projects);
+        analyze(ProjectGraph.of(projects));
+    }
+
+    /**
+     * Computes the coupling and cycle metrics of all projects of the specified {@link ProjectGraph}.
+     */
+    public void analyze(ProjectGraph graph) {
+        final Coupling coupling = Coupling.of(graph);
+        for (int id = 0; id < graph.size(); id++) {
+            updateCouplingStats(graph, coupling, id);
         }
-        for (Project project : projects) {
-            updateAcyclicStats(projects, project);
+        // the cycles of all projects come from a single pass over the graph
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        for (int id = 0; id < graph.size(); id++) {
+            updateAcyclicStats(components, id);
         }
+        updateCondensationStats(Condensation.of(components));
     }
 
-    private List<Cycle> getCycles(Project project) {
-        Metrics metrics = project.getMetrics();
-        if ((metrics.getOutputDependencies() == 0)) {
-            return Collections.emptyList(); // ignoring because I depend no one
+    /**
+     * Computes the architecture layer, the depth and the transitive coupling of all projects of the specified {@link Condensation}, see
+     * {@link Layering}.<br>
+     * The condensation of a {@link DynamicProjectGraph} is built from the components it already keeps, see
+     * {@link DynamicProjectGraph#getCondensation()}.
+     */
+    public void analyzeCondensation(Condensation condensation) {
+        updateCondensationStats(condensation);
+    }
+
+    /**
+     * Updates the coupling and cycle metrics of the projects of the specified {@link DynamicProjectGraph} that changed since the last update.
+     *
+     * @return The updated projects.
+     */
+    public Set<Project> update(DynamicProjectGraph graph) {
+        final Set<Project> changed = graph.pollChangedProjects();
+        for (Project project : changed) {
+            listener.onCouplingAnalysisStarted(new DependencyAnalysisEvent(project));
+            Metrics metrics = project.getMetrics();
+            metrics.accept(MetricsVisitors.setCoupling(graph.getInputDependencies(project), graph.getOutputDependencies(project)));
+            listener.onCouplingAnalysisFinished(new DependencyAnalysisEvent(project));
         }
-        if ((metrics.getInputDependencies() == 0)) {
-            return Collections.emptyList(); // ignoring because no one depends on me
+        for (Project project : changed) {
+            listener.onCycleAnalysisStarted(new DependencyAnalysisEvent(project));
+            List<Cycle> cycles = graph.getCycles(project);
+            Metrics metrics = project.getMetrics();
+            metrics.accept(MetricsVisitors.setComponent(graph.getComponent(project), graph.getComponentSize(project)));
+            metrics.accept(MetricsVisitors.setCycles(cycles));
+            listener.onCycleAnalysisFinished(new DependencyAnalysisEvent(project, cycles));
         }
-
-        ShallowCycleAnalyzer cycleAnalyzer = new ShallowCycleAnalyzer();
-        return cycleAnalyzer.analyze(project);
+        return changed;
     }
 
-    private void updateAcyclicStats(Set<Project> projects, Project project) {
+    private void updateAcyclicStats(StronglyConnectedComponents components, int id) {
+        Project project = components.getGraph().getProject(id);
         listener.onCycleAnalysisStarted(new DependencyAnalysisEvent(project));
 
-        List<Cycle> cycles = getCycles(project);
+        List<Cycle> cycles = components.getCycles(id);
 
+        int component = components.getComponent(id);
+        project.getMetrics().accept(MetricsVisitors.setComponent(component, components.getComponentSize(component)));
         project.getMetrics().accept(MetricsVisitors.setCycles(cycles));
 
         listener.onCycleAnalysisFinished(new DependencyAnalysisEvent(project, cycles));
     }
 
-    private void updateCouplingStats(Project project, Set<Project> allProjects) {
+    // the layers and the transitive coupling share the same condensation
+    private void updateCondensationStats(Condensation condensation) {
+        final Layering layering = Layering.of(condensation);
+        final TransitiveCoupling coupling = TransitiveCoupling.of(condensation);
+        final StronglyConnectedComponents components = condensation.getComponents();
+        final ProjectGraph graph = components.getGraph();
+        for (int id = 0; id < graph.size(); id++) {
+            int component = components.getComponent(id);
+            Metrics metrics = graph.getProject(id).getMetrics();
+            metrics.accept(MetricsVisitors.setLayer(layering.getLayer(component), layering.getDepth(component)));
+            metrics.accept(MetricsVisitors.setTransitiveCoupling(coupling.getInputDependencies(id), coupling.getOutputDependencies(id)));
+        }
+    }
+
+    private void updateCouplingStats(ProjectGraph graph, Coupling coupling, int id) {
+        Project project = graph.getProject(id);
         listener.onCouplingAnalysisStarted(new DependencyAnalysisEvent(project));
 
+        // the counts are set, not incremented, so analyzing the same projects again gives the same result
         Metrics metrics = project.getMetrics();
-
-        // compute efferent coupling
-        int outputDependencies = project.getProjectDependencies().size();
-        for (int i = 0; i < outputDependencies; i++) {
-            metrics.accept(MetricsVisitors.incrementOutputDependencies());
-        }
-
-        // compute afferent coupling
-        for (Project otherProject : allProjects) {
-            if (project.equals(otherProject)) {
-                continue;
-            }
-            if (otherProject.getProjectDependencies().contains(project)) {
-                metrics.accept(MetricsVisitors.incrementInputDependencies());
-            }
-        }
+        metrics.accept(MetricsVisitors.setCoupling(coupling.getInputDependencies(id), coupling.getOutputDependencies(id)));
 
         listener.onCouplingAnalysisFinished(new DependencyAnalysisEvent(project));
     }
-}
\ No newline at end of file
+}
@@ -194,6 +194,12 @@ final class Listeners implements DependencyAnalyzerListener, AbstractionAnalyzer
         ((ProjectScanListener) b).onDirectoryExit(directory);
     }
 
+    @Override
+    public void onDirectoryPruned(File directory) {
+        ((ProjectScanListener) a).onDirectoryPruned(directory);
+        ((ProjectScanListener) b).onDirectoryPruned(directory);
+    }
+
     @Override
     public void onProjectScanFinished(File directory) {
         ((ProjectScanListener) a).onProjectScanFinished(directory);
@@ -212,6 +218,12 @@ final class Listeners implements DependencyAnalyzerListener, AbstractionAnalyzer
         ((MetricsAnalyzerListener) b).onMetricsCollected(projects);
     }
 
+    @Override
+    public void onMetricsUpdated(Set<Project> projects) {
+        ((MetricsAnalyzerListener) a).onMetricsUpdated(projects);
+        ((MetricsAnalyzerListener) b).onMetricsUpdated(projects);
+    }
+
     @Override
     public void onMetricsAnalysisFinished(Instant end, Duration elapsed) {
         ((MetricsAnalyzerListener) a).onMetricsAnalysisFinished(end, elapsed);
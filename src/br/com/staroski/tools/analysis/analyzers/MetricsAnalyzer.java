@@ -2,15 +2,35 @@ package br.com.staroski.tools.analysis.analyzers;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
+import br.com.staroski.tools.analysis.DynamicProjectGraph;
+import br.com.staroski.tools.analysis.MetricsVisitors;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.ProjectRegistry;
+import br.com.staroski.tools.analysis.ProjectScanner;
 import br.com.staroski.tools.analysis.Projects;
+import br.com.staroski.tools.analysis.ScanIndex;
+import br.com.staroski.tools.analysis.ScanPolicy;
 
 /**
  * Traverses a directory tree scanning for projects and collecting metrics for each {@link Project} found.<br>
+ * After an {@link #analyze(File) analysis} the repository can be {@link #watch() watched}, then only the projects affected by each change are analyzed
+ * again.<br>
+ * Each analysis creates its projects in its own {@link ProjectRegistry}, so many analyses can run at the same time.<br>
  * Use a {@link MetricsAnalyzerListener} to listen for events.
  *
  * @author Staroski, Ricardo Artur
@@ -19,6 +39,8 @@ public final class MetricsAnalyzer {
 
     private class InternalMetricsAnalyzerListener extends DefaultMetricsAnalyzerListener {
 
+        private int prunedDirectories;
+
         @Override
         public void onAbstractionAnalysisStarted(AbstractionAnalysisEvent event) {
             System.out.println("Running abstraction analysis for project \"" + event.getProject().getName() + "\"");
@@ -43,6 +65,11 @@ public final class MetricsAnalyzer {
             }
         }
 
+        @Override
+        public void onDirectoryPruned(File directory) {
+            prunedDirectories++;
+        }
+
         @Override
         public void onFileParsingStarted(AbstractionAnalysisEvent event) {
             try {
@@ -69,8 +96,15 @@ public final class MetricsAnalyzer {
             System.out.println("\n" + Projects.getMetricsCsv(projects) + "\n");
         }
 
+        @Override
+        public void onMetricsUpdated(Set<Project> projects) {
+            System.out.printf("%nUpdated metrics of %d projects%n", projects.size());
+            System.out.println("\n" + Projects.getMetricsCsv(projects) + "\n");
+        }
+
         @Override
         public void onProjectScanStarted(File directory) {
+            prunedDirectories = 0;
             try {
                 System.out.println("Scanning for projects in \"" + directory.getCanonicalPath() + "\"");
             } catch (IOException e) {
@@ -85,12 +119,24 @@ public final class MetricsAnalyzer {
 
         @Override
         public void onProjectScanFinished(File directory) {
-            System.out.println("Scanning for projects finished!");
+            System.out.println("Scanning for projects finished! (" + prunedDirectories + " directories pruned)");
         }
     }
 
     private MetricsAnalyzerListener listener = new InternalMetricsAnalyzerListener();
 
+    private int scanParallelism = 1;
+    private File scanIndexFile;
+    private ScanPolicy scanPolicy = ScanPolicy.defaults();
+
+    // the last analysis, used by the watch mode
+    private Path repository;
+    private ProjectRegistry registry;
+    private Set<Project> projects;
+
+    private volatile boolean watching;
+    private volatile RepositoryWatcher watcher;
+
     public void addMetricsAnalyzerListener(MetricsAnalyzerListener listener) {
         this.listener = Listeners.addMetricsAnalyzerListener(this.listener, listener);
     }
@@ -99,24 +145,263 @@ public final class MetricsAnalyzer {
         this.listener = Listeners.removeMetricsAnalyzerListener(this.listener, listener);
     }
 
+    /**
+     * Sets the number of threads used to scan the repository for projects.
+     *
+     * @param parallelism The number of threads, see {@link ProjectScanner#withParallelism(int)}.
+     */
+    public void setScanParallelism(int parallelism) {
+        this.scanParallelism = parallelism;
+    }
+
+    /**
+     * Sets the file of the {@link ScanIndex} used to speed up the scan of a repository that was already analyzed.
+     *
+     * @param indexFile The index file, <tt>null</tt> means no index.
+     */
+    public void setScanIndex(File indexFile) {
+        this.scanIndexFile = indexFile;
+    }
+
+    /**
+     * Sets the {@link ScanPolicy} that decides which directories and source files are ignored.
+     *
+     * @param policy The scan policy, <tt>null</tt> means {@link ScanPolicy#none()}.
+     */
+    public void setScanPolicy(ScanPolicy policy) {
+        this.scanPolicy = policy == null ? ScanPolicy.none() : policy;
+    }
+
     public void analyze(File repository) throws Exception {
+        analyze(repository.toPath());
+    }
+
+    /**
+     * Analyzes the repository in the specified directory.<br>
+     * The directory can be on any file system, for instance, inside a zip archive opened with
+     * {@link java.nio.file.FileSystems#newFileSystem(Path) FileSystems.newFileSystem(Path)}, but only the repositories on the default file system can
+     * be {@link #watch() watched}.
+     *
+     * @param repository The repository to be analyzed.
+     */
+    public void analyze(Path repository) throws Exception {
         Instant start = Instant.now();
         listener.onMetricsAnalysisStarted(start);
 
-        final Set<Project> projects = Projects.scan(repository, listener);
+        final AbstractionAnalyzer abstractionAnalyzer = new AbstractionAnalyzer();
+        abstractionAnalyzer.addAbstractionAnalyzerListener(listener);
+        abstractionAnalyzer.setScanPolicy(scanPolicy);
 
+        // the abstraction of each project is analyzed while the scan looks for the next ones
+        final ScanIndex index = scanIndexFile == null ? null : ScanIndex.load(scanIndexFile);
+        final ProjectRegistry registry = new ProjectRegistry();
+        final Set<Project> projects = new TreeSet<>();
+        final ProjectScanner scanner = new ProjectScanner()
+                .withRegistry(registry)
+                .withListener(listener)
+                .withParallelism(scanParallelism)
+                .withIndex(index)
+                .withPolicy(scanPolicy);
+        try (Stream<Project> discovered = scanner.stream(repository)) {
+            discovered.forEach(project -> {
+                projects.add(project);
+                abstractionAnalyzer.analyze(project);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (index != null) {
+            index.save();
+        }
+
+        // coupling and cycles depend on all projects, their graph is resolved only once
         final DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer();
         dependencyAnalyzer.addDependencyAnalyzerListener(listener);
-        dependencyAnalyzer.analyze(projects);
-
-        final AbstractionAnalyzer abstractionAnalyzer = new AbstractionAnalyzer();
-        abstractionAnalyzer.addAbstractionAnalyzerListener(listener);
-        abstractionAnalyzer.analyze(projects);
+        dependencyAnalyzer.analyze(ProjectGraph.of(projects));
 
+        this.repository = repository;
+        this.registry = registry;
+        this.projects = projects;
         listener.onMetricsCollected(projects);
 
         Instant end = Instant.now();
         Duration elapsed = Duration.between(start, end);
         listener.onMetricsAnalysisFinished(end, elapsed);
     }
+
+    /**
+     * Stops the {@link #watch()} running on another thread.
+     */
+    public void stopWatching() {
+        watching = false;
+        RepositoryWatcher current = watcher;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Analyzes the specified repository and then {@link #watch() watches} it.
+     *
+     * @param repository The repository to be analyzed.
+     */
+    public void watch(File repository) throws Exception {
+        analyze(repository);
+        watch();
+    }
+
+    /**
+     * Watches the repository of the last {@link #analyze(File) analysis} until {@link #stopWatching()} is called.<br>
+     * Bursts of changes are coalesced and then only the affected projects are updated:
+     * <ul>
+     * <li>a changed project descriptor, like the <tt>.classpath</tt>, reloads the project and updates the coupling and cycles of the projects whose
+     * dependencies or strongly connected components changed, see {@link DynamicProjectGraph};</li>
+     * <li>changed <tt>.java</tt> files recount the abstract and concrete types of their projects;</li>
+     * <li>new and deleted project folders are added and removed.</li>
+     * </ul>
+     * The updated metrics are notified through {@link MetricsAnalyzerListener#onMetricsUpdated(Set)}.<br>
+     * If the file system loses events or a {@value ScanPolicy#IGNORE_FILE} file changes, the whole repository is analyzed again and all of its projects
+     * are notified as updated.
+     */
+    public void watch() throws Exception {
+        if (projects == null) {
+            throw new IllegalStateException("There is no analyzed repository to watch!");
+        }
+        if (repository.getFileSystem() != FileSystems.getDefault()) {
+            throw new IllegalStateException("Only the repositories on the default file system can be watched!");
+        }
+        watching = true;
+        try {
+            while (watchChanges()) {
+                analyze(repository);
+                // the listeners of the watch mode only follow the updates, so the new analysis is one of them
+                listener.onMetricsUpdated(Collections.unmodifiableSet(new TreeSet<>(projects)));
+            }
+        } finally {
+            watching = false;
+        }
+    }
+
+    private static boolean affectsSources(Path path) {
+        return path.getFileName().toString().endsWith(".java") || Files.isDirectory(path) || !Files.exists(path);
+    }
+
+    private static Project findOwner(Map<Path, Project> projectsByDirectory, Path path) {
+        for (Path directory = path; directory != null; directory = directory.getParent()) {
+            Project owner = projectsByDirectory.get(directory);
+            if (owner != null) {
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasIgnoreFile(Set<Path> paths) {
+        for (Path path : paths) {
+            if (ScanPolicy.IGNORE_FILE.equals(path.getFileName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void update(Set<Project> watched, DynamicProjectGraph graph, Path root, Set<Path> changes) throws IOException {
+        final Map<Path, Project> projectsByDirectory = new HashMap<>();
+        for (Project project : watched) {
+            projectsByDirectory.put(project.getPath(), project);
+        }
+        final Set<Project> toReload = new TreeSet<>();
+        final Set<Project> toRecount = new TreeSet<>();
+        final Set<Path> candidates = new LinkedHashSet<>();
+        for (Path path : changes) {
+            final Project owner = findOwner(projectsByDirectory, path);
+            if (owner == null) {
+                // outside of the known projects, it may be a new project folder
+                candidates.add(path.getParent());
+                if (Files.isDirectory(path)) {
+                    candidates.add(path);
+                }
+            } else if (Projects.isDescriptor(path) || path.equals(owner.getPath())) {
+                toReload.add(owner);
+            } else if (affectsSources(path)) {
+                toRecount.add(owner);
+            }
+        }
+
+        boolean structureChanged = false;
+        for (Project old : toReload) {
+            watched.remove(old);
+            toRecount.remove(old);
+            Project project = registry.reload(old.getPath());
+            if (project != null) {
+                watched.add(project);
+                toRecount.add(project);
+                graph.put(project);
+            } else {
+                graph.remove(old);
+            }
+            structureChanged = true;
+        }
+        for (Path candidate : candidates) {
+            if (candidate.equals(root) || !candidate.startsWith(root) || findOwner(projectsByDirectory, candidate) != null) {
+                continue;
+            }
+            Project project = registry.reload(candidate);
+            if (project != null && project.isComponent()) {
+                projectsByDirectory.put(candidate, project);
+                watched.add(project);
+                toRecount.add(project);
+                graph.put(project);
+                listener.onProjectFound(project);
+                structureChanged = true;
+            }
+        }
+
+        if (!toRecount.isEmpty()) {
+            for (Project project : toRecount) {
+                project.getMetrics().accept(MetricsVisitors.resetTypes());
+            }
+            final AbstractionAnalyzer abstractionAnalyzer = new AbstractionAnalyzer();
+            abstractionAnalyzer.addAbstractionAnalyzerListener(listener);
+            abstractionAnalyzer.setScanPolicy(scanPolicy);
+            abstractionAnalyzer.analyze(toRecount);
+        }
+        if (structureChanged) {
+            final DependencyAnalyzer dependencyAnalyzer = new DependencyAnalyzer();
+            dependencyAnalyzer.addDependencyAnalyzerListener(listener);
+            dependencyAnalyzer.update(graph);
+            // a single dependency can move the layers and the transitive coupling of any project, they are computed again over the condensation of
+            // the components already kept by the graph, without resolving the dependencies again
+            dependencyAnalyzer.analyzeCondensation(graph.getCondensation());
+        }
+        if (structureChanged || !toRecount.isEmpty()) {
+            listener.onMetricsUpdated(Collections.unmodifiableSet(new TreeSet<>(watched)));
+        }
+    }
+
+    // returns true if some events were lost and the repository must be analyzed again
+    private boolean watchChanges() throws IOException, InterruptedException {
+        final Path root = repository.toRealPath();
+        // the analyzed set may be in use by the listeners, so the watch mode updates its own copy
+        final Set<Project> watched = new TreeSet<>(projects);
+        // the components are maintained incrementally, only the projects affected by a change are updated
+        final DynamicProjectGraph graph = DynamicProjectGraph.of(watched);
+        try (RepositoryWatcher repositoryWatcher = new RepositoryWatcher(root, scanPolicy)) {
+            watcher = repositoryWatcher;
+            RepositoryWatcher.Changes changes;
+            while (watching && (changes = repositoryWatcher.awaitChanges()) != null) {
+                if (changes.isOverflow() || hasIgnoreFile(changes.getPaths())) {
+                    return true;
+                }
+                update(watched, graph, root, changes.getPaths());
+            }
+            return false;
+        } finally {
+            watcher = null;
+        }
+    }
 }
@@ -18,6 +18,14 @@ public interface MetricsAnalyzerListener extends ProjectScanListener, Dependency
 
     void onMetricsCollected(Set<Project> projects);
 
+    /**
+     * Called by {@link MetricsAnalyzer#watch()} after the metrics affected by a burst of changes were updated.<br>
+     * This method is called on the watching thread, before the next changes are processed.
+     *
+     * @param projects All projects of the repository, including the ones whose metrics didn't change.
+     */
+    void onMetricsUpdated(Set<Project> projects);
+
     void onMetricsAnalysisFinished(Instant end, Duration elapsed);
 
 }
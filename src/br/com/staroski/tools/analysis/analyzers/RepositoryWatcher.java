@@ -0,0 +1,190 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import br.com.staroski.tools.analysis.ScanPolicy;
+
+/**
+ * Watches a directory tree with a {@link WatchService} and reports the changed files in bursts.<br>
+ * Every directory not ignored by the {@link ScanPolicy} is registered, including the ones created while watching, which are reported as changed together with
+ * their subdirectories.<br>
+ * The events are coalesced: a batch is only reported after the tree stays quiet for {@value #QUIET_PERIOD_MILLIS} milliseconds, so saving many files or
+ * switching branches results in a single re-analysis.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class RepositoryWatcher implements AutoCloseable {
+
+    /**
+     * The changes reported by {@link RepositoryWatcher#awaitChanges()}.
+     */
+    static final class Changes {
+
+        private final Set<Path> paths;
+        private final boolean overflow;
+
+        private Changes(Set<Path> paths, boolean overflow) {
+            this.paths = paths;
+            this.overflow = overflow;
+        }
+
+        /**
+         * Returns the created, modified and deleted files and directories.
+         */
+        Set<Path> getPaths() {
+            return paths;
+        }
+
+        /**
+         * Returns <tt>true</tt> if some events were lost, in this case the whole tree must be analyzed again.
+         */
+        boolean isOverflow() {
+            return overflow;
+        }
+    }
+
+    static final long QUIET_PERIOD_MILLIS = 500;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Map<Path, ScanPolicy> policies = new HashMap<>();
+
+    /**
+     * Starts watching the specified directory tree.
+     *
+     * @param root   The root of the tree.
+     * @param policy The policy that decides which directories are not watched.
+     * @throws IOException If the tree cannot be registered.
+     */
+    RepositoryWatcher(Path root, ScanPolicy policy) throws IOException {
+        watchService = root.getFileSystem().newWatchService();
+        try {
+            register(root, policy, null);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the next burst of changes.
+     *
+     * @return The {@link Changes} or <tt>null</tt> if this watcher was {@link #close() closed}.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    Changes awaitChanges() throws InterruptedException {
+        final Set<Path> paths = new LinkedHashSet<>();
+        boolean overflow = false;
+        try {
+            WatchKey key = watchService.take();
+            while (key != null) {
+                overflow |= collect(key, paths);
+                key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (ClosedWatchServiceException e) {
+            return null;
+        }
+        return new Changes(paths, overflow);
+    }
+
+    /**
+     * Stops watching, a thread blocked in {@link #awaitChanges()} returns <tt>null</tt>.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private boolean collect(WatchKey key, Set<Path> paths) {
+        boolean overflow = false;
+        final Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            final Path path = directory.resolve((Path) event.context());
+            final ScanPolicy policy = policies.get(directory);
+            final boolean isDirectory = Files.isDirectory(path);
+            if (policy.isIgnored(path, isDirectory)) {
+                continue;
+            }
+            paths.add(path);
+            if (event.kind() == ENTRY_CREATE && isDirectory) {
+                try {
+                    // the content of a new directory may have been created before it was registered
+                    register(path, policy, paths);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        if (!key.reset()) {
+            // the directory was deleted or is no longer accessible
+            directories.remove(key);
+            policies.remove(directory);
+        }
+        return overflow;
+    }
+
+    // registers the directories of a tree, adding them to the specified set if it is not null
+    private void register(Path start, ScanPolicy policy, Set<Path> registered) throws IOException {
+        final Map<Path, ScanPolicy> visiting = new HashMap<>();
+        visiting.put(start.getParent(), policy);
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                final ScanPolicy parentPolicy = visiting.get(directory.getParent());
+                if (!directory.equals(start) && parentPolicy.isIgnored(directory, true)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                final ScanPolicy directoryPolicy = parentPolicy.enter(directory);
+                visiting.put(directory, directoryPolicy);
+                policies.put(directory, directoryPolicy);
+                directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+                if (registered != null) {
+                    registered.add(directory);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) {
+                visiting.remove(directory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                if (e instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE; // deleted while registering
+                }
+                throw e;
+            }
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import java.util.Arrays;
+
+import br.com.staroski.tools.analysis.Condensation;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
+
+/**
+ * The transitive <b>efferent coupling</b> and <b>afferent coupling</b> of all projects of a {@link Condensation}: how many projects each one depends
+ * on, directly or indirectly, and how many depend on it, directly or indirectly.<br>
+ * The reachable components are computed by dynamic programming over the condensation, each component ORs the bitsets of its neighbours 64 components
+ * at a time, instead of a search from each project. To bound the memory, the target components are split in slices and each slice is a separate
+ * pass, that skips the components that cannot reach it.<br>
+ * A project doesn't count itself, but counts the other projects of its own strongly connected component.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+final class TransitiveCoupling {
+
+    // the maximum number of words of the bitsets of a pass, 16 MB
+    private static final int MAX_WORDS = 1 << 21;
+
+    /**
+     * Computes the transitive coupling of all components of the specified condensation, in <tt>O(E * C / 64)</tt>.
+     */
+    static TransitiveCoupling of(Condensation condensation) {
+        final StronglyConnectedComponents components = condensation.getComponents();
+        final int size = condensation.size();
+        final long[] output = new long[size];
+        final long[] input = new long[size];
+        for (int c = 0; c < size; c++) {
+            output[c] = input[c] = components.getComponentSize(c) - 1;
+        }
+
+        final int words = (size + 63) >>> 6;
+        // the components with more than one project, their other projects are counted apart from the bits
+        final long[] large = new long[words];
+        for (int c = 0; c < size; c++) {
+            if (components.getComponentSize(c) > 1) {
+                large[c >>> 6] |= 1L << c;
+            }
+        }
+        final int sliceWords = Math.max(1, Math.min(words, MAX_WORDS / Math.max(1, size)));
+        final long[] bits = new long[size * sliceWords];
+        for (int first = 0; first < words; first += sliceWords) {
+            final int sliceLength = Math.min(sliceWords, words - first);
+            final int low = first << 6;
+            final int high = Math.min(size, (first + sliceLength) << 6);
+
+            // a component only depends on smaller ids, so the ones below the slice never reach it
+            Arrays.fill(bits, 0L);
+            for (int c = low; c < size; c++) {
+                for (int i = 0; i < condensation.getOutDegree(c); i++) {
+                    orInto(bits, c, condensation.getSuccessor(c, i), low, high, sliceWords, sliceLength);
+                }
+                output[c] += count(components, large, bits, c, first, sliceWords, sliceLength);
+            }
+
+            // and only the ones below the end of the slice are depended on by it
+            Arrays.fill(bits, 0L);
+            for (int c = high - 1; c >= 0; c--) {
+                for (int i = 0; i < condensation.getInDegree(c); i++) {
+                    orInto(bits, c, condensation.getPredecessor(c, i), low, high, sliceWords, sliceLength);
+                }
+                input[c] += count(components, large, bits, c, first, sliceWords, sliceLength);
+            }
+        }
+        return new TransitiveCoupling(components, input, output);
+    }
+
+    // the projects of the components set in the bitset of c, with a popcount per word plus the extra projects of the larger components
+    private static long count(StronglyConnectedComponents components, long[] large, long[] bits, int c, int first, int sliceWords,
+            int sliceLength) {
+        final int offset = c * sliceWords;
+        long count = 0;
+        for (int w = 0; w < sliceLength; w++) {
+            count += Long.bitCount(bits[offset + w]);
+            long word = bits[offset + w] & large[first + w];
+            while (word != 0) {
+                final int target = ((first + w) << 6) + Long.numberOfTrailingZeros(word);
+                count += components.getComponentSize(target) - 1;
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    // the bitset of c gets the neighbour and everything the neighbour reaches
+    private static void orInto(long[] bits, int c, int neighbour, int low, int high, int sliceWords, int sliceLength) {
+        final int target = c * sliceWords;
+        final int source = neighbour * sliceWords;
+        for (int w = 0; w < sliceLength; w++) {
+            bits[target + w] |= bits[source + w];
+        }
+        if (neighbour >= low && neighbour < high) {
+            final int bit = neighbour - low;
+            bits[target + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private final StronglyConnectedComponents components;
+    private final long[] input;
+    private final long[] output;
+
+    private TransitiveCoupling(StronglyConnectedComponents components, long[] input, long[] output) {
+        this.components = components;
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Returns the number of projects that depend, directly or indirectly, on the project with the specified id.
+     */
+    int getInputDependencies(int id) {
+        return (int) input[components.getComponent(id)];
+    }
+
+    /**
+     * Returns the number of projects the project with the specified id depends on, directly or indirectly.
+     */
+    int getOutputDependencies(int id) {
+        return (int) output[components.getComponent(id)];
+    }
+}
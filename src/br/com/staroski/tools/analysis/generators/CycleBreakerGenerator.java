@@ -0,0 +1,93 @@
+package br.com.staroski.tools.analysis.generators;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.Projects;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
+import br.com.staroski.tools.analysis.analyzers.CycleBreaker;
+import br.com.staroski.utils.Arguments;
+
+/**
+ * Traverses a directory tree and generates a list with the dependencies between the {@link Project}s found that should be removed to break all
+ * cycles, grouped by strongly connected component, the ones that break most cycles first.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleBreakerGenerator {
+
+    private static final String PARAM_REPOSITORY = "-r";
+    private static final String PARAM_OUTPUT = "-o";
+
+    public static void main(String[] args) {
+        try {
+            Arguments arguments = new Arguments(args, PARAM_REPOSITORY, PARAM_OUTPUT);
+
+            File repository = new File(arguments.getArgument(PARAM_REPOSITORY));
+            File output = new File(arguments.getArgument(PARAM_OUTPUT));
+
+            CycleBreakerGenerator program = new CycleBreakerGenerator();
+            String programName = program.getClass().getSimpleName();
+            System.out.printf("Starting %s...%n", programName);
+
+            Duration elapsed = program.execute(repository, output);
+
+            System.out.printf("Finished %s in %02d:%02d:%02d%n", programName, elapsed.toHours(), elapsed.toMinutesPart(), elapsed.toSecondsPart());
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    private CycleBreakerGenerator() {}
+
+    public Duration execute(File repository, File output) throws Exception {
+        final Instant start = Instant.now();
+
+        final ProjectGraph graph = ProjectGraph.of(Projects.scan(repository));
+
+        System.out.print("Computing the dependencies that break the cycles...");
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        final List<CycleBreaker.Edge> edges = new CycleBreaker().analyze(components);
+        System.out.println("    Done!");
+
+        // the edges are ranked, so each component appears where its best edge is
+        final Map<Integer, List<CycleBreaker.Edge>> edgesByComponent = new LinkedHashMap<>();
+        for (CycleBreaker.Edge edge : edges) {
+            edgesByComponent.computeIfAbsent(edge.getComponent(), component -> new ArrayList<>()).add(edge);
+        }
+
+        System.out.printf("Generating file \"%s\"...%n", output.getCanonicalPath());
+        PrintWriter outputFile = new PrintWriter(output);
+
+        for (Map.Entry<Integer, List<CycleBreaker.Edge>> entry : edgesByComponent.entrySet()) {
+            int component = entry.getKey();
+            List<CycleBreaker.Edge> componentEdges = entry.getValue();
+            String header = String.format("component %d: %d projects, %d dependencies to remove", component,
+                    components.getComponentSize(component), componentEdges.size());
+            System.out.println(header);
+            outputFile.println(header);
+            for (CycleBreaker.Edge edge : componentEdges) {
+                String line = String.format("    %s    breaks %d cycles", edge, edge.getBrokenCycles());
+                System.out.println(line);
+                outputFile.println(line);
+            }
+            System.out.println();
+            outputFile.println();
+        }
+
+        outputFile.flush();
+        outputFile.close();
+        System.out.printf("File \"%s\" successfully generated!%n", output.getCanonicalPath());
+
+        final Instant end = Instant.now();
+        return Duration.between(start, end);
+    }
+}
@@ -9,10 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import br.com.staroski.tools.analysis.Dependency;
+import br.com.staroski.tools.analysis.JarIndex;
 import br.com.staroski.tools.analysis.Project;
 import br.com.staroski.tools.analysis.Projects;
 import br.com.staroski.utils.Arguments;
@@ -26,19 +25,25 @@ public final class DependencyListGenerator {
 
     private static final String PARAM_REPOSITORY = "-r";
     private static final String PARAM_OUTPUT = "-o";
+    private static final String PARAM_JAR_INDEX = "-j";
 
     public static void main(String[] args) {
         try {
-            Arguments arguments = new Arguments(args, PARAM_REPOSITORY, PARAM_OUTPUT);
+            Arguments arguments = new Arguments(args, PARAM_REPOSITORY, PARAM_OUTPUT, PARAM_JAR_INDEX);
 
             File repository = new File(arguments.getArgument(PARAM_REPOSITORY));
             File output = new File(arguments.getArgument(PARAM_OUTPUT));
+            String jarIndex = arguments.getArgument(PARAM_JAR_INDEX);
 
-            DependencyListGenerator program = new DependencyListGenerator();
+            // the jar index file is optional, without it the jars are indexed in memory only
+            JarIndex index = jarIndex == null ? JarIndex.getShared() : JarIndex.load(new File(jarIndex));
+
+            DependencyListGenerator program = new DependencyListGenerator(index);
             String programName = program.getClass().getSimpleName();
             System.out.printf("Starting %s...%n", programName);
 
             Duration elapsed = program.execute(repository, output);
+            index.save();
 
             System.out.printf("Finished %s in %02d:%02d:%02d%n", programName, elapsed.toHours(),
                     elapsed.toMinutesPart(), elapsed.toSecondsPart());
@@ -69,13 +74,16 @@ public final class DependencyListGenerator {
         return projects;
     }
 
-    private DependencyListGenerator() {}
+    private final JarIndex index;
+
+    private DependencyListGenerator(JarIndex index) {
+        this.index = index;
+    }
 
     public Duration execute(File repository, File output) throws Exception {
         final Instant start = Instant.now();
 
-        DependencyListGenerator scanner = new DependencyListGenerator();
-        List<String> allDependencies = scanner.scan(repository);
+        List<String> allDependencies = scan(repository);
 
         System.out.printf("Generating file \"%s\"...%n", output.getCanonicalPath());
         PrintWriter outputFile = new PrintWriter(output);
@@ -111,19 +119,16 @@ public final class DependencyListGenerator {
                 // list entries per dependency
                 if ("lib".equals(kind)) {
                     current.append("    jar        " + dependency.getName());
-                    Set<String> jarEntries = dependency.getLibEntries();
+                    Set<String> jarEntries = dependency.getLibEntries(index);
                     if (jarEntries.isEmpty()) {
                         current.append("    []");
                     } else {
-                        Predicate<? super String> notMetaInf = entry -> !entry.startsWith("META-INF/");
-                        Predicate<? super String> moreThan2levels = entry -> entry.chars().filter(ch -> ch == '/')
-                                .count() > 1;
-                        List<String> entries = jarEntries.stream().filter(notMetaInf).filter(moreThan2levels)
-                                .collect(Collectors.toList());
-                        entries.sort((a, b) -> a.compareTo(b));
-                        for (String entry : entries) {
-                            current.append("    [" + packageName(entry) + "]");
-                            break;
+                        // the first directory with at least two levels, like "com/acme/", the directories are sorted
+                        for (String entry : jarEntries) {
+                            if (!entry.startsWith("META-INF/") && entry.indexOf('/') < entry.length() - 1) {
+                                current.append("    [" + packageName(entry) + "]");
+                                break;
+                            }
                         }
                     }
                 } else {
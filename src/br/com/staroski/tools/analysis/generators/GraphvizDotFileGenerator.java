@@ -5,12 +5,17 @@ import java.io.PrintWriter;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Set;
+import java.util.function.IntPredicate;
 
+import br.com.staroski.tools.analysis.Condensation;
+import br.com.staroski.tools.analysis.CycleOracle;
+import br.com.staroski.tools.analysis.Layering;
 import br.com.staroski.tools.analysis.Metrics;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
 import br.com.staroski.tools.analysis.Projects;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
 import br.com.staroski.tools.analysis.analyzers.CouplingAnalyzer;
-import br.com.staroski.tools.analysis.analyzers.DeepCycleChecker;
 import br.com.staroski.utils.Arguments;
 
 /**
@@ -55,23 +60,27 @@ public final class GraphvizDotFileGenerator {
         }
     }
 
-    private final DeepCycleChecker cycleChecker = new DeepCycleChecker();
-
     private GraphvizDotFileGenerator() {}
 
     public Duration execute(File repository, String filter, String title, File output) throws Exception {
         final Instant start = Instant.now();
 
         final Set<Project> projects = Projects.scan(repository);
+        final ProjectGraph projectGraph = ProjectGraph.of(projects);
 
         final CouplingAnalyzer couplingAnalyzer = new CouplingAnalyzer();
-        couplingAnalyzer.analyze(projects);
+        couplingAnalyzer.analyze(projectGraph);
+
+        // the cycles are looked up once for all projects, not searched again for each node and edge
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(projectGraph);
+        final CycleOracle cycles = CycleOracle.of(components);
+        final Layering layers = Layering.of(Condensation.of(components));
 
         final String graph;
         if (FILTER_ALL.equals(filter)) {
-            graph = createGraphAll(projects, title);
+            graph = createGraphAll(cycles, layers, title);
         } else {
-            graph = createGraphCycles(projects, title);
+            graph = createGraphCycles(cycles, layers, title);
         }
 
         System.out.printf("Generating file \"%s\"...%n", output.getCanonicalPath());
@@ -88,8 +97,9 @@ public final class GraphvizDotFileGenerator {
         return Duration.between(start, end);
     }
 
-    private String createGraphAll(final Set<Project> projects, String graphTitle) {
+    private String createGraphAll(final CycleOracle cycles, final Layering layers, String graphTitle) {
         System.out.println("Generating full graph...");
+        final ProjectGraph projects = cycles.getGraph();
 
         String nodeShape = "rectangle";
 
@@ -101,15 +111,17 @@ public final class GraphvizDotFileGenerator {
         sb.append("    rankdir=LR;\n\n");
 
         // setup colors
-        for (Project p : projects) {
-            String nodeColor = hasNoCycles("name", p, projects) ? "cyan" : "yellow";
-            sb.append("    \"").append(p.getName()).append("\" [fillcolor=\"").append(nodeColor).append("\", style=\"filled\"];\n");
+        for (int p = 0; p < projects.size(); p++) {
+            String nodeColor = hasNoCycles(p, cycles) ? "cyan" : "yellow";
+            sb.append("    \"").append(projects.getProject(p).getName()).append("\" [fillcolor=\"").append(nodeColor).append("\", style=\"filled\"];\n");
         }
         sb.append("\n");
+        appendLayers(sb, layers, p -> true);
         // create graph
-        for (Project p : projects) {
-            sb.append("    ").append("\"" + p.getName() + "\"").append(" -> ").append("{");
-            for (Project d : p.getProjectDependencies()) {
+        for (int p = 0; p < projects.size(); p++) {
+            sb.append("    ").append("\"" + projects.getProject(p).getName() + "\"").append(" -> ").append("{");
+            for (int i = 0; i < projects.getOutDegree(p); i++) {
+                Project d = projects.getProject(projects.getSuccessor(p, i));
                 sb.append(" ").append(" \"" + d.getName() + "\"");
             }
             sb.append(" };\n");
@@ -119,8 +131,9 @@ public final class GraphvizDotFileGenerator {
         return sb.toString();
     }
 
-    private String createGraphCycles(final Set<Project> projects, String graphTitle) {
+    private String createGraphCycles(final CycleOracle cycles, final Layering layers, String graphTitle) {
         System.out.println("Generating cycle graph...");
+        final ProjectGraph projects = cycles.getGraph();
 
         String nodeShape = "rectangle";
         String nodeColor = "yellow";
@@ -133,26 +146,27 @@ public final class GraphvizDotFileGenerator {
         sb.append("    rankdir=LR;\n\n");
 
         // setup colors
-        for (Project p : projects) {
-            if (hasNoCycles("name", p, projects)) {
+        for (int p = 0; p < projects.size(); p++) {
+            if (hasNoCycles(p, cycles)) {
                 continue;
             }
-            sb.append("    \"").append(p.getName()).append("\" [fillcolor=\"").append(nodeColor)
+            sb.append("    \"").append(projects.getProject(p).getName()).append("\" [fillcolor=\"").append(nodeColor)
                     .append("\", style=\"filled\"];\n");
         }
         sb.append("\n");
+        appendLayers(sb, layers, p -> !hasNoCycles(p, cycles));
         // create graph
-        for (Project p : projects) {
-            if (hasNoCycles("name", p, projects)) {
+        for (int p = 0; p < projects.size(); p++) {
+            if (hasNoCycles(p, cycles)) {
                 continue;
             }
-            System.out.println("    Cycle: " + cycleChecker.getCycles(p));
-            sb.append("    ").append("\"" + p.getName() + "\"").append(" -> ").append("{");
-            for (Project d : p.getProjectDependencies()) {
-                if (hasNoCycles("dependency", d, projects)) {
+            sb.append("    ").append("\"" + projects.getProject(p).getName() + "\"").append(" -> ").append("{");
+            for (int i = 0; i < projects.getOutDegree(p); i++) {
+                int d = projects.getSuccessor(p, i);
+                if (hasNoCycles(d, cycles)) {
                     continue;
                 }
-                sb.append(" ").append(" \"" + d.getName() + "\"");
+                sb.append(" ").append(" \"" + projects.getProject(d).getName() + "\"");
             }
             sb.append(" };\n");
         }
@@ -161,23 +175,38 @@ public final class GraphvizDotFileGenerator {
         return sb.toString();
     }
 
-    private boolean hasNoCycles(String what, Project project, Set<Project> projects) {
-        final String name = project.getName();
-        Metrics stats = project.getMetrics();
-        final int ac = stats.getInputDependencies();
-        final int ec = stats.getOutputDependencies();
-        if (ac == 0) {
-            System.out.println("    ignoring " + what + " with afferent coupling " + ac + " \"" + name + "\"");
-            return true;
+    // the projects of each architecture layer with more than one of the included projects are placed side by side
+    private void appendLayers(StringBuilder sb, Layering layers, IntPredicate included) {
+        final StronglyConnectedComponents components = layers.getCondensation().getComponents();
+        final ProjectGraph projects = components.getGraph();
+        final StringBuilder[] ranks = new StringBuilder[layers.getLayerCount()];
+        final int[] counts = new int[layers.getLayerCount()];
+        for (int p = 0; p < projects.size(); p++) {
+            if (!included.test(p)) {
+                continue;
+            }
+            int layer = layers.getLayer(components.getComponent(p));
+            if (ranks[layer] == null) {
+                ranks[layer] = new StringBuilder();
+            }
+            ranks[layer].append(" \"").append(projects.getProject(p).getName()).append("\";");
+            counts[layer]++;
         }
-        if (ec == 0) {
-            System.out.println("    ignoring " + what + " with efferent coupling " + ec + " \"" + name + "\"");
-            return true;
+        boolean any = false;
+        for (int layer = 0; layer < ranks.length; layer++) {
+            if (counts[layer] > 1) {
+                sb.append("    { rank=same;").append(ranks[layer]).append(" }\n");
+                any = true;
+            }
         }
-        if (cycleChecker.isAcyclic(project)) {
-            System.out.println("    ignoring acyclic " + what + " \"" + name + "\"");
-            return true;
+        if (any) {
+            sb.append("\n");
         }
-        return false;
+    }
+
+    // a project is left out when nothing depends on it, when it depends on nothing or when no cycle is reachable from it
+    private boolean hasNoCycles(int id, CycleOracle cycles) {
+        Metrics stats = cycles.getGraph().getProject(id).getMetrics();
+        return stats.getInputDependencies() == 0 || stats.getOutputDependencies() == 0 || !cycles.reachesCycle(id);
     }
 }
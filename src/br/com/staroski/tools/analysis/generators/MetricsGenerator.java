@@ -1,6 +1,9 @@
 package br.com.staroski.tools.analysis.generators;
 
 import java.io.File;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 
@@ -9,25 +12,32 @@ import br.com.staroski.tools.analysis.analyzers.MetricsAnalyzer;
 import br.com.staroski.utils.Arguments;
 
 /**
- * Traverses a directory tree and generates content for a CSV file with all the metrics computed for each {@link Project} found.
+ * Traverses a directory tree and generates content for a CSV file with all the metrics computed for each {@link Project} found.<br>
+ * The repository can also be a zip archive, its content is read without being extracted.
  *
  * @author Staroski, Ricardo Artur
  */
 public final class MetricsGenerator {
 
     private static final String PARAM_REPOSITORY = "-r";
+    private static final String PARAM_PARALLELISM = "-p";
+    private static final String PARAM_INDEX = "-i";
 
     public static void main(String[] args) {
         try {
-            Arguments arguments = new Arguments(args, PARAM_REPOSITORY);
+            Arguments arguments = new Arguments(args, PARAM_REPOSITORY, PARAM_PARALLELISM, PARAM_INDEX);
 
             File repository = new File(arguments.getArgument(PARAM_REPOSITORY));
+            String parallelism = arguments.getArgument(PARAM_PARALLELISM);
+            String index = arguments.getArgument(PARAM_INDEX);
 
             MetricsGenerator program = new MetricsGenerator();
             String programName = program.getClass().getSimpleName();
             System.out.printf("Starting %s...%n", programName);
 
-            Duration elapsed = program.execute(repository);
+            Duration elapsed = program.execute(repository,
+                    parallelism == null ? 1 : Integer.parseInt(parallelism),
+                    index == null ? null : new File(index));
 
             System.out.printf("Finished %s in %02d:%02d:%02d%n", programName, elapsed.toHours(), elapsed.toMinutesPart(), elapsed.toSecondsPart());
         } catch (Throwable t) {
@@ -38,10 +48,24 @@ public final class MetricsGenerator {
     private MetricsGenerator() {}
 
     public Duration execute(File repository) throws Exception {
+        return execute(repository, 1, null);
+    }
+
+    public Duration execute(File repository, int scanParallelism, File scanIndex) throws Exception {
         final Instant start = Instant.now();
 
         final MetricsAnalyzer metricsAnalyzer = new MetricsAnalyzer();
-        metricsAnalyzer.analyze(repository);
+        metricsAnalyzer.setScanParallelism(scanParallelism);
+        metricsAnalyzer.setScanIndex(scanIndex);
+        if (repository.isFile()) {
+            // an archive is opened as a file system, its root is the repository
+            try (FileSystem archive = FileSystems.newFileSystem(repository.toPath())) {
+                Path root = archive.getRootDirectories().iterator().next();
+                metricsAnalyzer.analyze(root);
+            }
+        } else {
+            metricsAnalyzer.analyze(repository);
+        }
 
         final Instant end = Instant.now();
         return Duration.between(start, end);
@@ -13,6 +13,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
@@ -21,8 +22,13 @@ import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
+import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.Projects;
+import br.com.staroski.tools.analysis.analyzers.DefaultMetricsAnalyzerListener;
+import br.com.staroski.tools.analysis.analyzers.MetricsAnalyzer;
 import br.com.staroski.ui.I18N;
 import br.com.staroski.ui.UI;
 
@@ -45,6 +51,9 @@ public final class AnalysisToolsUI extends JFrame implements I18N {
     private DispersionChartPanel dispersionChartPanel;
     private JMenuItem menuItemMetricsAnalyzer;
 
+    // the analyzer watching the repository displayed, if any
+    private MetricsAnalyzer watchingAnalyzer;
+
     public AnalysisToolsUI() {
         super(UI.getText("AnalysisToolsUI.title"));
         setIconImages(createIcons());
@@ -139,10 +148,56 @@ public final class AnalysisToolsUI extends JFrame implements I18N {
 
     private void openMetricsAnalyzer() {
         MetricsCollectorUI metricsAnalyzer = new MetricsCollectorUI(this);
-        metricsAnalyzer.withListener(projectsFound -> dispersionChartPanel.setProjects(projectsFound));
+        metricsAnalyzer.withListener(new MetricsCollectorUIListener() {
+
+            @Override
+            public void onProjectsFounds(Set<Project> projectsFound) {
+                stopWatching();
+                dispersionChartPanel.setProjects(projectsFound);
+            }
+
+            @Override
+            public void onWatchRequested(MetricsAnalyzer analyzer) {
+                startWatching(analyzer);
+            }
+        });
         metricsAnalyzer.setVisible(true);
     }
 
+    private void startWatching(MetricsAnalyzer analyzer) {
+        stopWatching();
+        watchingAnalyzer = analyzer;
+        analyzer.addMetricsAnalyzerListener(new DefaultMetricsAnalyzerListener() {
+
+            @Override
+            public void onMetricsUpdated(Set<Project> projects) {
+                final String metricsCsv = Projects.getMetricsCsv(projects);
+                SwingUtilities.invokeLater(() -> {
+                    if (watchingAnalyzer == analyzer) {
+                        dispersionChartPanel.updateProjects(projects, metricsCsv);
+                    }
+                });
+            }
+        });
+        Runnable process = () -> {
+            try {
+                analyzer.watch();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        };
+        Thread thread = new Thread(process, "MetricsWatcherThread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void stopWatching() {
+        if (watchingAnalyzer != null) {
+            watchingAnalyzer.stopWatching();
+            watchingAnalyzer = null;
+        }
+    }
+
     private JMenu createMenuLanguage() {
         menuLanguage = new JMenu(UI.getText("AnalysisToolsUI.menu.language"));
 
@@ -207,6 +262,7 @@ public final class AnalysisToolsUI extends JFrame implements I18N {
         String extension = UI.getText("AnalysisToolsUI.menu.file.importCSV.type");
         File fileToImport = UI.selectFile(this, description, extension);
         if (fileToImport != null) {
+            stopWatching();
             dispersionChartPanel.setCsvFile(fileToImport);
         }
     }
@@ -32,8 +32,10 @@ import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -161,6 +163,14 @@ final class DispersionChartPanel extends JPanel implements I18N {
                         return data.inputs;
                     case 9:
                         return data.cycles;
+                    case 10:
+                        return data.layer;
+                    case 11:
+                        return data.depth;
+                    case 12:
+                        return data.transitiveOutputs;
+                    case 13:
+                        return data.transitiveInputs;
                 }
             }
             return null;
@@ -253,8 +263,13 @@ final class DispersionChartPanel extends JPanel implements I18N {
         final Integer concretes;
         final Integer abstracts;
         final Integer cycles;
+        final Integer layer;
+        final Integer depth;
+        final Integer transitiveOutputs;
+        final Integer transitiveInputs;
 
-        private PlotData(String name, double d, double i, double a, int na, int nc, int ce, int ca, int cycles) {
+        private PlotData(String name, double d, double i, double a, int na, int nc, int ce, int ca, int cycles, int layer, int depth, int tce,
+                int tca) {
             this.name = name;
             this.distance = d;
             this.instability = i;
@@ -264,6 +279,10 @@ final class DispersionChartPanel extends JPanel implements I18N {
             this.outputs = ce;
             this.inputs = ca;
             this.cycles = cycles;
+            this.layer = layer;
+            this.depth = depth;
+            this.transitiveOutputs = tce;
+            this.transitiveInputs = tca;
         }
 
         @Override
@@ -367,12 +386,12 @@ final class DispersionChartPanel extends JPanel implements I18N {
     private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.00");
 
     private static final Class<?>[] COLUMN_TYPES = { Integer.class, String.class, Double.class, Double.class, Double.class,
-            Integer.class, Integer.class, Integer.class, Integer.class, Integer.class };
+            Integer.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class };
 
     private static final String[] COLUMN_NAMES;
 
     static {
-        COLUMN_NAMES = new String[10];
+        COLUMN_NAMES = new String[14];
         COLUMN_NAMES[0] = UI.getText("DispersionChartPanel.components.table.column0.title");
         COLUMN_NAMES[1] = UI.getText("DispersionChartPanel.components.table.column1.title");
         COLUMN_NAMES[2] = UI.getText("DispersionChartPanel.components.table.column2.title");
@@ -383,6 +402,10 @@ final class DispersionChartPanel extends JPanel implements I18N {
         COLUMN_NAMES[7] = UI.getText("DispersionChartPanel.components.table.column7.title");
         COLUMN_NAMES[8] = UI.getText("DispersionChartPanel.components.table.column8.title");
         COLUMN_NAMES[9] = UI.getText("DispersionChartPanel.components.table.column9.title");
+        COLUMN_NAMES[10] = UI.getText("DispersionChartPanel.components.table.column10.title");
+        COLUMN_NAMES[11] = UI.getText("DispersionChartPanel.components.table.column11.title");
+        COLUMN_NAMES[12] = UI.getText("DispersionChartPanel.components.table.column12.title");
+        COLUMN_NAMES[13] = UI.getText("DispersionChartPanel.components.table.column13.title");
     }
 
     private JFreeChart chart;
@@ -427,7 +450,7 @@ final class DispersionChartPanel extends JPanel implements I18N {
 
         Locale en_US = UI.UNITED_STATES;
 
-        int columnCount = 10;
+        int columnCount = COLUMN_NAMES.length;
         int firstColumn = 1;
         int lastColumn = columnCount - 1;
         // titles
@@ -542,6 +565,10 @@ final class DispersionChartPanel extends JPanel implements I18N {
         COLUMN_NAMES[7] = UI.getText("DispersionChartPanel.components.table.column7.title");
         COLUMN_NAMES[8] = UI.getText("DispersionChartPanel.components.table.column8.title");
         COLUMN_NAMES[9] = UI.getText("DispersionChartPanel.components.table.column9.title");
+        COLUMN_NAMES[10] = UI.getText("DispersionChartPanel.components.table.column10.title");
+        COLUMN_NAMES[11] = UI.getText("DispersionChartPanel.components.table.column11.title");
+        COLUMN_NAMES[12] = UI.getText("DispersionChartPanel.components.table.column12.title");
+        COLUMN_NAMES[13] = UI.getText("DispersionChartPanel.components.table.column13.title");
 
         final TableColumnModel columnModel = tableComponents.getColumnModel();
         columnModel.getColumn(0).setHeaderValue(COLUMN_NAMES[0]);
@@ -554,6 +581,10 @@ final class DispersionChartPanel extends JPanel implements I18N {
         columnModel.getColumn(7).setHeaderValue(COLUMN_NAMES[7]);
         columnModel.getColumn(8).setHeaderValue(COLUMN_NAMES[8]);
         columnModel.getColumn(9).setHeaderValue(COLUMN_NAMES[9]);
+        columnModel.getColumn(10).setHeaderValue(COLUMN_NAMES[10]);
+        columnModel.getColumn(11).setHeaderValue(COLUMN_NAMES[11]);
+        columnModel.getColumn(12).setHeaderValue(COLUMN_NAMES[12]);
+        columnModel.getColumn(13).setHeaderValue(COLUMN_NAMES[13]);
 
     }
 
@@ -928,6 +959,10 @@ final class DispersionChartPanel extends JPanel implements I18N {
         columnModel.getColumn(7).setPreferredWidth(40);
         columnModel.getColumn(8).setPreferredWidth(40);
         columnModel.getColumn(9).setPreferredWidth(50);
+        columnModel.getColumn(10).setPreferredWidth(40);
+        columnModel.getColumn(11).setPreferredWidth(40);
+        columnModel.getColumn(12).setPreferredWidth(40);
+        columnModel.getColumn(13).setPreferredWidth(40);
 
         columnModel.getColumn(0).setCellRenderer(column1Renderer);
         columnModel.getColumn(2).setCellRenderer(numericRenderer);
@@ -1030,6 +1065,14 @@ final class DispersionChartPanel extends JPanel implements I18N {
                     return data.inputs;
                 case 9:
                     return data.cycles;
+                case 10:
+                    return data.layer;
+                case 11:
+                    return data.depth;
+                case 12:
+                    return data.transitiveOutputs;
+                case 13:
+                    return data.transitiveInputs;
             }
         }
         return null;
@@ -1054,26 +1097,59 @@ final class DispersionChartPanel extends JPanel implements I18N {
         List<PlotData> allData = new ArrayList<>();
         NumberFormat format = NumberFormat.getInstance(UI.UNITED_STATES);
         BufferedReader br = new BufferedReader(in);
-        String line = br.readLine(); // Name,D,I,A,Na,Nc,Ce,Ca,Cycles
+        String line = br.readLine(); // Name,D,I,A,Na,Nc,Ce,Ca,Cycles,Layer,Depth,TCe,TCa
+        // the columns are found by their titles, so files from older versions, without the newer columns, can still be read
+        Map<String, Integer> columns = new HashMap<>();
+        String[] titles = line == null ? new String[0] : line.split(",");
+        for (int col = 0; col < titles.length; col++) {
+            columns.putIfAbsent(titles[col].trim(), col);
+        }
+        // the index in the file of each table column, or -1 if the file doesn't have it
+        int[] indexes = new int[14];
+        for (int tableColumn = 1; tableColumn < indexes.length; tableColumn++) {
+            String title = UI.getText(UI.UNITED_STATES, "DispersionChartPanel.components.table.column" + tableColumn + ".title");
+            indexes[tableColumn] = columns.getOrDefault(title, -1);
+        }
         while ((line = br.readLine()) != null) { // data
+            if (line.trim().isEmpty()) {
+                continue;
+            }
             String[] values = line.split(",");
-            int col = 0;
-            String name = values[col++].trim();
-
-            double d = format.parse(values[col++].trim()).doubleValue();
-            double i = format.parse(values[col++].trim()).doubleValue();
-            double a = format.parse(values[col++].trim()).doubleValue();
-            int na = format.parse(values[col++].trim()).intValue();
-            int nc = format.parse(values[col++].trim()).intValue();
-            int ce = format.parse(values[col++].trim()).intValue();
-            int ca = format.parse(values[col++].trim()).intValue();
-            int cycles = format.parse(values[col++].trim()).intValue();
-            PlotData data = new PlotData(name, d, i, a, na, nc, ce, ca, cycles);
+            String name = getCsvValue(values, indexes[1]);
+
+            double d = parseCsvValue(format, getCsvValue(values, indexes[2]), 0).doubleValue();
+            double i = parseCsvValue(format, getCsvValue(values, indexes[3]), 0).doubleValue();
+            double a = parseCsvValue(format, getCsvValue(values, indexes[4]), 0).doubleValue();
+            int na = parseCsvValue(format, getCsvValue(values, indexes[5]), 0).intValue();
+            int nc = parseCsvValue(format, getCsvValue(values, indexes[6]), 0).intValue();
+            int ce = parseCsvValue(format, getCsvValue(values, indexes[7]), 0).intValue();
+            int ca = parseCsvValue(format, getCsvValue(values, indexes[8]), 0).intValue();
+            int cycles = parseCsvValue(format, getCsvValue(values, indexes[9]), 0).intValue();
+            int layer = parseCsvValue(format, getCsvValue(values, indexes[10]), -1).intValue();
+            int depth = parseCsvValue(format, getCsvValue(values, indexes[11]), -1).intValue();
+            int tce = parseCsvValue(format, getCsvValue(values, indexes[12]), 0).intValue();
+            int tca = parseCsvValue(format, getCsvValue(values, indexes[13]), 0).intValue();
+            PlotData data = new PlotData(name == null ? "" : name, d, i, a, na, nc, ce, ca, cycles, layer, depth, tce, tca);
             allData.add(data);
         }
         return allData;
     }
 
+    // the value at the index in a CSV line, or null if the file or the line doesn't have that column
+    private static String getCsvValue(String[] values, int index) {
+        if (index < 0 || index >= values.length) {
+            return null;
+        }
+        return values[index].trim();
+    }
+
+    private static Number parseCsvValue(NumberFormat format, String value, int defaultValue) throws Exception {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return format.parse(value);
+    }
+
     private void showAcyclic(boolean acyclic) {
         plot.setDataset(createDataset(false, acyclic, !acyclic));
     }
@@ -1102,4 +1178,28 @@ final class DispersionChartPanel extends JPanel implements I18N {
         this.projects = projects;
         setCsvString(Projects.getMetricsCsv(projects));
     }
+
+    /**
+     * Replaces the displayed projects by the updated ones, keeping the current display options.<br>
+     * Used while watching a repository, the metrics CSV must be produced on the watching thread so it is consistent.
+     *
+     * @param projects   The updated projects.
+     * @param metricsCsv The CSV produced by {@link Projects#getMetricsCsv(Set)} for the updated projects.
+     */
+    public void updateProjects(Set<Project> projects, String metricsCsv) {
+        this.projects = projects;
+        try {
+            this.allData = readCsv(metricsCsv);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+        if (radioButtonDisplayAcyclic.isSelected()) {
+            showAcyclic(true);
+        } else if (radioButtonDisplayCyclic.isSelected()) {
+            showAcyclic(false);
+        } else {
+            showAll();
+        }
+    }
 }
@@ -19,6 +19,7 @@ import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
@@ -127,9 +128,12 @@ final class MetricsCollectorUI extends JDialog implements I18N {
     private JButton buttonCollect;
     private ConsoleTextPane consoleTextPane;
     private JButton buttonLoadCsv;
+    private JCheckBox checkBoxWatch;
 
     private MetricsCollectorUIListener listener;
     private Set<Project> projectsFound;
+    private MetricsAnalyzer metricsAnalyzer;
+    private final InnerListener innerListener = new InnerListener();
 
     public MetricsCollectorUI(JFrame owner) {
         super(owner, UI.getText("MetricsCollectorUI.title"), true);
@@ -168,6 +172,9 @@ final class MetricsCollectorUI extends JDialog implements I18N {
 
         buttonLoadCsv.setText(UI.getText("MetricsCollectorUI.loadCsv.button.text"));
         buttonLoadCsv.setToolTipText(UI.getText("MetricsCollectorUI.loadCsv.button.hint"));
+
+        checkBoxWatch.setText(UI.getText("MetricsCollectorUI.watch.checkbox.text"));
+        checkBoxWatch.setToolTipText(UI.getText("MetricsCollectorUI.watch.checkbox.hint"));
     }
 
     @Override
@@ -206,6 +213,11 @@ final class MetricsCollectorUI extends JDialog implements I18N {
         if (UI.showConfirmation(this, title, message)) {
             if (listener != null) {
                 listener.onProjectsFounds(projectsFound);
+                if (checkBoxWatch.isSelected()) {
+                    // this dialog will be disposed, so it doesn't print the watch events
+                    metricsAnalyzer.removeMetricsAnalyzerListener(innerListener);
+                    listener.onWatchRequested(metricsAnalyzer);
+                }
             }
             dispose();
         }
@@ -234,6 +246,7 @@ final class MetricsCollectorUI extends JDialog implements I18N {
             return;
         }
         projectsFound = null;
+        metricsAnalyzer = null;
         consoleTextPane.clear();
 
         Runnable process = () -> runMetricsAnalyzer(directory);
@@ -294,6 +307,10 @@ final class MetricsCollectorUI extends JDialog implements I18N {
         buttonLoadCsv.setToolTipText(UI.getText("MetricsCollectorUI.loadCsv.button.hint"));
         buttonLoadCsv.addActionListener(event -> askForLoadMetrics());
 
+        checkBoxWatch = new JCheckBox(UI.getText("MetricsCollectorUI.watch.checkbox.text"));
+        checkBoxWatch.setToolTipText(UI.getText("MetricsCollectorUI.watch.checkbox.hint"));
+
+        panel.add(checkBoxWatch);
         panel.add(buttonCollect);
         panel.add(buttonLoadCsv);
         return panel;
@@ -326,8 +343,9 @@ final class MetricsCollectorUI extends JDialog implements I18N {
         try {
             updateState(true);
             final MetricsAnalyzer metricsAnalyzer = new MetricsAnalyzer();
-            metricsAnalyzer.addMetricsAnalyzerListener(new InnerListener());
+            metricsAnalyzer.addMetricsAnalyzerListener(innerListener);
             metricsAnalyzer.analyze(directory);
+            this.metricsAnalyzer = metricsAnalyzer;
         } catch (Exception e) {
             e.printStackTrace();
             String title = UI.getText("MetricsCollectorUI.collect.error.title");
@@ -344,6 +362,7 @@ final class MetricsCollectorUI extends JDialog implements I18N {
         textFieldDirectory.setEditable(enabled);
         buttonDirectory.setEnabled(enabled);
         buttonCollect.setEnabled(enabled);
+        checkBoxWatch.setEnabled(enabled);
         buttonLoadCsv.setEnabled(enabled && projectsFound != null);
     }
 }
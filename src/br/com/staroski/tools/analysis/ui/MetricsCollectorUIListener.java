@@ -3,6 +3,7 @@ package br.com.staroski.tools.analysis.ui;
 import java.util.Set;
 
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.analyzers.MetricsAnalyzer;
 
 /**
  * Listener for the {@link MetricsCollectorUI} class.
@@ -12,4 +13,11 @@ import br.com.staroski.tools.analysis.Project;
 interface MetricsCollectorUIListener {
 
     void onProjectsFounds(Set<Project> projects);
+
+    /**
+     * Called after {@link #onProjectsFounds(Set)} when the user asked to keep watching the analyzed directory.
+     *
+     * @param analyzer The {@link MetricsAnalyzer} that collected the metrics, ready to {@link MetricsAnalyzer#watch() watch} the directory.
+     */
+    void onWatchRequested(MetricsAnalyzer analyzer);
 }
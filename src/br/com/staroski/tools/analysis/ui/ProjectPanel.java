@@ -3,20 +3,28 @@ package br.com.staroski.tools.analysis.ui;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.GridLayout;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.SwingWorker;
 import javax.swing.border.TitledBorder;
 
 import br.com.staroski.tools.analysis.Cycle;
 import br.com.staroski.tools.analysis.Metrics;
 import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
+import br.com.staroski.tools.analysis.analyzers.CycleBreaker;
 import br.com.staroski.ui.I18N;
 import br.com.staroski.ui.UI;
 
@@ -32,6 +40,8 @@ final class ProjectPanel extends JPanel implements I18N {
     private TitledBorder dependenciesdBorder;
     private TitledBorder metricsBorder;
     private Project project;
+    private List<CycleBreaker.Edge> cycleBreakers = Collections.emptyList();
+    private SwingWorker<List<CycleBreaker.Edge>, Void> cycleBreakersWorker;
 
     public ProjectPanel() {
         setLayout(new BorderLayout());
@@ -104,6 +114,8 @@ final class ProjectPanel extends JPanel implements I18N {
 
     public void setProject(Project project) {
         this.project = project;
+        this.cycleBreakers = Collections.emptyList();
+        findCycleBreakers(project);
         if (project != null) {
             nameField.setText(project.getName());
             directoryField.setText(project.getDirectory().getPath());
@@ -126,15 +138,80 @@ final class ProjectPanel extends JPanel implements I18N {
         sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.concreteTypes") + ": %d\n", metrics.getConcreteTypes()));
         sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.outputDependencies") + ": %d\n", metrics.getOutputDependencies()));
         sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.inputDependencies") + ": %d\n", metrics.getInputDependencies()));
+        sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.transitiveOutputDependencies") + ": %d\n",
+                metrics.getTransitiveOutputDependencies()));
+        sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.transitiveInputDependencies") + ": %d\n",
+                metrics.getTransitiveInputDependencies()));
+        sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.layer") + ": %d\n", metrics.getLayer()));
+        sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.depth") + ": %d\n", metrics.getDepth()));
 
         List<Cycle> cycles = metrics.getCycles();
         sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.cycles") + ": %d\n", cycles.size()));
         for (Cycle cycle : cycles) {
             sb.append("  ").append(cycle).append("\n");
         }
+
+        if (!cycleBreakers.isEmpty()) {
+            sb.append(UI.getText("ComponentInspectorUI.component.metrics.cycleBreakers") + ":\n");
+            for (CycleBreaker.Edge edge : cycleBreakers) {
+                sb.append("  ").append(edge).append("    ");
+                sb.append(String.format(UI.getText("ComponentInspectorUI.component.metrics.cycleBreakers.brokenCycles"), edge.getBrokenCycles()));
+                sb.append("\n");
+            }
+        }
         return sb.toString();
     }
 
+    // searches the dependencies to break the cycles out of the EDT, the metrics are shown again when they are found
+    private void findCycleBreakers(Project project) {
+        if (cycleBreakersWorker != null) {
+            cycleBreakersWorker.cancel(false);
+            cycleBreakersWorker = null;
+        }
+        if (project == null || project.getMetrics().getCycles().isEmpty()) {
+            return;
+        }
+        cycleBreakersWorker = new SwingWorker<List<CycleBreaker.Edge>, Void>() {
+
+            @Override
+            protected List<CycleBreaker.Edge> doInBackground() {
+                return findCycleBreakersOf(project);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || ProjectPanel.this.project != project) {
+                    return;
+                }
+                cycleBreakersWorker = null;
+                try {
+                    cycleBreakers = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                metricsArea.setText(formatMetrics(project.getMetrics()));
+            }
+        };
+        cycleBreakersWorker.execute();
+    }
+
+    // the dependencies to remove to break the cycles of the component of the project, computed on the graph of the component only
+    private static List<CycleBreaker.Edge> findCycleBreakersOf(Project project) {
+        ProjectGraph reachable = ProjectGraph.reachableFrom(Collections.singletonList(project));
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(reachable);
+        int id = reachable.getId(project);
+        if (!components.isCyclic(id)) {
+            return Collections.emptyList();
+        }
+        int component = components.getComponent(id);
+        List<Project> members = new ArrayList<>();
+        for (int i = 0; i < components.getComponentSize(component); i++) {
+            members.add(reachable.getProject(components.getMember(component, i)));
+        }
+        return new CycleBreaker().withTimeBudget(Duration.ofSeconds(1)).analyze(ProjectGraph.of(members));
+    }
+
     private String formatProjectDependencies(Set<Project> dependencies) {
         StringBuilder sb = new StringBuilder();
         for (Project dep : dependencies) {
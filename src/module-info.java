@@ -1,6 +1,7 @@
 module staroski.architecture.tools {
 
     requires java.desktop;
+    requires java.xml;
 
     requires com.github.javaparser.core;
 
@@ -0,0 +1,64 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.names;
+import static br.com.staroski.tools.analysis.TestFiles.projectNames;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a small Bazel workspace whose packages <tt>//java/foo/util</tt> and <tt>//java/bar/util</tt> share the name of their folders, and checks the
+ * labels read from the <tt>deps</tt> of the rules.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class BazelProjectTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("bazel");
+        try {
+            TestFiles.write(tree, "MODULE.bazel", "module(name = \"acme\")");
+            TestFiles.write(tree, "java/app/BUILD",
+                    "java_binary(",
+                    "    name = \"app\",",
+                    "    deps = [",
+                    "        \":app_lib\",",
+                    "        \"//java/foo/util\",",
+                    "        \"//java/bar/util:util\",",
+                    "        \"@maven//:com_google_guava_guava\",",
+                    "    ] + select({",
+                    "        \"//conditions:default\": [],",
+                    "    }),",
+                    ")");
+            TestFiles.write(tree, "java/foo/util/BUILD", "java_library(name = \"util\", deps = [\"//java/bar/util\"])");
+            TestFiles.write(tree, "java/bar/util/BUILD.bazel", "java_library(name = \"util\")");
+            TestFiles.write(tree, "docs/BUILD", "filegroup(name = \"docs\", srcs = glob([\"*.md\"]))");
+
+            final Set<Project> projects = Projects.scan(tree);
+            final Map<String, Project> byName = projects.stream().collect(Collectors.toMap(Project::getName, Function.identity()));
+            // a package without java rules is not a component
+            check(byName.keySet().equals(Set.of("//java/app", "//java/bar/util", "//java/foo/util")), "packages " + byName.keySet());
+
+            final Project app = byName.get("//java/app");
+            check(app.isComponent(), "//java/app is a component");
+            check(names(app.getSrcDependencies()).equals(new TreeSet<>(Set.of("//java/bar/util", "//java/foo/util"))),
+                    "src dependencies " + names(app.getSrcDependencies()));
+            check(names(app.getLibDependencies()).equals(Set.of("com_google_guava_guava")), "lib dependencies " + names(app.getLibDependencies()));
+            check(projectNames(app.getProjectDependencies()).equals(new TreeSet<>(Set.of("//java/bar/util", "//java/foo/util"))),
+                    "project dependencies " + projectNames(app.getProjectDependencies()));
+
+            final Project fooUtil = byName.get("//java/foo/util");
+            check(fooUtil.getProjectDependencies().equals(Set.of(byName.get("//java/bar/util"))), "//java/foo/util depends on //java/bar/util");
+            check(byName.get("//java/bar/util").getAllDependencies().isEmpty(), "//java/bar/util has no dependencies");
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("BazelProjectTest: OK");
+    }
+}
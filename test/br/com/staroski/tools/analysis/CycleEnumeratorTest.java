@@ -0,0 +1,77 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares the {@link CycleEnumerator} on random graphs with the elementary cycles found by a naive depth first search from each project, and checks
+ * the maximum length and the maximum number of cycles.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleEnumeratorTest {
+
+    private static final int GRAPHS = 500;
+
+    public static void main(String[] args) {
+        final Random random = new Random(23);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        System.out.println("CycleEnumeratorTest: " + GRAPHS + " graphs OK");
+    }
+
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 9);
+        final Set<List<Project>> expected = TestGraphs.cycles(projects);
+        final ProjectGraph graph = ProjectGraph.of(projects);
+
+        final List<Cycle> cycles = new ArrayList<>();
+        check(new CycleEnumerator().enumerate(graph, cycles::add), "all cycles enumerated");
+        final Set<List<Project>> found = new HashSet<>();
+        for (Cycle cycle : cycles) {
+            final List<Project> path = cycle.getProjects();
+            for (Project project : path) {
+                check(graph.getId(path.get(0)) <= graph.getId(project), "start of " + cycle);
+            }
+            check(found.add(canonical(path)), "cycle twice " + cycle);
+        }
+        check(found.equals(expected), "cycles " + found + " expected " + expected);
+
+        final int maxLength = 1 + random.nextInt(4);
+        final Set<List<Project>> shorter = new HashSet<>();
+        check(new CycleEnumerator().withMaxLength(maxLength).enumerate(graph, cycle -> shorter.add(canonical(cycle.getProjects()))),
+                "all cycles up to " + maxLength + " enumerated");
+        expected.removeIf(cycle -> cycle.size() > maxLength);
+        check(shorter.equals(expected), "cycles up to " + maxLength + " " + shorter + " expected " + expected);
+
+        if (!cycles.isEmpty()) {
+            final int maxCycles = 1 + random.nextInt(cycles.size());
+            final List<Cycle> first = new ArrayList<>();
+            check(!new CycleEnumerator().withMaxCycles(maxCycles).enumerate(graph, first::add), "stopped at " + maxCycles + " cycles");
+            check(first.size() == maxCycles, "at most " + maxCycles + " cycles");
+        }
+    }
+
+    // the cycle rotated to start with its smallest project
+    private static List<Project> canonical(List<Project> path) {
+        int start = 0;
+        for (int i = 1; i < path.size(); i++) {
+            if (path.get(i).compareTo(path.get(start)) < 0) {
+                start = i;
+            }
+        }
+        final List<Project> cycle = new ArrayList<>(path.size());
+        for (int i = 0; i < path.size(); i++) {
+            cycle.add(path.get((start + i) % path.size()));
+        }
+        return cycle;
+    }
+
+    private CycleEnumeratorTest() {}
+}
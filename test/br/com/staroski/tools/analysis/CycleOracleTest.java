@@ -0,0 +1,50 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the {@link CycleOracle} of random graphs with a naive search from each project.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleOracleTest {
+
+    private static final int GRAPHS = 500;
+
+    public static void main(String[] args) {
+        final Random random = new Random(29);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        System.out.println("CycleOracleTest: " + GRAPHS + " graphs OK");
+    }
+
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 16);
+        final boolean[][] reaches = TestGraphs.reachability(projects);
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final CycleOracle oracle = CycleOracle.of(graph);
+        for (int x = 0; x < projects.size(); x++) {
+            final Project project = projects.get(x);
+            final int id = graph.getId(project);
+            boolean reachesCycle = reaches[x][x];
+            for (int y = 0; y < projects.size() && !reachesCycle; y++) {
+                reachesCycle = reaches[x][y] && reaches[y][y];
+            }
+            check(oracle.isInCycle(project) == reaches[x][x], "in cycle " + project);
+            check(oracle.isInCycle(id) == reaches[x][x], "in cycle " + id);
+            check(oracle.getProjectsInCycles().get(id) == reaches[x][x], "projects in cycles " + project);
+            check(oracle.reachesCycle(project) == reachesCycle, "reaches cycle " + project);
+            check(oracle.reachesCycle(id) == reachesCycle, "reaches cycle " + id);
+        }
+        final TestProject outsider = new TestProject("outsider");
+        outsider.getProjectDependencies().add(outsider);
+        check(!oracle.isInCycle(outsider), "in cycle outside of the graph");
+        check(!oracle.reachesCycle(outsider), "reaches cycle outside of the graph");
+    }
+
+    private CycleOracleTest() {}
+}
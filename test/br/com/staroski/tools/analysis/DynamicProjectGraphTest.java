@@ -0,0 +1,197 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+import br.com.staroski.tools.analysis.analyzers.DependencyAnalyzer;
+
+/**
+ * Applies random changes to a {@link DynamicProjectGraph}, linking, unlinking, adding and removing projects, and compares it after each change with
+ * a naive search from each project of the changed graph.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class DynamicProjectGraphTest {
+
+    private static final int GRAPHS = 200;
+    private static final int CHANGES = 60;
+
+    public static void main(String[] args) {
+        final Random random = new Random(22);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkChanges(random);
+        }
+        System.out.println("DynamicProjectGraphTest: " + GRAPHS + " graphs of " + CHANGES + " changes OK");
+    }
+
+    private static void checkChanges(Random random) {
+        final List<TestProject> all = TestGraphs.randomProjects(random, 14);
+        final List<TestProject> live = new ArrayList<>();
+        for (TestProject project : all) {
+            if (random.nextInt(5) > 0) {
+                live.add(project);
+            }
+        }
+        final DynamicProjectGraph graph = DynamicProjectGraph.of(live);
+        check(graph.pollChangedProjects().isEmpty(), "changes before any change");
+        Map<Project, List<Integer>> metrics = checkGraph(graph, live);
+
+        for (int n = 0; n < CHANGES; n++) {
+            final TestProject source = all.get(random.nextInt(all.size()));
+            final TestProject target = all.get(random.nextInt(all.size()));
+            // a list of cycles read after the change must still show the graph before it
+            final List<Cycle> earlier = live.contains(source) ? graph.getCycles(source) : null;
+            final List<Integer> earlierLengths = live.contains(source) ? cycleLengths(live, source) : null;
+
+            final int change = random.nextInt(10);
+            if (change < 6) {
+                if (!live.contains(source)) {
+                    continue;
+                }
+                final Set<Project> dependencies = source.getProjectDependencies();
+                final boolean unlink = dependencies.contains(target);
+                if (unlink) {
+                    dependencies.remove(target);
+                } else {
+                    dependencies.add(target);
+                }
+                if (random.nextBoolean()) {
+                    graph.put(source);
+                } else if (unlink) {
+                    graph.removeDependency(source, target);
+                } else {
+                    graph.addDependency(source, target);
+                }
+            } else if (change < 8) {
+                if (live.remove(source)) {
+                    graph.remove(source);
+                }
+            } else if (!live.contains(source)) {
+                live.add(source);
+                graph.put(source);
+            }
+
+            if (earlier != null) {
+                final List<Integer> lengths = new ArrayList<>();
+                for (Cycle cycle : earlier) {
+                    lengths.add(cycle.getProjects().size());
+                }
+                lengths.sort(null);
+                check(lengths.equals(earlierLengths), "cycles of " + source + " read after a change");
+            }
+
+            final Set<Project> changed = graph.pollChangedProjects();
+            final Map<Project, List<Integer>> updated = checkGraph(graph, live);
+            for (Map.Entry<Project, List<Integer>> entry : updated.entrySet()) {
+                final boolean same = Objects.equals(metrics.get(entry.getKey()), entry.getValue());
+                check(same || changed.contains(entry.getKey()), "change of " + entry.getKey() + " not polled");
+            }
+            metrics = updated;
+        }
+    }
+
+    // compares the graph with the naive search, and returns the cyclic flag, component size, number of cycles, "Ca" and "Ce" of each project
+    private static Map<Project, List<Integer>> checkGraph(DynamicProjectGraph graph, List<TestProject> live) {
+        final boolean[][] reaches = TestGraphs.reachability(live);
+        final int size = live.size();
+        check(graph.size() == size, "size");
+        final Map<Project, List<Integer>> metrics = new HashMap<>();
+        for (int x = 0; x < size; x++) {
+            final TestProject project = live.get(x);
+            check(graph.contains(project), "contains " + project);
+
+            int componentSize = 0;
+            for (int y = 0; y < size; y++) {
+                final boolean strong = x == y || (reaches[x][y] && reaches[y][x]);
+                check((graph.getComponent(project) == graph.getComponent(live.get(y))) == strong, "component of " + project + " and " + live.get(y));
+                componentSize += strong ? 1 : 0;
+            }
+            check(graph.getComponentSize(project) == componentSize, "component size of " + project);
+            check(graph.isCyclic(project) == reaches[x][x], "cyclic " + project);
+
+            int input = 0;
+            for (int y = 0; y < size; y++) {
+                if (y != x && live.get(y).getProjectDependencies().contains(project)) {
+                    input++;
+                }
+            }
+            check(graph.getInputDependencies(project) == input, "Ca of " + project);
+            final int output = project.getProjectDependencies().size();
+            check(graph.getOutputDependencies(project) == output, "Ce of " + project);
+
+            final List<Integer> lengths = cycleLengths(live, project);
+            final List<Integer> actual = new ArrayList<>();
+            for (Cycle cycle : graph.getCycles(project)) {
+                actual.add(cycle.getProjects().size());
+            }
+            actual.sort(null);
+            check(actual.equals(lengths), "cycles of " + project);
+
+            metrics.put(project, List.of(reaches[x][x] ? 1 : 0, componentSize, lengths.size(), input, output));
+        }
+        checkCondensation(graph, live, reaches);
+        return metrics;
+    }
+
+    // the condensation built from the kept components gives the same layers as a new one and the transitive coupling of the naive search
+    private static void checkCondensation(DynamicProjectGraph graph, List<TestProject> live, boolean[][] reaches) {
+        final Condensation condensation = graph.getCondensation();
+        final StronglyConnectedComponents components = condensation.getComponents();
+        final ProjectGraph dense = components.getGraph();
+        check(dense.size() == live.size(), "size of the condensation");
+        for (int c = 0; c < condensation.size(); c++) {
+            for (int i = 0; i < condensation.getOutDegree(c); i++) {
+                check(condensation.getSuccessor(c, i) < c, "order of the condensation");
+            }
+        }
+        final Layering layering = Layering.of(condensation);
+        final ProjectGraph fresh = ProjectGraph.of(live);
+        final Layering expected = Layering.of(fresh);
+        final StronglyConnectedComponents freshComponents = expected.getCondensation().getComponents();
+        new DependencyAnalyzer().analyzeCondensation(condensation);
+        for (int id = 0; id < dense.size(); id++) {
+            final Project project = dense.getProject(id);
+            final int freshComponent = freshComponents.getComponent(fresh.getId(project));
+            check(layering.getLayer(components.getComponent(id)) == expected.getLayer(freshComponent), "layer of " + project);
+            check(layering.getDepth(components.getComponent(id)) == expected.getDepth(freshComponent), "depth of " + project);
+
+            final int x = live.indexOf(project);
+            int output = 0;
+            int input = 0;
+            for (int y = 0; y < live.size(); y++) {
+                output += y != x && reaches[x][y] ? 1 : 0;
+                input += y != x && reaches[y][x] ? 1 : 0;
+            }
+            check(project.getMetrics().getTransitiveOutputDependencies() == output, "TCe of " + project);
+            check(project.getMetrics().getTransitiveInputDependencies() == input, "TCa of " + project);
+        }
+    }
+
+    // the sorted lengths of the shortest cycles through each dependency of the project
+    private static List<Integer> cycleLengths(List<TestProject> live, TestProject project) {
+        final int x = live.indexOf(project);
+        final List<Integer> lengths = new ArrayList<>();
+        for (Project dependency : project.getProjectDependencies()) {
+            final int y = live.indexOf(dependency);
+            if (y == x) {
+                lengths.add(1);
+            } else if (y >= 0) {
+                final int back = TestGraphs.distance(live, y, x);
+                if (back > 0) {
+                    lengths.add(back + 1);
+                }
+            }
+        }
+        lengths.sort(null);
+        return lengths;
+    }
+
+    private DynamicProjectGraphTest() {}
+}
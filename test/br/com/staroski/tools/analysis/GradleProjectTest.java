@@ -0,0 +1,66 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.names;
+import static br.com.staroski.tools.analysis.TestFiles.projectNames;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a small Gradle build whose subprojects <tt>:a:util</tt> and <tt>:b:util</tt> share the name of their folders, and checks the dependencies
+ * read from the Groovy and Kotlin build scripts.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class GradleProjectTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("gradle");
+        try {
+            final String root = tree.getFileName().toString();
+            TestFiles.write(tree, "settings.gradle",
+                    "rootProject.name = 'acme'",
+                    "include ':app', ':a:util'",
+                    "include(':b:util')");
+            TestFiles.write(tree, "build.gradle", "allprojects { repositories { mavenCentral() } }");
+            TestFiles.write(tree, "app/build.gradle",
+                    "buildscript {",
+                    "    dependencies { classpath 'org.example:plugin:1.0' }",
+                    "}",
+                    "dependencies {",
+                    "    implementation project(':a:util')",
+                    "    implementation project(path: ':b:util')",
+                    "    implementation 'com.google.guava:guava:33.0'",
+                    "    testImplementation group: 'junit', name: 'junit', version: '4.13'",
+                    "}");
+            TestFiles.write(tree, "a/util/build.gradle.kts",
+                    "dependencies {",
+                    "    api(project(\":b:util\"))",
+                    "}");
+            TestFiles.write(tree, "b/util/build.gradle", "apply plugin: 'java'");
+
+            final Set<Project> projects = Projects.scan(tree);
+            final Map<String, Project> byName = projects.stream().collect(Collectors.toMap(Project::getName, Function.identity()));
+            // the root project includes the others and has no sources, it is not a component
+            check(byName.keySet().equals(Set.of(root + ":app", root + ":a:util", root + ":b:util")), "projects " + byName.keySet());
+
+            final Project app = byName.get(root + ":app");
+            check(names(app.getSrcDependencies()).equals(Set.of(root + ":a:util", root + ":b:util")), "src dependencies " + names(app.getSrcDependencies()));
+            check(names(app.getLibDependencies()).equals(Set.of("guava-33.0.jar", "junit-4.13.jar")), "lib dependencies " + names(app.getLibDependencies()));
+            check(projectNames(app.getProjectDependencies()).equals(Set.of(root + ":a:util", root + ":b:util")),
+                    "project dependencies " + projectNames(app.getProjectDependencies()));
+
+            final Project aUtil = byName.get(root + ":a:util");
+            check(aUtil.getProjectDependencies().equals(Set.of(byName.get(root + ":b:util"))), ":a:util depends on :b:util");
+            check(byName.get(root + ":b:util").getAllDependencies().isEmpty(), ":b:util has no dependencies");
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("GradleProjectTest: OK");
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.names;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a small IntelliJ IDEA workspace with a module whose <tt>.iml</tt> is kept in <tt>.idea/modules</tt>, and checks the module, project
+ * library and module library dependencies read from the <tt>.iml</tt> files.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class IdeaProjectTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("idea");
+        try {
+            TestFiles.write(tree, ".idea/modules.xml",
+                    "<project version=\"4\"><component name=\"ProjectModuleManager\"><modules>",
+                    "  <module fileurl=\"file://$PROJECT_DIR$/app/app.iml\" filepath=\"$PROJECT_DIR$/app/app.iml\"/>",
+                    "  <module fileurl=\"file://$PROJECT_DIR$/.idea/modules/core.iml\" filepath=\"$PROJECT_DIR$/.idea/modules/core.iml\"/>",
+                    "</modules></component></project>");
+            TestFiles.write(tree, ".idea/libraries/guava.xml",
+                    "<component name=\"libraryTable\"><library name=\"guava\"><CLASSES>",
+                    "  <root url=\"jar://$PROJECT_DIR$/lib/guava-33.0.jar!/\"/>",
+                    "</CLASSES><JAVADOC/><SOURCES/></library></component>");
+            TestFiles.write(tree, "app/app.iml",
+                    "<module type=\"JAVA_MODULE\" version=\"4\"><component name=\"NewModuleRootManager\">",
+                    "  <content url=\"file://$MODULE_DIR$\"/>",
+                    "  <orderEntry type=\"inheritedJdk\"/>",
+                    "  <orderEntry type=\"sourceFolder\" forTests=\"false\"/>",
+                    "  <orderEntry type=\"module\" module-name=\"core\"/>",
+                    "  <orderEntry type=\"library\" name=\"guava\" level=\"project\"/>",
+                    "  <orderEntry type=\"library\" name=\"Maven: unknown\" level=\"application\"/>",
+                    "  <orderEntry type=\"module-library\"><library><CLASSES>",
+                    "    <root url=\"jar://$MODULE_DIR$/libs/local.jar!/\"/>",
+                    "  </CLASSES></library></orderEntry>",
+                    "</component></module>");
+            // the .iml of core is kept in .idea/modules, its folder is its content root
+            TestFiles.write(tree, ".idea/modules/core.iml",
+                    "<module type=\"JAVA_MODULE\" version=\"4\"><component name=\"NewModuleRootManager\">",
+                    "  <content url=\"file://$MODULE_DIR$/../../core\"/>",
+                    "</component></module>");
+            TestFiles.write(tree, "core/src/Core.java", "class Core {}");
+
+            final Set<Project> projects = Projects.scan(tree);
+            final Map<String, Project> byName = projects.stream().collect(Collectors.toMap(Project::getName, Function.identity()));
+            // the workspace folder has no .iml of its own, it is not a component
+            check(byName.keySet().equals(Set.of("app", "core")), "modules " + byName.keySet());
+            check(byName.get("core").getPath().endsWith("core"), "core is its content root " + byName.get("core").getPath());
+
+            final Project app = byName.get("app");
+            check(app.getProjectDependencies().equals(Set.of(byName.get("core"))), "app depends on core");
+            check(names(app.getLibDependencies()).equals(Set.of("guava-33.0.jar", "local.jar")), "lib dependencies " + names(app.getLibDependencies()));
+            check(byName.get("core").getAllDependencies().isEmpty(), "core has no dependencies");
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("IdeaProjectTest: OK");
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Indexes a small jar on disk and inside a zip archive, and checks its directories and packages, the empty entry of a missing jar, and that a
+ * stored index is reused while the size and the modification time of the jar don't change.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class JarIndexTest {
+
+    private static final Set<String> DIRECTORIES = Set.of("META-INF/", "com/", "com/acme/", "com/acme/core/", "com/acme/util/", "res/");
+    private static final Set<String> PACKAGES = Set.of("com.acme.core");
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("jars");
+        try {
+            final Path jar = tree.resolve("core.jar");
+            Files.write(jar, jar());
+            final File indexFile = tree.resolve("jars.idx").toFile();
+
+            final JarIndex index = JarIndex.load(indexFile);
+            checkEntry(index.get(jar), "jar on disk");
+            check(index.get(tree.resolve("missing.jar")).getDirectories().isEmpty(), "a missing jar has no directories");
+            check(index.get(tree.resolve("missing.jar")).getPackages().isEmpty(), "a missing jar has no packages");
+            index.save();
+
+            // the same size and modification time reuse the stored entry, the content is not read again
+            final FileTime modified = Files.getLastModifiedTime(jar);
+            final byte[] garbage = new byte[(int) Files.size(jar)];
+            Arrays.fill(garbage, (byte) 'x');
+            Files.write(jar, garbage);
+            Files.setLastModifiedTime(jar, modified);
+            checkEntry(JarIndex.load(indexFile).get(jar), "jar from the stored index");
+
+            // a modified jar is read again
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(modified.toMillis() - 60000));
+            try {
+                JarIndex.load(indexFile).get(jar);
+                check(false, "a modified jar is read again");
+            } catch (ZipException e) {
+                // the garbage is not a jar
+            }
+
+            final Path archive = tree.resolve("repo.zip");
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive))) {
+                out.putNextEntry(new ZipEntry("lib/core.jar"));
+                out.write(jar());
+                out.closeEntry();
+            }
+            try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jar:" + archive.toUri()), Collections.emptyMap())) {
+                checkEntry(JarIndex.load(indexFile).get(fileSystem.getPath("/lib/core.jar")), "jar inside an archive");
+            }
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("JarIndexTest: OK");
+    }
+
+    private static void checkEntry(JarIndex.Entry entry, String message) {
+        check(entry.getDirectories().equals(DIRECTORIES), message + " directories " + entry.getDirectories());
+        check(entry.getPackages().equals(PACKAGES), message + " packages " + entry.getPackages());
+    }
+
+    // the parent directories of the classes have no entries of their own
+    private static byte[] jar() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (String name : new String[] { "META-INF/MANIFEST.MF", "com/acme/core/A.class", "com/acme/core/B.class", "com/acme/util/",
+                    "res/data.txt" }) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(name.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the {@link Layering} of random graphs with the longest chains found by a naive search from each project, and checks the layers of a wide
+ * graph, whose frontiers are large enough to be processed in parallel.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class LayeringTest {
+
+    private static final int GRAPHS = 500;
+    private static final int LEVELS = 4;
+    private static final int WIDTH = 5000;
+
+    public static void main(String[] args) {
+        final Random random = new Random(24);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        checkWideGraph(random);
+        System.out.println("LayeringTest: " + GRAPHS + " graphs and a graph of " + LEVELS * WIDTH + " projects OK");
+    }
+
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 16);
+        final boolean[][] reaches = TestGraphs.reachability(projects);
+        final int size = projects.size();
+        // a chain of components is a chain of projects that reach the next one but are not reached back
+        final int[] layers = new int[size];
+        final int[] depths = new int[size];
+        int layerCount = 0;
+        for (int x = 0; x < size; x++) {
+            layers[x] = chain(reaches, x, true, new int[size]);
+            depths[x] = chain(reaches, x, false, new int[size]);
+            layerCount = Math.max(layerCount, layers[x] + 1);
+        }
+
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final Layering layering = Layering.of(graph);
+        final StronglyConnectedComponents components = layering.getCondensation().getComponents();
+        check(layering.getLayerCount() == layerCount, "layer count");
+        for (int id = 0; id < size; id++) {
+            final int x = projects.indexOf(graph.getProject(id));
+            final int c = components.getComponent(id);
+            check(layering.getLayer(c) == layers[x], "layer of " + graph.getProject(id));
+            check(layering.getDepth(c) == depths[x], "depth of " + graph.getProject(id));
+        }
+    }
+
+    // the length of the longest chain from the project down to its dependencies, or up to its dependents, memoized in known as length + 1
+    private static int chain(boolean[][] reaches, int x, boolean down, int[] known) {
+        if (known[x] > 0) {
+            return known[x] - 1;
+        }
+        int length = 0;
+        for (int y = 0; y < reaches.length; y++) {
+            final boolean next = down ? reaches[x][y] && !reaches[y][x] : reaches[y][x] && !reaches[x][y];
+            if (next) {
+                length = Math.max(length, chain(reaches, y, down, known) + 1);
+            }
+        }
+        known[x] = length + 1;
+        return length;
+    }
+
+    // each project of a level depends on the project below it and on a few random ones of the level below
+    private static void checkWideGraph(Random random) {
+        final List<TestProject> projects = new ArrayList<>(LEVELS * WIDTH);
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < WIDTH; i++) {
+                final TestProject project = new TestProject(String.format("l%d-%04d", level, i));
+                if (level > 0) {
+                    final int below = (level - 1) * WIDTH;
+                    project.getProjectDependencies().add(projects.get(below + i));
+                    for (int k = random.nextInt(3); k > 0; k--) {
+                        project.getProjectDependencies().add(projects.get(below + random.nextInt(WIDTH)));
+                    }
+                }
+                projects.add(project);
+            }
+        }
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final Layering layering = Layering.of(graph);
+        final StronglyConnectedComponents components = layering.getCondensation().getComponents();
+        check(layering.getLayerCount() == LEVELS, "layer count of the wide graph");
+        for (int id = 0; id < graph.size(); id++) {
+            final int level = graph.getProject(id).getName().charAt(1) - '0';
+            final int c = components.getComponent(id);
+            check(layering.getLayer(c) == level, "layer of " + graph.getProject(id));
+            check(layering.getDepth(c) == LEVELS - 1 - level, "depth of " + graph.getProject(id));
+        }
+    }
+
+    private LayeringTest() {}
+}
@@ -0,0 +1,82 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.names;
+import static br.com.staroski.tools.analysis.TestFiles.projectNames;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a small Maven reactor whose modules <tt>foo-util</tt> and <tt>bar-util</tt> share the name of their folders, and checks the dependencies
+ * read from the effective POMs.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class MavenProjectTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("maven");
+        try {
+            TestFiles.write(tree, "pom.xml",
+                    "<project>",
+                    "  <groupId>com.acme</groupId>",
+                    "  <artifactId>parent</artifactId>",
+                    "  <version>1.0</version>",
+                    "  <packaging>pom</packaging>",
+                    "  <properties><junit.version>4.13</junit.version></properties>",
+                    "  <modules><module>app</module><module>foo/util</module><module>bar/util</module></modules>",
+                    "  <dependencyManagement><dependencies>",
+                    "    <dependency><groupId>com.acme</groupId><artifactId>bar-util</artifactId><version>1.0</version></dependency>",
+                    "    <dependency><groupId>org.example</groupId><artifactId>bom</artifactId><version>2.0</version>",
+                    "      <type>pom</type><scope>import</scope></dependency>",
+                    "  </dependencies></dependencyManagement>",
+                    "</project>");
+            TestFiles.write(tree, "app/pom.xml",
+                    "<project>",
+                    "  <parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version></parent>",
+                    "  <artifactId>app</artifactId>",
+                    "  <dependencies>",
+                    "    <dependency><groupId>${project.groupId}</groupId><artifactId>foo-util</artifactId><version>${project.version}</version></dependency>",
+                    "    <dependency><groupId>com.acme</groupId><artifactId>bar-util</artifactId></dependency>",
+                    "    <dependency><groupId>junit</groupId><artifactId>junit</artifactId><version>${junit.version}</version><scope>test</scope></dependency>",
+                    "  </dependencies>",
+                    "</project>");
+            TestFiles.write(tree, "foo/util/pom.xml",
+                    "<project>",
+                    "  <parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version><relativePath>../../pom.xml</relativePath></parent>",
+                    "  <artifactId>foo-util</artifactId>",
+                    "  <dependencies>",
+                    "    <dependency><groupId>com.acme</groupId><artifactId>bar-util</artifactId></dependency>",
+                    "  </dependencies>",
+                    "</project>");
+            TestFiles.write(tree, "bar/util/pom.xml",
+                    "<project>",
+                    "  <parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version><relativePath>../../pom.xml</relativePath></parent>",
+                    "  <artifactId>bar-util</artifactId>",
+                    "</project>");
+
+            final Set<Project> projects = Projects.scan(tree);
+            final Map<String, Project> byName = projects.stream().collect(Collectors.toMap(Project::getName, Function.identity()));
+            // the parent aggregates the modules, it is not a component
+            check(byName.keySet().equals(Set.of("com.acme:app", "com.acme:bar-util", "com.acme:foo-util")), "projects " + byName.keySet());
+
+            final Project app = byName.get("com.acme:app");
+            check(names(app.getSrcDependencies()).equals(Set.of("com.acme:bar-util", "com.acme:foo-util")), "src dependencies " + names(app.getSrcDependencies()));
+            check(names(app.getLibDependencies()).equals(Set.of("junit-4.13.jar")), "lib dependencies " + names(app.getLibDependencies()));
+            check(projectNames(app.getProjectDependencies()).equals(Set.of("com.acme:bar-util", "com.acme:foo-util")),
+                    "project dependencies " + projectNames(app.getProjectDependencies()));
+
+            final Project fooUtil = byName.get("com.acme:foo-util");
+            check(fooUtil.getProjectDependencies().equals(Set.of(byName.get("com.acme:bar-util"))), "foo-util depends on bar-util ");
+            check(byName.get("com.acme:bar-util").getAllDependencies().isEmpty(), "bar-util has no dependencies");
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("MavenProjectTest: OK");
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.projectNames;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans a tree of Eclipse projects sequentially, in parallel and as a stream, and checks that all of them find the same projects: the pruned folders,
+ * the folders below a project and a symbolic link loop are not scanned.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ProjectScannerTest {
+
+    private static final int GROUPS = 10;
+    private static final int PROJECTS = 20;
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("scanner");
+        try {
+            final Set<String> expected = new TreeSet<>();
+            for (int g = 0; g < GROUPS; g++) {
+                for (int p = 0; p < PROJECTS; p++) {
+                    final String name = String.format("p%d-%02d", g, p);
+                    // each project depends on the previous one of its group
+                    eclipseProject(tree.resolve("g" + g).resolve(name), p == 0 ? null : String.format("p%d-%02d", g, p - 1));
+                    expected.add(name);
+                }
+            }
+            eclipseProject(tree.resolve("g0/p0-00/inner"), null);
+            eclipseProject(tree.resolve("g1/target/built"), null);
+            eclipseProject(tree.resolve("skipped/ignored"), null);
+            TestFiles.write(tree, ScanPolicy.IGNORE_FILE, "skipped/");
+            try {
+                Files.createSymbolicLink(tree.resolve("g2/loop"), tree.resolve("g2"));
+            } catch (IOException | UnsupportedOperationException e) {
+                System.out.println("ProjectScannerTest: symbolic links not supported, the loop is not checked");
+            }
+
+            final AtomicInteger found = new AtomicInteger();
+            final Set<String> pruned = new TreeSet<>();
+            final ProjectScanListener listener = new ProjectScanListener() {
+
+                @Override
+                public void onDirectoryEnter(File directory) {}
+
+                @Override
+                public void onDirectoryExit(File directory) {}
+
+                @Override
+                public void onDirectoryPruned(File directory) {
+                    pruned.add(directory.getName());
+                }
+
+                @Override
+                public void onProjectFound(Project project) {
+                    found.incrementAndGet();
+                }
+
+                @Override
+                public void onProjectScanFinished(File directory) {}
+
+                @Override
+                public void onProjectScanStarted(File directory) {}
+            };
+            for (int parallelism : new int[] { 1, 4 }) {
+                found.set(0);
+                pruned.clear();
+                final Set<Project> projects = new ProjectScanner().withListener(listener).withParallelism(parallelism).scan(tree);
+                check(projectNames(projects).equals(expected), "projects found with parallelism " + parallelism);
+                check(found.get() == expected.size(), "onProjectFound with parallelism " + parallelism);
+                check(pruned.equals(Set.of("skipped", "target")), "pruned " + pruned);
+                for (Project project : projects) {
+                    final String name = project.getName();
+                    final int index = Integer.parseInt(name.substring(name.indexOf('-') + 1));
+                    check(project.getProjectDependencies().size() == (index == 0 ? 0 : 1), "dependencies of " + name);
+                }
+            }
+            try (Stream<Project> stream = new ProjectScanner().withParallelism(4).stream(tree)) {
+                check(stream.map(Project::getName).collect(Collectors.toCollection(TreeSet::new)).equals(expected), "projects streamed");
+            }
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("ProjectScannerTest: OK");
+    }
+
+    private static void eclipseProject(Path folder, String dependency) throws IOException {
+        TestFiles.write(folder, EclipseProject.PROJECT_FILE, "<projectDescription><name>" + folder.getFileName() + "</name></projectDescription>");
+        TestFiles.write(folder, EclipseProject.CLASSPATH_FILE,
+                "<classpath>",
+                "  <classpathentry kind=\"src\" path=\"src\"/>",
+                dependency == null ? "" : "  <classpathentry combineaccessrules=\"false\" kind=\"src\" path=\"/" + dependency + "\"/>",
+                "  <classpathentry kind=\"output\" path=\"bin\"/>",
+                "</classpath>");
+    }
+}
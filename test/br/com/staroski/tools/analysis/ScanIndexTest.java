@@ -0,0 +1,145 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestFiles.names;
+import static br.com.staroski.tools.analysis.TestFiles.projectNames;
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Scans the same trees twice with a {@link ScanIndex} saved and loaded between the scans, and checks that the unchanged projects are rebuilt from the
+ * index with the same names and dependencies, while the changed ones, and the ones below a new workspace, are read again.<br>
+ * A tree inside a zip archive checks that the index resolves the directories on their own file system.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ScanIndexTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("index");
+        try {
+            checkMaven(tree.resolve("maven"), tree.resolve("maven.idx").toFile());
+            checkIdea(tree.resolve("idea"), tree.resolve("idea.idx").toFile());
+            checkZip(tree.resolve("tree.zip"), tree.resolve("zip.idx").toFile());
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("ScanIndexTest: OK");
+    }
+
+    private static void checkMaven(Path tree, File indexFile) throws IOException {
+        TestFiles.write(tree, "pom.xml", parent("<module>app</module><module>lib</module>"));
+        TestFiles.write(tree, "app/pom.xml", module("app", "<dependency><groupId>com.acme</groupId><artifactId>lib</artifactId></dependency>"));
+        TestFiles.write(tree, "lib/pom.xml", module("lib", ""));
+        TestFiles.age(tree, 60);
+
+        final Map<String, Project> first = scan(tree, indexFile, 0);
+        check(first.keySet().equals(Set.of("com.acme:app", "com.acme:lib")), "projects " + first.keySet());
+
+        final Map<String, Project> second = scan(tree, indexFile, 2);
+        check(second.get("com.acme:app") instanceof IndexedProject, "app rebuilt from the index");
+        check(names(second.get("com.acme:app").getSrcDependencies()).equals(Set.of("com.acme:lib")), "indexed src dependencies");
+        check(projectNames(second.get("com.acme:app").getProjectDependencies()).equals(Set.of("com.acme:lib")), "indexed project dependencies");
+
+        // a changed POM is read again, the directory itself keeps its modification time
+        TestFiles.write(tree, "lib/pom.xml", module("lib", "<dependency><groupId>junit</groupId><artifactId>junit</artifactId><version>4.13</version></dependency>"));
+        TestFiles.age(tree.resolve("lib/pom.xml"), 30);
+        final Map<String, Project> third = scan(tree, indexFile, 1);
+        check(!(third.get("com.acme:lib") instanceof IndexedProject), "changed lib read again");
+        check(names(third.get("com.acme:lib").getLibDependencies()).equals(Set.of("junit-4.13.jar")), "changed lib dependencies");
+
+        // a changed parent POM reads its modules again
+        TestFiles.write(tree, "pom.xml", parent("<module>app</module><module>lib</module><!-- changed -->"));
+        TestFiles.age(tree.resolve("pom.xml"), 30);
+        scan(tree, indexFile, 0);
+    }
+
+    // a .idea/modules.xml created in a workspace doesn't change the modification time of the workspace folder, only of the .idea folder
+    private static void checkIdea(Path tree, File indexFile) throws IOException {
+        TestFiles.write(tree, ".idea/workspace.xml", "<project/>");
+        TestFiles.write(tree, "app/app.iml", iml("<orderEntry type=\"module\" module-name=\"lib\"/>"));
+        TestFiles.write(tree, "lib/lib.iml", iml(""));
+        TestFiles.age(tree, 60);
+
+        final Map<String, Project> first = scan(tree, indexFile, 0);
+        check(first.keySet().equals(Set.of("app", "lib")), "modules " + first.keySet());
+        check(first.get("app").getSrcDependencies().isEmpty(), "a module without workspace doesn't resolve the other modules");
+        check(scan(tree, indexFile, 2).get("app").getSrcDependencies().isEmpty(), "indexed module without workspace");
+
+        TestFiles.write(tree, ".idea/modules.xml",
+                "<project><component name=\"ProjectModuleManager\"><modules>",
+                "<module filepath=\"$PROJECT_DIR$/app/app.iml\"/>",
+                "<module filepath=\"$PROJECT_DIR$/lib/lib.iml\"/>",
+                "</modules></component></project>");
+        TestFiles.age(tree.resolve(".idea/modules.xml"), 30);
+        TestFiles.age(tree.resolve(".idea"), 30);
+        Files.setLastModifiedTime(tree, Files.getLastModifiedTime(tree.resolve("app")));
+        final Map<String, Project> second = scan(tree, indexFile, 0);
+        check(projectNames(second.get("app").getProjectDependencies()).equals(Set.of("lib")), "the modules below a new workspace are read again");
+        check(scan(tree, indexFile, 2).get("app").getProjectDependencies().equals(Set.of(second.get("lib"))), "indexed module of a workspace");
+    }
+
+    private static void checkZip(Path zip, File indexFile) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            put(out, "repo/pom.xml", parent("<module>app</module><module>lib</module>"));
+            put(out, "repo/app/pom.xml", module("app", "<dependency><groupId>com.acme</groupId><artifactId>lib</artifactId></dependency>"));
+            put(out, "repo/lib/pom.xml", module("lib", ""));
+        }
+        for (int scan = 0; scan < 2; scan++) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), Collections.emptyMap())) {
+                final Map<String, Project> projects = scan(fileSystem.getPath("/repo"), indexFile, scan == 0 ? 0 : 2);
+                check(projects.keySet().equals(Set.of("com.acme:app", "com.acme:lib")), "zip projects " + projects.keySet());
+                final Project app = projects.get("com.acme:app");
+                check(app.getPath().getFileSystem() == fileSystem, "a zip project is on the zip file system");
+                check(projectNames(app.getProjectDependencies()).equals(Set.of("com.acme:lib")), "zip project dependencies");
+            }
+        }
+    }
+
+    // scans the tree with the index in the file, checking how many projects were rebuilt from it
+    private static Map<String, Project> scan(Path tree, File indexFile, int reused) throws IOException {
+        final ScanIndex index = ScanIndex.load(indexFile);
+        final Set<Project> projects = new ProjectScanner().withIndex(index).scan(tree);
+        check(index.getReusedProjects() == reused, "reused " + index.getReusedProjects() + " projects instead of " + reused + " in " + tree);
+        index.save();
+        return projects.stream().collect(Collectors.toMap(Project::getName, Function.identity()));
+    }
+
+    // an entry older than the scans, so its modification time can be trusted
+    private static void put(ZipOutputStream out, String name, String[] lines) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTime(System.currentTimeMillis() - 60000);
+        out.putNextEntry(entry);
+        out.write(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private static String[] parent(String modules) {
+        return new String[] { "<project><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version><packaging>pom</packaging>",
+                "<modules>" + modules + "</modules></project>" };
+    }
+
+    private static String[] module(String artifactId, String dependencies) {
+        return new String[] { "<project><parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version></parent>",
+                "<artifactId>" + artifactId + "</artifactId><dependencies>" + dependencies + "</dependencies></project>" };
+    }
+
+    private static String[] iml(String orderEntries) {
+        return new String[] { "<module type=\"JAVA_MODULE\" version=\"4\"><component name=\"NewModuleRootManager\">",
+                "<content url=\"file://$MODULE_DIR$\"/>" + orderEntries + "</component></module>" };
+    }
+}
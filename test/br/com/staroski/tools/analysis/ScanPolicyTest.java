@@ -0,0 +1,76 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Checks the rules of the {@link ScanPolicy#defaults() default} policy and of the {@value ScanPolicy#IGNORE_FILE} files of a small tree: literal,
+ * wildcard, anchored and negated rules, and the precedence of a deeper file over its parents.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class ScanPolicyTest {
+
+    public static void main(String[] args) throws IOException {
+        final Path tree = TestFiles.createTree("policy").toRealPath();
+        try {
+            checkDefaults(tree);
+            checkIgnoreFiles(tree);
+        } finally {
+            TestFiles.delete(tree);
+        }
+        System.out.println("ScanPolicyTest: OK");
+    }
+
+    private static void checkDefaults(Path tree) {
+        final ScanPolicy defaults = ScanPolicy.defaults();
+        check(defaults.isIgnored(tree.resolve("target"), true), "target/ is pruned");
+        check(defaults.isIgnored(tree.resolve("a/.git"), true), ".git/ is pruned at any level");
+        check(!defaults.isIgnored(tree.resolve("target"), false), "a file named target is not a directory rule match");
+        check(!defaults.isIgnored(tree.resolve("src"), true), "src/ is scanned");
+        check(!ScanPolicy.none().isIgnored(tree.resolve("target"), true), "no rules prune nothing");
+    }
+
+    private static void checkIgnoreFiles(Path tree) throws IOException {
+        TestFiles.write(tree, ScanPolicy.IGNORE_FILE,
+                "# comments and blank lines are skipped",
+                "",
+                "legacy/",
+                "*.tmp",
+                "/docs",
+                "!build/",
+                "gen/**/dist/",
+                "[ab]-old",
+                "\\#hash",
+                "*.log",
+                "!keep.log");
+        TestFiles.write(tree, "sub/" + ScanPolicy.IGNORE_FILE, "!legacy/", "extra/");
+
+        final ScanPolicy root = ScanPolicy.defaults().enter(tree);
+        check(root.isIgnored(tree.resolve("legacy"), true), "literal directory rule");
+        check(root.isIgnored(tree.resolve("a/b/legacy"), true), "a rule without slash matches at any level");
+        check(!root.isIgnored(tree.resolve("legacy"), false), "a directory rule doesn't match files");
+        check(root.isIgnored(tree.resolve("x/y.tmp"), false), "wildcard rule");
+        check(root.isIgnored(tree.resolve("docs"), true), "anchored rule at its base");
+        check(!root.isIgnored(tree.resolve("a/docs"), true), "an anchored rule doesn't match deeper");
+        check(!root.isIgnored(tree.resolve("build"), true), "a negated rule re-includes a default one");
+        check(root.isIgnored(tree.resolve("target"), true), "the defaults still apply");
+        check(root.isIgnored(tree.resolve("gen/dist"), true), "** matches zero directories");
+        check(root.isIgnored(tree.resolve("gen/a/b/dist"), true), "** matches many directories");
+        check(!root.isIgnored(tree.resolve("x/gen/dist"), true), "** rules are anchored");
+        check(root.isIgnored(tree.resolve("a-old"), true) && root.isIgnored(tree.resolve("b-old"), true), "character class");
+        check(!root.isIgnored(tree.resolve("c-old"), true), "character class mismatch");
+        check(root.isIgnored(tree.resolve("#hash"), false), "escaped #");
+        check(root.isIgnored(tree.resolve("x.log"), false) && !root.isIgnored(tree.resolve("keep.log"), false), "the last matching rule wins");
+
+        final ScanPolicy sub = root.enter(tree.resolve("sub"));
+        check(!sub.isIgnored(tree.resolve("sub/legacy"), true), "a deeper file overrides its parents");
+        check(!sub.isIgnored(tree.resolve("sub/x/legacy"), true), "a deeper file overrides its parents below it");
+        check(sub.isIgnored(tree.resolve("sub/extra"), true), "the rules of the deeper file");
+        check(sub.isIgnored(tree.resolve("sub/y.tmp"), false), "the parent rules still apply");
+        check(!root.isIgnored(tree.resolve("extra"), true), "the deeper rules don't apply to the parents");
+        check(root.enter(tree.resolve("a")) == root, "a directory without ignore file keeps the policy");
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.staroski.tools.analysis;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares the {@link StronglyConnectedComponents} of random graphs with the components found by a naive search from each project.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class StronglyConnectedComponentsTest {
+
+    private static final int GRAPHS = 500;
+
+    public static void main(String[] args) {
+        final Random random = new Random(19);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        System.out.println("StronglyConnectedComponentsTest: " + GRAPHS + " graphs OK");
+    }
+
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 16);
+        final boolean[][] reaches = TestGraphs.reachability(projects);
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        final int size = graph.size();
+        check(size == projects.size(), "size");
+
+        final int[] index = new int[size];
+        for (int id = 0; id < size; id++) {
+            index[id] = projects.indexOf(graph.getProject(id));
+        }
+
+        for (int x = 0; x < size; x++) {
+            final int cx = components.getComponent(x);
+            final Project project = graph.getProject(x);
+            check(components.isCyclic(x) == reaches[index[x]][index[x]], "cyclic " + project);
+            for (int y = 0; y < size; y++) {
+                final boolean strong = x == y || (reaches[index[x]][index[y]] && reaches[index[y]][index[x]]);
+                check((cx == components.getComponent(y)) == strong, "component of " + project + " and " + graph.getProject(y));
+            }
+            // reverse topological order, the dependencies are in components with smaller ids
+            for (int i = 0; i < graph.getOutDegree(x); i++) {
+                check(components.getComponent(graph.getSuccessor(x, i)) <= cx, "order " + project);
+            }
+        }
+
+        final Set<Integer> members = new HashSet<>();
+        for (int c = 0; c < components.getComponentCount(); c++) {
+            for (int i = 0; i < components.getComponentSize(c); i++) {
+                final int member = components.getMember(c, i);
+                check(components.getComponent(member) == c, "member of " + c);
+                check(members.add(member), "member twice " + graph.getProject(member));
+            }
+        }
+        check(members.size() == size, "members");
+
+        for (int x = 0; x < size; x++) {
+            checkCycles(projects, graph, components, x, index);
+        }
+    }
+
+    // one shortest cycle for each dependency inside the component, starting with the project
+    private static void checkCycles(List<TestProject> projects, ProjectGraph graph, StronglyConnectedComponents components, int x, int[] index) {
+        final Project project = graph.getProject(x);
+        final Set<Project> expected = new HashSet<>();
+        for (int i = 0; i < graph.getOutDegree(x); i++) {
+            final int y = graph.getSuccessor(x, i);
+            if (components.getComponent(y) == components.getComponent(x)) {
+                expected.add(graph.getProject(y));
+            }
+        }
+        final List<Cycle> cycles = components.getCycles(x);
+        check(cycles.size() == expected.size(), "cycles of " + project);
+        final Set<Project> seen = new HashSet<>();
+        for (Cycle cycle : cycles) {
+            final List<Project> path = cycle.getProjects();
+            check(path.get(0) == project, "start of " + cycle);
+            for (int i = 0; i < path.size(); i++) {
+                final Project next = path.get((i + 1) % path.size());
+                check(path.get(i).getProjectDependencies().contains(next), "dependency " + path.get(i) + " -> " + next + " of " + cycle);
+            }
+            final Project first = path.size() > 1 ? path.get(1) : project;
+            check(seen.add(first), "two cycles through " + first);
+            final int back = first == project ? 0 : TestGraphs.distance(projects, projects.indexOf(first), index[x]);
+            check(path.size() == back + 1, "shortest " + cycle);
+        }
+        check(seen.equals(expected), "dependencies of the cycles of " + project);
+    }
+
+    private StronglyConnectedComponentsTest() {}
+}
@@ -0,0 +1,87 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Temporary directory trees for the tests that read projects from disk.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class TestFiles {
+
+    /**
+     * Creates an empty temporary directory, delete it with {@link #delete(Path)}.
+     */
+    public static Path createTree(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    /**
+     * Recursively deletes the specified directory tree.
+     */
+    public static void delete(Path tree) throws IOException {
+        if (!Files.exists(tree)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(tree)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Sets the modification time of the tree and of everything in it to the specified number of seconds ago, so the files look older than a scan.
+     */
+    public static void age(Path tree, int seconds) throws IOException {
+        final FileTime time = FileTime.fromMillis(System.currentTimeMillis() - seconds * 1000L);
+        try (Stream<Path> paths = Files.walk(tree)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.setLastModifiedTime(path, time);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the specified dependencies, sorted.
+     */
+    public static Set<String> names(Set<Dependency> dependencies) {
+        return dependencies.stream().map(Dependency::getName).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Returns the names of the specified projects, sorted.
+     */
+    public static Set<String> projectNames(Set<? extends Project> projects) {
+        return projects.stream().map(Project::getName).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Writes the lines to the file at the specified path relative to the tree, creating its parent directories.
+     *
+     * @return The file written.
+     */
+    public static Path write(Path tree, String file, String... lines) throws IOException {
+        final Path path = tree.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    // non instantiable
+    private TestFiles() {}
+}
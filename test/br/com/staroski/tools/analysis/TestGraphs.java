@@ -0,0 +1,185 @@
+package br.com.staroski.tools.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random graphs of {@link TestProject}s and the naive searches the tests compare the analysis with.<br>
+ * The naive searches read the project dependencies directly, a breadth-first search from each project, and the projects are identified by their
+ * indexes in the list.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class TestGraphs {
+
+    /**
+     * Returns the indexes in the list of the dependencies of each project, the dependencies outside of the list are left out.
+     */
+    public static int[][] adjacency(List<? extends Project> projects) {
+        final Map<Project, Integer> indexes = new HashMap<>();
+        for (int x = 0; x < projects.size(); x++) {
+            indexes.put(projects.get(x), x);
+        }
+        final int[][] adjacency = new int[projects.size()][];
+        for (int x = 0; x < projects.size(); x++) {
+            adjacency[x] = projects.get(x).getProjectDependencies().stream().map(indexes::get).filter(Objects::nonNull).mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return adjacency;
+    }
+
+    /**
+     * Throws an {@link AssertionError} with the specified message if the condition is <tt>false</tt>.
+     */
+    public static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Returns the elementary cycles of the projects, each one starting with its project of smallest index.<br>
+     * The cycles are the simple paths from each project through projects of larger indexes only, closed by a dependency back on it.
+     */
+    public static Set<List<Project>> cycles(List<? extends Project> projects) {
+        final int[][] adjacency = adjacency(projects);
+        final Set<List<Project>> cycles = new HashSet<>();
+        for (int start = 0; start < projects.size(); start++) {
+            final List<Integer> path = new ArrayList<>();
+            path.add(start);
+            extend(projects, adjacency, path, cycles);
+        }
+        return cycles;
+    }
+
+    /**
+     * Returns the length of the shortest path between the specified projects, <tt>-1</tt> if there is none.<br>
+     * The path from a project to itself is a cycle, it has at least one dependency.
+     */
+    public static int distance(List<? extends Project> projects, int from, int to) {
+        final int[] distance = new int[projects.size()];
+        Arrays.fill(distance, -1);
+        final Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            final int x = queue.poll();
+            final int d = x == from ? 0 : distance[x];
+            for (Project dependency : projects.get(x).getProjectDependencies()) {
+                final int y = projects.indexOf(dependency);
+                if (y < 0) {
+                    continue;
+                }
+                if (y == to) {
+                    return d + 1;
+                }
+                if (distance[y] < 0 && y != from) {
+                    distance[y] = d + 1;
+                    queue.add(y);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a random graph of up to <tt>maxSize</tt> projects, with a random density, self dependencies included.
+     */
+    public static List<TestProject> randomProjects(Random random, int maxSize) {
+        final int size = 1 + random.nextInt(maxSize);
+        final List<TestProject> projects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            projects.add(new TestProject(String.format("p%02d", i)));
+        }
+        final double density = random.nextDouble() * 0.4;
+        for (TestProject source : projects) {
+            for (TestProject target : projects) {
+                if (random.nextDouble() < density) {
+                    source.getProjectDependencies().add(target);
+                }
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Returns which projects each project depends on, directly or indirectly: <tt>reaches[x][y]</tt> tells if there is a path of at least one
+     * dependency from <tt>x</tt> to <tt>y</tt>.
+     */
+    public static boolean[][] reachability(List<? extends Project> projects) {
+        final int[][] adjacency = adjacency(projects);
+        final boolean[][] reaches = new boolean[projects.size()][];
+        for (int x = 0; x < projects.size(); x++) {
+            reaches[x] = reachableFrom(adjacency, x);
+        }
+        return reaches;
+    }
+
+    /**
+     * Returns which projects are reached from the specified one by a path of at least one edge of the adjacency.
+     */
+    public static boolean[] reachableFrom(int[][] adjacency, int from) {
+        final boolean[] reached = new boolean[adjacency.length];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            for (int y : adjacency[queue.poll()]) {
+                if (!reached[y]) {
+                    reached[y] = true;
+                    queue.add(y);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Returns the reverse of the specified adjacency, the indexes of the projects that depend on each project.
+     */
+    public static int[][] reverse(int[][] adjacency) {
+        final int[] degrees = new int[adjacency.length];
+        for (int[] targets : adjacency) {
+            for (int y : targets) {
+                degrees[y]++;
+            }
+        }
+        final int[][] reverse = new int[adjacency.length][];
+        for (int y = 0; y < adjacency.length; y++) {
+            reverse[y] = new int[degrees[y]];
+            degrees[y] = 0;
+        }
+        for (int x = 0; x < adjacency.length; x++) {
+            for (int y : adjacency[x]) {
+                reverse[y][degrees[y]++] = x;
+            }
+        }
+        return reverse;
+    }
+
+    private static void extend(List<? extends Project> projects, int[][] adjacency, List<Integer> path, Set<List<Project>> cycles) {
+        final int start = path.get(0);
+        for (int y : adjacency[path.get(path.size() - 1)]) {
+            if (y == start) {
+                final List<Project> cycle = new ArrayList<>();
+                for (int x : path) {
+                    cycle.add(projects.get(x));
+                }
+                cycles.add(cycle);
+            } else if (y > start && !path.contains(y)) {
+                path.add(y);
+                extend(projects, adjacency, path, cycles);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private TestGraphs() {}
+}
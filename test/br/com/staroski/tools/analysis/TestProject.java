@@ -0,0 +1,84 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A {@link Project} for the tests, its project dependencies are set directly instead of read from a folder.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class TestProject implements Project {
+
+    private final String name;
+    private final Set<Project> projectDependencies = new LinkedHashSet<>();
+    private final Metrics metrics = new Metrics(this);
+
+    public TestProject(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public int compareTo(Project other) {
+        return name.compareTo(other.getName());
+    }
+
+    @Override
+    public Set<Dependency> getAllDependencies() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public File getDirectory() {
+        return new File(name);
+    }
+
+    @Override
+    public Set<Dependency> getLibDependencies() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Path getPath() {
+        return Paths.get(name);
+    }
+
+    @Override
+    public Set<Project> getProjectDependencies() {
+        return projectDependencies;
+    }
+
+    @Override
+    public Set<Dependency> getSrcDependencies() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public boolean hasNestedProjects() {
+        return false;
+    }
+
+    @Override
+    public boolean isComponent() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
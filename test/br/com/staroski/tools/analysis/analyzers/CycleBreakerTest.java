@@ -0,0 +1,93 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import br.com.staroski.tools.analysis.Project;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.StronglyConnectedComponents;
+import br.com.staroski.tools.analysis.TestGraphs;
+import br.com.staroski.tools.analysis.TestProject;
+
+/**
+ * Checks that removing the dependencies recommended by the {@link CycleBreaker} makes random graphs acyclic, that their broken cycles match the
+ * cycles found by a naive search, and the recommendation of a graph whose cycles share a single dependency.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class CycleBreakerTest {
+
+    private static final int GRAPHS = 500;
+
+    public static void main(String[] args) {
+        final Random random = new Random(21);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        checkSharedDependency();
+        System.out.println("CycleBreakerTest: " + GRAPHS + " graphs OK");
+    }
+
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 9);
+        final Set<List<Project>> cycles = TestGraphs.cycles(projects);
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        final CycleBreaker breaker = new CycleBreaker().withMaxCycles(Long.MAX_VALUE).withTimeBudget(null)
+                .withSiftingRounds(random.nextInt(3) * 2);
+        final List<CycleBreaker.Edge> edges = breaker.analyze(components);
+
+        final Set<String> seen = new HashSet<>();
+        for (int i = 0; i < edges.size(); i++) {
+            final CycleBreaker.Edge edge = edges.get(i);
+            check(edge.getSource().getProjectDependencies().contains(edge.getTarget()), "dependency " + edge);
+            check(components.getComponent(graph.getId(edge.getSource())) == edge.getComponent(), "component of the source of " + edge);
+            check(components.getComponent(graph.getId(edge.getTarget())) == edge.getComponent(), "component of the target of " + edge);
+            check(seen.add(edge.toString()), "recommended twice " + edge);
+            check(edge.getBrokenCycles() == countCycles(cycles, edge), "broken cycles of " + edge);
+            check(i == 0 || edges.get(i - 1).getBrokenCycles() >= edge.getBrokenCycles(), "ranking of " + edge);
+        }
+
+        for (CycleBreaker.Edge edge : edges) {
+            edge.getSource().getProjectDependencies().remove(edge.getTarget());
+        }
+        final boolean[][] reaches = TestGraphs.reachability(projects);
+        for (int x = 0; x < projects.size(); x++) {
+            check(!reaches[x][x], "cycle through " + projects.get(x) + " after removing " + edges);
+        }
+    }
+
+    // a -> b -> c -> a and b -> c -> b, removing b -> c breaks both
+    private static void checkSharedDependency() {
+        final TestProject a = new TestProject("a");
+        final TestProject b = new TestProject("b");
+        final TestProject c = new TestProject("c");
+        a.getProjectDependencies().add(b);
+        b.getProjectDependencies().add(c);
+        c.getProjectDependencies().add(a);
+        c.getProjectDependencies().add(b);
+        final List<CycleBreaker.Edge> edges = new CycleBreaker().analyze(ProjectGraph.of(List.of(a, b, c)));
+        check(edges.size() == 1, "one recommendation " + edges);
+        check(edges.get(0).getSource() == b && edges.get(0).getTarget() == c, "recommendation " + edges);
+        check(edges.get(0).getBrokenCycles() == 2, "broken cycles of " + edges);
+    }
+
+    private static long countCycles(Set<List<Project>> cycles, CycleBreaker.Edge edge) {
+        long count = 0;
+        for (List<Project> cycle : cycles) {
+            for (int i = 0; i < cycle.size(); i++) {
+                if (cycle.get(i) == edge.getSource() && cycle.get((i + 1) % cycle.size()) == edge.getTarget()) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private CycleBreakerTest() {}
+}
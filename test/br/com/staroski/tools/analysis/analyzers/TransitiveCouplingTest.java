@@ -0,0 +1,97 @@
+package br.com.staroski.tools.analysis.analyzers;
+
+import static br.com.staroski.tools.analysis.TestGraphs.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import br.com.staroski.tools.analysis.Condensation;
+import br.com.staroski.tools.analysis.Metrics;
+import br.com.staroski.tools.analysis.ProjectGraph;
+import br.com.staroski.tools.analysis.TestGraphs;
+import br.com.staroski.tools.analysis.TestProject;
+
+/**
+ * Compares the {@link TransitiveCoupling} of random graphs with a naive search from each project, and of some projects of a graph with enough
+ * components to be computed in more than one slice.
+ *
+ * @author Staroski, Ricardo Artur
+ */
+public final class TransitiveCouplingTest {
+
+    private static final int GRAPHS = 500;
+    private static final int LARGE_SIZE = 20000;
+    private static final int LARGE_SAMPLES = 300;
+
+    public static void main(String[] args) {
+        final Random random = new Random(25);
+        for (int n = 0; n < GRAPHS; n++) {
+            checkGraph(random);
+        }
+        checkLargeGraph(random);
+        System.out.println("TransitiveCouplingTest: " + GRAPHS + " graphs and a graph of " + LARGE_SIZE + " projects OK");
+    }
+
+    // every project, both from the coupling and from the metrics set by the analyzer
+    private static void checkGraph(Random random) {
+        final List<TestProject> projects = TestGraphs.randomProjects(random, 16);
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final TransitiveCoupling coupling = TransitiveCoupling.of(Condensation.of(graph));
+        new DependencyAnalyzer().analyze(graph);
+        final int[][] adjacency = TestGraphs.adjacency(projects);
+        final int[][] reverse = TestGraphs.reverse(adjacency);
+        for (int id = 0; id < graph.size(); id++) {
+            final int x = projects.indexOf(graph.getProject(id));
+            final int output = count(TestGraphs.reachableFrom(adjacency, x), x);
+            final int input = count(TestGraphs.reachableFrom(reverse, x), x);
+            check(coupling.getOutputDependencies(id) == output, "TCe of " + graph.getProject(id));
+            check(coupling.getInputDependencies(id) == input, "TCa of " + graph.getProject(id));
+            final Metrics metrics = graph.getProject(id).getMetrics();
+            check(metrics.getTransitiveOutputDependencies() == output, "metrics TCe of " + graph.getProject(id));
+            check(metrics.getTransitiveInputDependencies() == input, "metrics TCa of " + graph.getProject(id));
+        }
+    }
+
+    // the projects depend on projects of lower blocks, plus a few cycles, so there are more components than fit in one slice of bitsets
+    private static void checkLargeGraph(Random random) {
+        final List<TestProject> projects = new ArrayList<>(LARGE_SIZE);
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            final TestProject project = new TestProject(String.format("b%05d", i));
+            for (int k = 0; k < 3; k++) {
+                final int target = random.nextInt(LARGE_SIZE);
+                if (target / 2000 < i / 2000) {
+                    project.getProjectDependencies().add(projects.get(target));
+                }
+            }
+            projects.add(project);
+        }
+        for (int i = 0; i < 100; i++) {
+            projects.get(i * 150).getProjectDependencies().add(projects.get(i * 150 + 3));
+            projects.get(i * 150 + 3).getProjectDependencies().add(projects.get(i * 150));
+        }
+        final ProjectGraph graph = ProjectGraph.of(projects);
+        final TransitiveCoupling coupling = TransitiveCoupling.of(Condensation.of(graph));
+        final int[][] adjacency = TestGraphs.adjacency(projects);
+        final int[][] reverse = TestGraphs.reverse(adjacency);
+        for (int n = 0; n < LARGE_SAMPLES; n++) {
+            final int id = random.nextInt(graph.size());
+            final int x = Integer.parseInt(graph.getProject(id).getName().substring(1));
+            check(coupling.getOutputDependencies(id) == count(TestGraphs.reachableFrom(adjacency, x), x), "TCe of " + graph.getProject(id));
+            check(coupling.getInputDependencies(id) == count(TestGraphs.reachableFrom(reverse, x), x), "TCa of " + graph.getProject(id));
+        }
+    }
+
+    // the projects reached, not counting the project itself
+    private static int count(boolean[] reached, int self) {
+        int count = 0;
+        for (int y = 0; y < reached.length; y++) {
+            if (reached[y] && y != self) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private TransitiveCouplingTest() {}
+}